@@ -30,6 +30,7 @@ repositories {
 dependencies {
     implementation("org.jetbrains.kotlin:kotlin-stdlib:1.8.20-Beta")
     implementation("org.jetbrains.kotlinx:kotlinx-serialization-json-jvm:1.4.1")
+    implementation("org.ow2.asm:asm-tree:9.4")
     implementation(project(":element-core"))
 
     "functionalTestImplementation"("org.junit.jupiter:junit-jupiter-api:5.9.0")
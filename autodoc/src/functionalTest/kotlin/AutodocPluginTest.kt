@@ -1,4 +1,6 @@
+import com.github.steanky.element.core.ElementBinding
 import kotlinx.serialization.json.*
+import org.gradle.testkit.runner.BuildResult
 import org.gradle.testkit.runner.GradleRunner
 import org.gradle.testkit.runner.TaskOutcome
 import org.junit.jupiter.api.AfterAll
@@ -27,21 +29,14 @@ class AutodocPluginTest {
                 "with name $name; does it not exist?")).toURI().toPath().toFile()
     }
 
-    private fun test(vararg args: String) {
+    private fun setUp(name: String) : File {
         val testProjectFile = testProjectDir.toFile()
         testProjectFile.listFiles()?.forEach {
             it.deleteRecursively()
         }
 
-        val callerName = StackWalker.getInstance().walk {
-            it.skip(1).findFirst().get()
-        }.methodName ?: fail("Unable to find caller method, can't assume a resource folder")
-
-        val expected = fileFromResource(callerName + "_expected.json")
-        val expectedJson = Json.parseToJsonElement(expected.readText())
-
-        val baseFile = fileFromResource(callerName)
-        val baseTargetFile = testProjectFile.resolve(callerName)
+        val baseFile = fileFromResource(name)
+        val baseTargetFile = testProjectFile.resolve(name)
 
         baseFile.listFiles()?.forEach {
             it.copyRecursively(baseTargetFile.resolve(it.relativeTo(baseFile)), true) {
@@ -51,13 +46,16 @@ class AutodocPluginTest {
             }
         }
 
+        return baseTargetFile
+    }
+
+    private fun run(projectDir: File, vararg args: String) : BuildResult {
         val list = mutableListOf<String>()
-        list.add("elementAutodoc")
-        list.add("--stacktrace")
         list.addAll(args)
+        list.add("--stacktrace")
 
         val result = GradleRunner.create()
-                .withProjectDir(baseTargetFile)
+                .withProjectDir(projectDir)
                 .withArguments(list)
                 .withPluginClasspath()
                 .build()
@@ -70,10 +68,26 @@ class AutodocPluginTest {
             println(result.output)
         }
 
-        val actual = baseTargetFile.resolve("build").resolve("elementAutodoc").resolve("model.json")
-        val actualJson = Json.parseToJsonElement(actual.readText())
+        return result
+    }
 
-        assertEquals(expectedJson, actualJson)
+    private fun readModel(projectDir: File) : JsonElement {
+        val actual = projectDir.resolve("build").resolve("elementAutodoc").resolve("model.json")
+        return Json.parseToJsonElement(actual.readText())
+    }
+
+    private fun test(vararg args: String) {
+        val callerName = StackWalker.getInstance().walk {
+            it.skip(1).findFirst().get()
+        }.methodName ?: fail("Unable to find caller method, can't assume a resource folder")
+
+        val expected = fileFromResource(callerName + "_expected.json")
+        val expectedJson = Json.parseToJsonElement(expected.readText())
+
+        val projectDir = setUp(callerName)
+        run(projectDir, "elementAutodoc", *args)
+
+        assertEquals(expectedJson, readModel(projectDir))
     }
 
     @Test
@@ -95,4 +109,108 @@ class AutodocPluginTest {
     fun linkedElement() {
         test()
     }
-}
\ No newline at end of file
+
+    @Test
+    fun classfileElement() {
+        test()
+    }
+
+    @Test
+    fun bindingIndex() {
+        //processResources should pull in the index generated by elementBindings
+        val projectDir = setUp("basicElement")
+        run(projectDir, "processResources")
+
+        val index = projectDir.resolve("build").resolve("resources").resolve("main")
+                .resolve(ElementBinding.INDEX_LOCATION)
+        val bindings = index.readLines().filter { it.isNotBlank() }.map { ElementBinding.parse(it) }
+
+        val data = ElementBinding.Parameter(ElementBinding.Kind.DATA, "SimpleElement\$Data", "")
+        assertEquals(listOf(ElementBinding("test.model", "SimpleElement", true, "SimpleElement\$Data",
+                listOf(data))), bindings)
+    }
+
+    private fun assertIncremental(result: BuildResult, changedFiles: Int) {
+        assertEquals(TaskOutcome.SUCCESS, result.task(":elementAutodoc")?.outcome)
+        assertFalse(result.output.contains("full rebuild"), "elementAutodoc was not run incrementally")
+        assertTrue(result.output.contains("Processing $changedFiles changed files"),
+                "elementAutodoc did not process exactly $changedFiles changed files")
+    }
+
+    @Test
+    fun incrementalSourceElement() {
+        val projectDir = setUp("linkedElement")
+        run(projectDir, "elementAutodoc")
+
+        //editing one source also recompiles it, which must not force every source to be processed again
+        val source = projectDir.resolve("src").resolve("main").resolve("java").resolve("OtherElement.java")
+        source.writeText(source.readText().replace("testing purposes", "other purposes"))
+        assertIncremental(run(projectDir, "elementAutodoc", "--info"), 1)
+
+        val expected = fileFromResource("linkedElement_expected.json").readText()
+                .replace("testing purposes", "other purposes")
+        assertEquals(Json.parseToJsonElement(expected), readModel(projectDir))
+    }
+
+    @Test
+    fun incrementalClassfileElement() {
+        val projectDir = setUp("classfileElement")
+        run(projectDir, "elementAutodoc")
+
+        //only SimpleElement.class changes; the nested data record compiles to identical bytes
+        val source = projectDir.resolve("src").resolve("main").resolve("java").resolve("SimpleElement.java")
+        source.writeText(source.readText().replace("@Model(\"test.model\")",
+                "@Model(\"test.model\")\n@com.github.steanky.element.core.annotation.document.Description(\"Edited\")"))
+        assertIncremental(run(projectDir, "elementAutodoc", "--info"), 1)
+
+        val expected = fileFromResource("classfileElement_expected.json").readText()
+                .replace("\"description\": \"\"", "\"description\": \"Edited\"")
+        assertEquals(Json.parseToJsonElement(expected), readModel(projectDir))
+    }
+
+    @Test
+    fun defaultFoundedIsStable() {
+        val projectDir = setUp("externalDataElement")
+        run(projectDir, "elementAutodoc")
+        val founded = readModel(projectDir).jsonObject["settings"]?.jsonObject?.get("founded")
+        assertNotNull(founded)
+
+        //leaving founded unset must not change the task inputs from one build to the next
+        assertEquals(TaskOutcome.UP_TO_DATE, run(projectDir, "elementAutodoc").task(":elementAutodoc")?.outcome)
+
+        val source = projectDir.resolve("src").resolve("main").resolve("java").resolve("SimpleElement.java")
+        source.writeText(source.readText().replace("@Model(\"test.model\")",
+                "@Model(\"test.model\")\n@com.github.steanky.element.core.annotation.document.Description(\"Edited\")"))
+        assertIncremental(run(projectDir, "elementAutodoc", "--info"), 1)
+        assertEquals(founded, readModel(projectDir).jsonObject["settings"]?.jsonObject?.get("founded"))
+    }
+
+    private fun parameterNames(projectDir: File): List<String> {
+        val element = readModel(projectDir).jsonObject["elements"]?.jsonArray?.single()?.jsonObject
+        return element?.get("parameters")?.jsonArray?.map { it.jsonObject["name"]!!.jsonPrimitive.content } ?: listOf()
+    }
+
+    private fun assertDataRecordChange(projectDir: File) {
+        run(projectDir, "elementAutodoc")
+        assertEquals(listOf("data"), parameterNames(projectDir))
+
+        //only the data record changes, but the element documented from it must be processed again
+        val source = projectDir.resolve("src").resolve("main").resolve("java").resolve("SimpleData.java")
+        source.writeText(source.readText().replace("String data", "String renamed"))
+        assertIncremental(run(projectDir, "elementAutodoc", "--info"), 2)
+        assertEquals(listOf("renamed"), parameterNames(projectDir))
+    }
+
+    @Test
+    fun incrementalSourceDataRecord() {
+        assertDataRecordChange(setUp("externalDataElement"))
+    }
+
+    @Test
+    fun incrementalClassfileDataRecord() {
+        val projectDir = setUp("externalDataElement")
+        projectDir.resolve("build.gradle").appendText("\n\nelementAutodoc.extractionMode = " +
+                "com.github.steanky.element.gradle.plugin.autodoc.ExtractionMode.CLASSFILE\n")
+        assertDataRecordChange(projectDir)
+    }
+}
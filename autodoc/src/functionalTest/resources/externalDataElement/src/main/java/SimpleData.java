@@ -0,0 +1,6 @@
+import com.github.steanky.element.core.annotation.DataObject;
+
+@DataObject
+public record SimpleData(String data) {
+
+}
@@ -0,0 +1,10 @@
+import com.github.steanky.element.core.annotation.Model;
+import com.github.steanky.element.core.annotation.FactoryMethod;
+
+@Model("test.model")
+public class SimpleElement {
+    @FactoryMethod
+    public SimpleElement(SimpleData data) {
+
+    }
+}
@@ -7,17 +7,30 @@ import org.gradle.api.Plugin
 import org.gradle.api.Project
 import org.gradle.api.provider.ListProperty
 import org.gradle.api.provider.Property
+import org.gradle.api.tasks.Input
+import org.gradle.api.tasks.Optional
+import org.gradle.api.tasks.SourceSetContainer
+import org.gradle.language.jvm.tasks.ProcessResources
 
-fun AutodocPlugin.Extension.resolve(): Settings {
+//defaultFounded is used if founded was not set explicitly
+fun AutodocPlugin.Extension.resolve(defaultFounded: Long): Settings {
     val projectDescription = this.projectDescription.get()
     val projectUrl = this.projectUrl.get()
-    val founded = this.founded.get()
+    val founded = this.founded.getOrElse(defaultFounded)
     val maintainers = this.maintainers.get()
     val recordTime = this.recordTime.get()
 
     return Settings(projectDescription, projectUrl, founded, maintainers, recordTime)
 }
 
+enum class ExtractionMode {
+    //run annotation processing over the sources
+    SOURCE,
+
+    //read the compiled class files, avoiding a second compiler pass
+    CLASSFILE
+}
+
 @Serializable
 data class Model(val elements: List<Element>, val settings: Settings)
 
@@ -45,21 +58,47 @@ data class Settings(val projectDescription: String,
 
 class AutodocPlugin : Plugin<Project> {
     interface Extension {
+        @get:Input
         val projectDescription: Property<String>
+        @get:Input
         val projectUrl: Property<String>
+        //if unset, the time the model was first generated is used, which is remembered across builds so that the task
+        //inputs stay stable
+        @get:Optional
+        @get:Input
         val founded: Property<Long>
+        @get:Input
         val maintainers: ListProperty<String>
+        @get:Input
         val recordTime: Property<Boolean>
+        @get:Input
+        val extractionMode: Property<ExtractionMode>
     }
 
     override fun apply(project: Project) {
         val ext = project.extensions.create("elementAutodoc", Extension::class.java)
-        project.tasks.create("elementAutodoc", AutodocTask::class.java).dependsOn("build")
+        val task = project.tasks.create("elementAutodoc", AutodocTask::class.java)
+        val bindingsTask = project.tasks.create("elementBindings", BindingsTask::class.java)
+
+        //the compiled classes carry a dependency on compileJava
+        project.pluginManager.withPlugin("java") {
+            val main = project.extensions.getByType(SourceSetContainer::class.java).getByName("main")
+            //the compiled classes are only an incremental input, so recompiling doesn't force a full rebuild
+            task.classpath.from(project.configurations.getByName("compileClasspath"))
+            task.classes.from(main.output.classesDirs)
+
+            //include the binding index in the main resources, so it ends up in the jar
+            bindingsTask.classpath.from(project.configurations.getByName("compileClasspath"))
+            bindingsTask.classes.from(main.output.classesDirs)
+            project.tasks.named(main.processResourcesTaskName, ProcessResources::class.java).configure {
+                it.from(bindingsTask)
+            }
+        }
 
         ext.projectDescription.convention("")
         ext.projectUrl.convention("")
-        ext.founded.convention(System.currentTimeMillis())
         ext.maintainers.convention(listOf())
         ext.recordTime.convention(true)
+        ext.extractionMode.convention(ExtractionMode.SOURCE)
     }
 }
\ No newline at end of file
@@ -9,16 +9,31 @@ import com.github.steanky.element.core.annotation.document.Group
 import com.github.steanky.element.core.annotation.document.Name
 import com.github.steanky.element.core.annotation.document.Type
 import com.github.steanky.element.core.key.Constants
+import com.sun.source.util.Trees
+import kotlinx.serialization.ExperimentalSerializationApi
+import kotlinx.serialization.SerializationException
+import kotlinx.serialization.Serializable
 import kotlinx.serialization.json.Json
-import kotlinx.serialization.json.encodeToJsonElement
+import kotlinx.serialization.json.decodeFromStream
+import kotlinx.serialization.json.encodeToStream
+import org.gradle.api.file.ConfigurableFileCollection
+import org.gradle.api.file.FileCollection
+import org.gradle.api.file.FileTree
+import org.gradle.api.file.FileType
 import org.gradle.api.logging.Logger
-import org.gradle.api.tasks.Input
-import org.gradle.api.tasks.OutputFile
-import org.gradle.api.tasks.SourceTask
-import org.gradle.api.tasks.TaskAction
+import org.gradle.api.tasks.*
+import org.gradle.work.ChangeType
+import org.gradle.work.Incremental
+import org.gradle.work.InputChanges
+import org.gradle.workers.WorkerExecutor
 import java.io.File
+import java.io.OutputStream
+import java.net.URLClassLoader
+import java.util.concurrent.Callable
 import java.util.regex.Pattern
+import java.util.zip.GZIPOutputStream
 import javax.annotation.processing.*
+import javax.inject.Inject
 import javax.lang.model.SourceVersion
 import javax.lang.model.element.ElementKind
 import javax.lang.model.element.ExecutableElement
@@ -28,63 +43,260 @@ import javax.lang.model.type.*
 import javax.lang.model.util.Types
 import javax.tools.JavaFileObject
 import javax.tools.ToolProvider
+import kotlin.math.max
 
+//the elements declared by a single input file, and the paths of other input files they were documented from, such as
+//the file declaring their data class
+@Serializable
+internal data class FileState(val elements: List<Element>, val dependencies: Set<String> = setOf())
+
+//remembered between builds; founded is the default for the founded setting, which is the time of the first build
+@Serializable
+internal data class State(val founded: Long, val files: Map<String, FileState>)
+
+@OptIn(ExperimentalSerializationApi::class)
+@CacheableTask
 abstract class AutodocTask : SourceTask() {
     companion object {
         val PATTERN: Pattern = Pattern.compile(Constants.KEY_PATTERN)
+
+        //classes are loaded ahead of the classpath, so the freshly compiled version of a class is always used
+        internal fun processClassfiles(files: Collection<File>, classes: Collection<File>, classpath: Collection<File>,
+                                       logger: Logger, processTime: Long): Map<File, FileState> {
+            val urls = (classes + classpath).map { it.toURI().toURL() }.toTypedArray()
+            val elements = mutableMapOf<File, FileState>()
+            URLClassLoader(urls, AutodocTask::class.java.classLoader).use { loader ->
+                val extractor = ClassfileExtractor(logger, processTime, loader)
+
+                files.filter { it.name.endsWith(".class") && it.name != "package-info.class" &&
+                        it.name != "module-info.class" }.forEach { file ->
+                    extractor.extract(file)?.let { (element, dependencies) ->
+                        elements[file] = FileState(listOf(element), dependencies)
+                    }
+                }
+            }
+
+            return elements
+        }
+
+        internal fun processSources(files: Collection<File>, classpath: Collection<File>, logger: Logger,
+                                    processTime: Long): Map<File, FileState> {
+            val compiler = ToolProvider.getSystemJavaCompiler()
+
+            val elements = mutableMapOf<File, MutableList<Element>>()
+            val dependencies = mutableMapOf<File, MutableSet<String>>()
+            compiler.getStandardFileManager(null, null, null).use {
+                val sources = it.getJavaFileObjectsFromFiles(files).filter { file ->
+                    file.kind == JavaFileObject.Kind.SOURCE
+                }
+
+                val classpathFiles = classpath.map { "$it" }
+                logger.info("Compiling with classpath files $classpathFiles")
+
+                it.handleOption("-cp", listOf(classpathFiles.joinToString(File.pathSeparator)).listIterator())
+
+                val compilerTask = compiler.getTask(null, it, null, listOf("-proc:only", "-implicit:none"), null,
+                        sources)
+                compilerTask.setProcessors(listOf(ProcImpl(logger, processTime, elements, dependencies)))
+
+                try {
+                    compilerTask.call()
+                }
+                catch (e: RuntimeException) {
+                    logger.error("Compilation error", e)
+                }
+            }
+
+            return elements.mapValues { (file, list) -> FileState(list, dependencies[file] ?: setOf()) }
+        }
     }
 
     var ext: AutodocPlugin.Extension = project.extensions.getByType(AutodocPlugin.Extension::class.java)
-        @Input get
+        @Nested get
 
     var outputFile: File = project.buildDir.resolve("elementAutodoc").resolve("model.json")
         @OutputFile get
 
-    @TaskAction
-    fun generateAutodoc() {
-        val settings = ext.resolve()
-        val model = Model(processClasses(source.files, settings).sortedBy { it.type }, settings)
-        val json = Json.encodeToJsonElement(model)
+    var stateFile: File = project.buildDir.resolve("elementAutodoc").resolve("sources.json")
+        @OutputFile get
+
+    //if set, a gzip-compressed copy of the model is also written here
+    var compressedOutputFile: File? = null
+        @Optional @OutputFile get
+
+    //should not include the compiled sources, as any change to a classpath entry requires a full rebuild
+    @get:Classpath
+    abstract val classpath: ConfigurableFileCollection
+
+    //compiled classes, which are read directly in CLASSFILE mode, and used in SOURCE mode to resolve types declared in
+    //unchanged sources
+    @get:Incremental
+    @get:IgnoreEmptyDirectories
+    @get:PathSensitive(PathSensitivity.RELATIVE)
+    @get:InputFiles
+    abstract val classes: ConfigurableFileCollection
 
-        outputFile.writeText(json.toString())
+    //changed files are split into chunks of at least this size, which are processed in parallel
+    var minChunkSize: Int = 32
+        @Internal get
+
+    var processIsolation: Boolean = false
+        @Internal get
+
+    @get:Inject
+    abstract val workerExecutor: WorkerExecutor
+
+    //getSource creates a new file tree on every call, so it can't be used to query InputChanges
+    val stableSources: FileCollection = project.files(Callable { source })
+        @SkipWhenEmpty @IgnoreEmptyDirectories @PathSensitive(PathSensitivity.RELATIVE) @InputFiles get
+
+    @Internal("tracked via stableSources")
+    override fun getSource(): FileTree {
+        return super.getSource()
     }
 
-    private fun processClasses(files: Iterable<File>, settings: Settings) : List<Element> {
-        val compiler = ToolProvider.getSystemJavaCompiler()
+    @TaskAction
+    fun generateAutodoc(inputChanges: InputChanges) {
         val logger = project.logger
 
-        val processTime = if (settings.recordTime) { System.currentTimeMillis() } else 0
+        val previousState = readState()
+        val defaultFounded = previousState?.founded ?: System.currentTimeMillis()
+        val settings = ext.resolve(defaultFounded)
+
+        //keys are source paths relative to their root, so the state remains valid if the build is relocated
+        val previousFiles = if (inputChanges.isIncremental) previousState?.files else null
+        val files: MutableMap<String, FileState> = previousFiles?.toSortedMap() ?: sortedMapOf()
+        val changedFiles = mutableMapOf<File, String>()
+        val changedPaths = mutableSetOf<String>()
+
+        val mode = ext.extractionMode.get()
+        val inputs = if (mode == ExtractionMode.CLASSFILE) classes else stableSources
+        inputChanges.getFileChanges(inputs).forEach { change ->
+            if (change.fileType == FileType.DIRECTORY) {
+                return@forEach
+            }
+
+            files.remove(change.normalizedPath)
+            changedPaths.add(change.normalizedPath)
+            if (change.changeType != ChangeType.REMOVED) {
+                changedFiles[change.file.absoluteFile] = change.normalizedPath
+            }
+        }
+
+        //package-level annotations apply to every class in the package, so they can't be handled incrementally
+        val packageInfo = if (mode == ExtractionMode.CLASSFILE) "package-info.class" else "package-info.java"
+        if (inputChanges.isIncremental && (previousFiles == null || changedPaths.any { it.endsWith(packageInfo) })) {
+            logger.info("Previous state is missing or a package changed, performing a full rebuild")
 
-        val elementList = mutableListOf<Element>()
-        compiler.getStandardFileManager(null, null, null).use {
-            val sources = it.getJavaFileObjectsFromFiles(files).filter { file ->
-                file.kind == JavaFileObject.Kind.SOURCE
+            files.clear()
+            inputs.asFileTree.visit { details ->
+                if (!details.isDirectory) {
+                    changedFiles[details.file.absoluteFile] = details.relativePath.pathString
+                }
             }
+        }
+        else {
+            //elements documented from another changed file, such as one declaring their data class, are also stale
+            val dependents = files.filterValues { state -> state.dependencies.any { it in changedPaths } }.keys
+            if (dependents.isNotEmpty()) {
+                files.keys.removeAll(dependents)
+                inputs.asFileTree.visit { details ->
+                    val path = details.relativePath.pathString
+                    if (!details.isDirectory && path in dependents) {
+                        changedFiles[details.file.absoluteFile] = path
+                    }
+                }
+            }
+        }
 
-            val classpathFiles = project.configurations.getAt("compileClasspath").files.map { "$it" }
-            logger.info("Compiling with classpath files $classpathFiles")
+        logger.info("Processing ${changedFiles.size} changed files")
+        if (changedFiles.isNotEmpty()) {
+            val processTime = if (settings.recordTime) { System.currentTimeMillis() } else 0
+            process(changedFiles.keys.sorted(), mode, processTime).forEach { (file, state) ->
+                changedFiles[file]?.let { path ->
+                    files[path] = state.copy(dependencies = state.dependencies - path)
+                } ?: logger.warn("Elements were found in $file, which is not a changed file")
+            }
+        }
 
-            it.handleOption("-cp", listOf(classpathFiles.joinToString(":")).listIterator())
+        stateFile.outputStream().buffered().use { Json.encodeToStream(State(defaultFounded, files), it) }
 
-            val compilerTask = compiler.getTask(null, it, null, listOf("-proc:only"), null,
-                    sources)
-            compilerTask.setProcessors(listOf(ProcImpl(logger, processTime, elementList)))
+        val elements = files.values.flatMap { it.elements }.sortedBy { it.type }
+        outputFile.outputStream().buffered().use { writeModel(it, elements, settings) }
+        compressedOutputFile?.let { file ->
+            GZIPOutputStream(file.outputStream()).buffered().use { writeModel(it, elements, settings) }
+        }
+    }
 
-            try {
-                compilerTask.call()
+    //equivalent to encoding a Model, but streams each element instead of first building the entire JSON tree
+    private fun writeModel(stream: OutputStream, elements: List<Element>, settings: Settings) {
+        stream.write("{\"elements\":[".toByteArray())
+        elements.forEachIndexed { index, element ->
+            if (index > 0) {
+                stream.write(','.code)
             }
-            catch (e: RuntimeException) {
-                logger.error("Compilation error", e)
+
+            Json.encodeToStream(Element.serializer(), element, stream)
+        }
+
+        stream.write("],\"settings\":".toByteArray())
+        Json.encodeToStream(Settings.serializer(), settings, stream)
+        stream.write('}'.code)
+    }
+
+    private fun process(files: List<File>, mode: ExtractionMode, processTime: Long): Map<File, FileState> {
+        val workers = project.gradle.startParameter.maxWorkerCount
+        val chunkSize = max(minChunkSize, (files.size + workers - 1) / workers)
+
+        val queue = if (processIsolation) workerExecutor.processIsolation() else workerExecutor.noIsolation()
+        val chunkFiles = files.chunked(chunkSize).mapIndexed { index, chunk ->
+            val chunkFile = temporaryDir.resolve("chunk-$index.json")
+            queue.submit(AutodocWorkAction::class.java) { parameters ->
+                parameters.files.from(chunk)
+                parameters.classpath.from(classpath)
+                parameters.classes.from(classes)
+                parameters.mode.set(mode)
+                parameters.processTime.set(processTime)
+                parameters.outputFile.set(chunkFile)
             }
+
+            chunkFile
+        }
+
+        queue.await()
+
+        val elements = mutableMapOf<File, FileState>()
+        chunkFiles.forEach { chunkFile ->
+            chunkFile.inputStream().buffered().use {
+                Json.decodeFromStream<Map<String, FileState>>(it)
+            }.forEach { (path, state) ->
+                elements[File(path)] = state
+            }
+        }
+
+        return elements
+    }
+
+    //returns null if there is no usable state, such as when the state file was written by an older version
+    private fun readState(): State? {
+        if (!stateFile.isFile) {
+            return null
         }
 
-        return elementList
+        return try {
+            stateFile.inputStream().buffered().use { Json.decodeFromStream<State>(it) }
+        }
+        catch (e: SerializationException) {
+            project.logger.info("Ignoring unreadable state file $stateFile", e)
+            null
+        }
     }
 
     @SupportedSourceVersion(SourceVersion.RELEASE_17)
     @SupportedAnnotationTypes("com.github.steanky.element.core.annotation.Model")
-    private class ProcImpl(val logger: Logger, val processTime: Long, val elementList: MutableList<Element>):
-            AbstractProcessor() {
+    private class ProcImpl(val logger: Logger, val processTime: Long,
+                           val elements: MutableMap<File, MutableList<Element>>,
+                           val dependencies: MutableMap<File, MutableSet<String>>): AbstractProcessor() {
 
         lateinit var collectionType: TypeMirror
         lateinit var setType: TypeMirror
@@ -315,29 +527,47 @@ abstract class AutodocTask : SourceTask() {
                 return false
             }
 
-            val elements = roundEnv.getElementsAnnotatedWith(annotations.first())
-            if (elements.isNullOrEmpty()) {
+            val annotated = roundEnv.getElementsAnnotatedWith(annotations.first())
+            if (annotated.isNullOrEmpty()) {
                 return false
             }
 
-            elements.forEach { element ->
+            annotated.forEach { element ->
                 element.asTypeElement()?.model()?.let { (model, typeElement) ->
                     val type = model.value
                     val name = typeElement.name()
                     val group = typeElement.group()
                     val description = typeElement.description()
 
-                    val parameterList = processParameters(typeElement)
+                    val dataType = typeElement.dataType()?.first
+                    val parameterList = processParameters(typeElement, dataType)
 
-                    elementList.add(Element(type, name, group, description, parameterList, processTime))
+                    val sourceFile = Trees.instance(processingEnv).getPath(typeElement)?.compilationUnit?.sourceFile
+                    if (sourceFile == null) {
+                        logger.error("Unable to determine source file of element $typeElement")
+                        return@let
+                    }
+
+                    val file = File(sourceFile.toUri()).absoluteFile
+                    elements.getOrPut(file) { mutableListOf() }
+                            .add(Element(type, name, group, description, parameterList, processTime))
+                    dataType?.let { dependencies.getOrPut(file) { mutableSetOf() }.add(sourcePath(it)) }
                 }
             }
 
             return false
         }
 
-        private fun processParameters(typeElement: TypeElement): List<Parameter> {
-            typeElement.dataType()?.let { (dataType, _) ->
+        //the path of the source file which conventionally declares the given type, relative to its source root
+        private fun sourcePath(type: TypeElement): String {
+            val outermost = generateSequence(type) { it.enclosingElement as? TypeElement }.last()
+            val packageName = processingEnv.elementUtils.getPackageOf(outermost).qualifiedName.toString()
+            val fileName = "${outermost.simpleName}.java"
+            return if (packageName.isEmpty()) fileName else "${packageName.replace('.', '/')}/$fileName"
+        }
+
+        private fun processParameters(typeElement: TypeElement, dataType: TypeElement?): List<Parameter> {
+            if (dataType != null) {
                 val parameters = dataType
                         .getAnnotationsByType(com.github.steanky.element.core.annotation.document.Parameter::class.java)
                 if (!parameters.isNullOrEmpty()) {
@@ -0,0 +1,41 @@
+package com.github.steanky.element.gradle.plugin.autodoc
+
+import kotlinx.serialization.ExperimentalSerializationApi
+import kotlinx.serialization.json.Json
+import kotlinx.serialization.json.encodeToStream
+import org.gradle.api.file.ConfigurableFileCollection
+import org.gradle.api.file.RegularFileProperty
+import org.gradle.api.logging.Logging
+import org.gradle.api.provider.Property
+import org.gradle.workers.WorkAction
+import org.gradle.workers.WorkParameters
+
+//processes a single chunk of changed files, writing the elements found in each file, and their dependencies, to the
+//output file
+@OptIn(ExperimentalSerializationApi::class)
+abstract class AutodocWorkAction : WorkAction<AutodocWorkAction.Parameters> {
+    interface Parameters : WorkParameters {
+        val files: ConfigurableFileCollection
+        val classpath: ConfigurableFileCollection
+        val classes: ConfigurableFileCollection
+        val mode: Property<ExtractionMode>
+        val processTime: Property<Long>
+        val outputFile: RegularFileProperty
+    }
+
+    override fun execute() {
+        val logger = Logging.getLogger(AutodocWorkAction::class.java)
+        val files = parameters.files.files
+        val processTime = parameters.processTime.get()
+
+        val elements = when (parameters.mode.get()) {
+            ExtractionMode.SOURCE -> AutodocTask.processSources(files,
+                    parameters.classes.files + parameters.classpath.files, logger, processTime)
+            ExtractionMode.CLASSFILE -> AutodocTask.processClassfiles(files, parameters.classes.files,
+                    parameters.classpath.files, logger, processTime)
+        }
+
+        val output = elements.mapKeys { (file, _) -> file.absolutePath }
+        parameters.outputFile.get().asFile.outputStream().buffered().use { Json.encodeToStream(output, it) }
+    }
+}
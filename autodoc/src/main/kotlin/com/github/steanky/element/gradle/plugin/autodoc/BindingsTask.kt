@@ -0,0 +1,74 @@
+package com.github.steanky.element.gradle.plugin.autodoc
+
+import com.github.steanky.element.core.ElementBinding
+import com.github.steanky.element.core.ElementException
+import com.github.steanky.element.core.annotation.Model
+import org.gradle.api.DefaultTask
+import org.gradle.api.file.ConfigurableFileCollection
+import org.gradle.api.tasks.*
+import org.objectweb.asm.ClassReader
+import org.objectweb.asm.tree.ClassNode
+import java.io.File
+import java.net.URLClassLoader
+import org.objectweb.asm.Type as AsmType
+
+//writes a binding index for every element class, which can be used at runtime to register elements without reflection
+@CacheableTask
+abstract class BindingsTask : DefaultTask() {
+    private companion object {
+        val MODEL: String = AsmType.getDescriptor(Model::class.java)
+    }
+
+    @get:Classpath
+    abstract val classpath: ConfigurableFileCollection
+
+    @get:IgnoreEmptyDirectories
+    @get:PathSensitive(PathSensitivity.RELATIVE)
+    @get:InputFiles
+    abstract val classes: ConfigurableFileCollection
+
+    var outputDirectory: File = project.buildDir.resolve("elementBindings")
+        @OutputDirectory get
+
+    @TaskAction
+    fun generateBindings() {
+        val logger = project.logger
+        val lines = mutableListOf<String>()
+
+        val urls = (classes.files + classpath.files).map { it.toURI().toURL() }.toTypedArray()
+        URLClassLoader(urls, BindingsTask::class.java.classLoader).use { loader ->
+            classes.asFileTree.matching { it.include("**/*.class") }.forEach { file ->
+                //only load classes that are actually elements
+                val node = ClassNode()
+                ClassReader(file.readBytes()).accept(node, ClassReader.SKIP_CODE or ClassReader.SKIP_DEBUG or
+                        ClassReader.SKIP_FRAMES)
+
+                if (node.visibleAnnotations?.any { it.desc == MODEL } != true) {
+                    return@forEach
+                }
+
+                val className = AsmType.getObjectType(node.name).className
+                try {
+                    lines.add(ElementBinding.of(Class.forName(className, false, loader)).format())
+                }
+                catch (e: ElementException) {
+                    logger.error("Unable to bind element class $className", e)
+                }
+                catch (e: LinkageError) {
+                    logger.error("Unable to load element class $className", e)
+                }
+            }
+        }
+
+        lines.sort()
+
+        val index = outputDirectory.resolve(ElementBinding.INDEX_LOCATION)
+        index.parentFile.mkdirs()
+        index.bufferedWriter().use { writer ->
+            lines.forEach { line ->
+                writer.write(line)
+                writer.newLine()
+            }
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.github.steanky.element.gradle.plugin.autodoc
+
+import com.github.steanky.element.core.ElementFactory
+import com.github.steanky.element.core.annotation.DataObject
+import com.github.steanky.element.core.annotation.FactoryMethod
+import com.github.steanky.element.core.annotation.document.Description
+import com.github.steanky.element.core.annotation.document.Group
+import com.github.steanky.element.core.annotation.document.Name
+import com.github.steanky.element.core.annotation.document.Parameters
+import org.gradle.api.logging.Logger
+import org.objectweb.asm.ClassReader
+import org.objectweb.asm.tree.AnnotationNode
+import org.objectweb.asm.tree.ClassNode
+import java.io.File
+import java.lang.reflect.Executable
+import java.lang.reflect.GenericArrayType
+import java.lang.reflect.Method
+import java.lang.reflect.ParameterizedType
+import java.lang.reflect.TypeVariable
+import java.lang.reflect.WildcardType
+import org.objectweb.asm.Type as AsmType
+import com.github.steanky.element.core.annotation.Model as ModelAnnotation
+import com.github.steanky.element.core.annotation.document.Parameter as ParameterAnnotation
+import com.github.steanky.element.core.annotation.document.Type as TypeAnnotation
+import java.lang.reflect.Type as JavaType
+
+//extracts elements from compiled classes: documentation annotations are only retained in class files, so they are read
+//using ASM, while everything else uses reflection on classes loaded (but not initialized) from the given loader
+internal class ClassfileExtractor(val logger: Logger, val processTime: Long, val loader: ClassLoader) {
+    private companion object {
+        val MODEL: String = AsmType.getDescriptor(ModelAnnotation::class.java)
+        val NAME: String = AsmType.getDescriptor(Name::class.java)
+        val GROUP: String = AsmType.getDescriptor(Group::class.java)
+        val DESCRIPTION: String = AsmType.getDescriptor(Description::class.java)
+        val TYPE: String = AsmType.getDescriptor(TypeAnnotation::class.java)
+        val PARAMETER: String = AsmType.getDescriptor(ParameterAnnotation::class.java)
+        val PARAMETERS: String = AsmType.getDescriptor(Parameters::class.java)
+
+        val READER_FLAGS = ClassReader.SKIP_CODE or ClassReader.SKIP_DEBUG or ClassReader.SKIP_FRAMES
+    }
+
+    private val nodeCache = mutableMapOf<String, ClassNode?>()
+
+    //returns the element declared by the class file, and the paths of the class files it depends on, relative to their
+    //class directory
+    fun extract(classFile: File): Pair<Element, Set<String>>? {
+        val node = ClassNode()
+        ClassReader(classFile.readBytes()).accept(node, READER_FLAGS)
+
+        if (node.visibleAnnotations?.any { it.desc == MODEL } != true) {
+            return null
+        }
+
+        val className = AsmType.getObjectType(node.name).className
+        val type = try {
+            Class.forName(className, false, loader)
+        }
+        catch (e: ClassNotFoundException) {
+            logger.error("Unable to load element class $className", e)
+            return null
+        }
+        catch (e: LinkageError) {
+            logger.error("Unable to load element class $className", e)
+            return null
+        }
+
+        nodeCache[node.name] = node
+
+        val model = type.getAnnotation(ModelAnnotation::class.java)
+        if (!AutodocTask.PATTERN.matcher(model.value).matches()) {
+            logger.error("Element $className has a Model annotation with an invalid value: ${model.value}")
+            return null
+        }
+
+        val name = node.invisibleAnnotations.find(NAME)?.stringValue("value") ?: type.simpleName
+        val group = group(type, node)
+        val description = node.invisibleAnnotations.find(DESCRIPTION)?.stringValue("value")?.trim() ?: run {
+            logger.error("Element $className missing Description annotation")
+            ""
+        }
+
+        val dataType = dataType(type)
+        val dependencies = setOfNotNull(dataType?.let { "${AsmType.getInternalName(it)}.class" })
+        return Pair(Element(model.value, name, group, description, parameters(type, dataType), processTime),
+                dependencies)
+    }
+
+    private fun group(type: Class<*>, node: ClassNode): String {
+        node.invisibleAnnotations.find(GROUP)?.stringValue("value")?.let {
+            return it
+        }
+
+        classNode("${type.packageName.replace('.', '/')}/package-info")?.invisibleAnnotations?.find(GROUP)
+                ?.stringValue("value")?.let {
+                    return it
+                }
+
+        logger.error("Element ${type.name} missing Group annotation")
+        return ""
+    }
+
+    private fun dataType(type: Class<*>): Class<*>? {
+        val factoryMethods: List<Executable> = (type.declaredConstructors.asSequence<Executable>() +
+                type.declaredMethods.asSequence()).filter { it.isAnnotationPresent(FactoryMethod::class.java) }.toList()
+
+        if (factoryMethods.isEmpty()) {
+            logger.error("Element ${type.name} missing FactoryMethod")
+            return null
+        }
+
+        if (factoryMethods.size > 1) {
+            logger.error("Element ${type.name} has more than one FactoryMethod")
+            return null
+        }
+
+        val factoryMethod = factoryMethods[0]
+        if (factoryMethod is Method) {
+            if (factoryMethod.parameterCount != 0) {
+                logger.error("Static FactoryMethod of element ${type.name} has parameters")
+                return null
+            }
+
+            val returnType = factoryMethod.genericReturnType
+            if (returnType is ParameterizedType && returnType.rawType == ElementFactory::class.java) {
+                (returnType.actualTypeArguments[0] as? Class<*>)?.let {
+                    return it
+                }
+            }
+
+            logger.error("Static FactoryMethod of element ${type.name} has invalid return type $returnType")
+            return null
+        }
+
+        val dataParameters = factoryMethod.parameters.filter { parameter ->
+            parameter.isAnnotationPresent(DataObject::class.java) ||
+                    parameter.type.isAnnotationPresent(DataObject::class.java)
+        }
+
+        if (dataParameters.size > 1) {
+            logger.error("Constructor FactoryMethod of element ${type.name} has more than one data parameter")
+            return null
+        }
+
+        if (dataParameters.isEmpty()) {
+            val nestedDataObjects = type.declaredClasses.filter { it.isRecord &&
+                    it.isAnnotationPresent(DataObject::class.java) }
+
+            if (nestedDataObjects.size > 1) {
+                logger.error("More than one nested data object")
+                return null
+            }
+
+            return nestedDataObjects.firstOrNull()
+        }
+
+        return dataParameters.first().type
+    }
+
+    private fun parameters(type: Class<*>, dataType: Class<*>?): List<Parameter> {
+        dataType ?: return listOf()
+        val dataNode = classNode(AsmType.getInternalName(dataType))
+
+        val annotations = dataNode?.invisibleAnnotations
+        val parameterAnnotations = annotations.find(PARAMETERS)?.value("value")?.let { it as List<*> }
+                ?.filterIsInstance<AnnotationNode>() ?: listOfNotNull(annotations.find(PARAMETER))
+
+        if (parameterAnnotations.isNotEmpty()) {
+            return parameterAnnotations.map { parameter ->
+                Parameter(parameter.stringValue("type") ?: "", parameter.stringValue("name") ?: "",
+                        parameter.stringValue("behavior") ?: "")
+            }
+        }
+
+        if (dataType.isRecord) {
+            return dataType.recordComponents.map { component ->
+                val accessor = component.accessor
+                val accessorAnnotations = dataNode?.methods?.firstOrNull { method ->
+                    method.name == accessor.name && method.desc == AsmType.getMethodDescriptor(accessor)
+                }?.invisibleAnnotations
+
+                val parameterType = accessorAnnotations.find(TYPE)?.stringValue("value") ?:
+                        simpleTypeName(component.genericType)
+                val behavior = accessorAnnotations.find(DESCRIPTION)?.stringValue("value")?.trim() ?: run {
+                    logger.error("Element $accessor missing Description annotation")
+                    ""
+                }
+
+                Parameter(parameterType, accessor.name, behavior)
+            }
+        }
+
+        logger.error("Could not resolve parameters for data class ${type.name} as it is not a record")
+        return listOf()
+    }
+
+    private fun classNode(internalName: String): ClassNode? {
+        return nodeCache.getOrPut(internalName) {
+            loader.getResourceAsStream("$internalName.class")?.use { stream ->
+                ClassNode().also { ClassReader(stream).accept(it, READER_FLAGS) }
+            }
+        }
+    }
+
+    private fun simpleTypeName(type: JavaType): String {
+        return when (type) {
+            is Class<*> -> {
+                when (type) {
+                    Boolean::class.javaPrimitiveType, Boolean::class.javaObjectType -> "boolean"
+                    Byte::class.javaPrimitiveType, Byte::class.javaObjectType, Short::class.javaPrimitiveType,
+                    Short::class.javaObjectType, Int::class.javaPrimitiveType, Int::class.javaObjectType,
+                    Long::class.javaPrimitiveType, Long::class.javaObjectType -> "whole number"
+                    Char::class.javaPrimitiveType, Char::class.javaObjectType, String::class.java -> "string"
+                    Float::class.javaPrimitiveType, Float::class.javaObjectType, Double::class.javaPrimitiveType,
+                    Double::class.javaObjectType -> "decimal number"
+                    Number::class.java -> "number"
+                    Any::class.java -> "any"
+                    else -> if (type.isArray) "list of ${simpleTypeName(type.componentType)}"
+                            else declaredTypeName(type, arrayOf())
+                }
+            }
+            is ParameterizedType -> declaredTypeName(type.rawType as Class<*>, type.actualTypeArguments)
+            is GenericArrayType -> "list of ${simpleTypeName(type.genericComponentType)}"
+            is TypeVariable<*> -> simpleTypeName(type.bounds[0])
+            is WildcardType -> simpleTypeName(type.upperBounds[0])
+            else -> {
+                logger.error("Unrecognized type $type")
+                ""
+            }
+        }
+    }
+
+    private fun declaredTypeName(rawType: Class<*>, typeArguments: Array<JavaType>): String {
+        return collectionType("set", rawType, typeArguments, Set::class.java) ?:
+                collectionType("list", rawType, typeArguments, Collection::class.java) ?:
+                mapType(rawType, typeArguments) ?: rawType.simpleName
+    }
+
+    private fun collectionType(name: String, rawType: Class<*>, typeArguments: Array<JavaType>,
+                               collectionType: Class<*>): String? {
+        if (rawType == collectionType) {
+            if (typeArguments.isEmpty()) {
+                return "$name of any"
+            }
+
+            return "$name of ${simpleTypeName(typeArguments[0])}"
+        }
+
+        if (collectionType.isAssignableFrom(rawType)) {
+            directSupertypes(rawType).forEach { supertype ->
+                if (supertype is ParameterizedType && supertype.rawType == collectionType) {
+                    val componentType = substitute(supertype.actualTypeArguments[0], rawType, typeArguments)
+                    return "$name of ${simpleTypeName(componentType)}"
+                }
+            }
+
+            return "$name of any"
+        }
+
+        return null
+    }
+
+    private fun mapType(rawType: Class<*>, typeArguments: Array<JavaType>): String? {
+        if (rawType == Map::class.java) {
+            if (typeArguments.size != 2) {
+                return "map of any"
+            }
+
+            return "map of ${simpleTypeName(typeArguments[0])} -> ${simpleTypeName(typeArguments[1])}"
+        }
+
+        if (Map::class.java.isAssignableFrom(rawType)) {
+            directSupertypes(rawType).forEach { supertype ->
+                if (supertype is ParameterizedType && supertype.rawType == Map::class.java) {
+                    val keyType = substitute(supertype.actualTypeArguments[0], rawType, typeArguments)
+                    val valueType = substitute(supertype.actualTypeArguments[1], rawType, typeArguments)
+                    return "map of ${simpleTypeName(keyType)} -> ${simpleTypeName(valueType)}"
+                }
+            }
+
+            return "map of any -> any"
+        }
+
+        return null
+    }
+
+    //replaces type variables declared by rawType with the corresponding argument, if one was given
+    private fun substitute(type: JavaType, rawType: Class<*>, typeArguments: Array<JavaType>): JavaType {
+        if (type is TypeVariable<*>) {
+            val index = rawType.typeParameters.indexOf(type)
+            if (index >= 0 && index < typeArguments.size) {
+                return typeArguments[index]
+            }
+        }
+
+        return type
+    }
+
+    private fun directSupertypes(type: Class<*>): List<JavaType> {
+        return listOfNotNull(type.genericSuperclass) + type.genericInterfaces
+    }
+
+    private fun List<AnnotationNode>?.find(descriptor: String): AnnotationNode? {
+        return this?.firstOrNull { it.desc == descriptor }
+    }
+
+    private fun AnnotationNode.value(name: String): Any? {
+        val values = values ?: return null
+        for (i in values.indices step 2) {
+            if (values[i] == name) {
+                return values[i + 1]
+            }
+        }
+
+        return null
+    }
+
+    private fun AnnotationNode.stringValue(name: String): String? {
+        return value(name) as? String
+    }
+}
@@ -35,6 +35,15 @@ public class BasicElementInspector implements ElementInspector {
 
     @Override
     public @NotNull Information inspect(final @NotNull Class<?> elementClass) {
+        return inspectClass(elementClass, null);
+    }
+
+    @Override
+    public @NotNull Information inspect(final @NotNull Class<?> elementClass, final @NotNull ElementBinding binding) {
+        return inspectClass(elementClass, Objects.requireNonNull(binding));
+    }
+
+    private Information inspectClass(final Class<?> elementClass, final ElementBinding binding) {
         final int modifiers = elementClass.getModifiers();
         if (!Modifier.isStatic(elementClass.getModifiers()) && elementClass.getDeclaringClass() != null) {
             throw elementException(elementClass, "Non-static nested class");
@@ -46,7 +55,8 @@ public class BasicElementInspector implements ElementInspector {
 
         final Mutable<ConfigProcessor<?>> mutable = new MutableObject<>(
                 processorResolver.resolveProcessor(elementClass));
-        final ElementFactory<?, ?> factory = factoryResolver.resolveFactory(elementClass, mutable);
+        final ElementFactory<?, ?> factory = binding == null ? factoryResolver.resolveFactory(elementClass, mutable) :
+                factoryResolver.resolveFactory(elementClass, binding, mutable);
 
         final Cache cacheAnnotation = elementClass.getDeclaredAnnotation(Cache.class);
         final CachePreference cachePreference = cacheAnnotation == null ? CachePreference.UNSPECIFIED :
@@ -36,4 +36,10 @@ public class BasicElementTypeIdentifier implements ElementTypeIdentifier {
 
         throw elementException(elementType, "No @Model annotation");
     }
+
+    @Override
+    public @NotNull Key identify(final @NotNull Class<?> elementType, final @NotNull ElementBinding binding) {
+        @Subst(Constants.NAMESPACE_OR_KEY) final String value = binding.type();
+        return keyParser.parseKey(value);
+    }
 }
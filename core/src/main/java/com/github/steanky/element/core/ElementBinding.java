@@ -0,0 +1,420 @@
+package com.github.steanky.element.core;
+
+import com.github.steanky.element.core.annotation.FactoryMethod;
+import com.github.steanky.element.core.annotation.Model;
+import com.github.steanky.element.core.context.ContextManager;
+import com.github.steanky.element.core.factory.BasicContainerCreator;
+import com.github.steanky.element.core.factory.ContainerCreator;
+import com.github.steanky.element.core.key.BasicKeyParser;
+import com.github.steanky.element.core.key.KeyParser;
+import com.github.steanky.element.core.util.ParameterClassifier;
+import com.github.steanky.ethylene.core.ConfigElement;
+import com.github.steanky.ethylene.mapper.annotation.Default;
+import com.github.steanky.ethylene.mapper.type.Token;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static com.github.steanky.element.core.util.Validate.elementException;
+
+/**
+ * Precomputed information about how an element class should be constructed: its type key, factory constructor, default
+ * values, and what each constructor parameter binds to. Bindings are normally generated at build time and stored in an
+ * index at {@link ElementBinding#INDEX_LOCATION}, so that element classes can be registered without searching them for
+ * annotations or validating them (see {@link ContextManager#registerBindings(Collection, ClassLoader)}). Bindings are
+ * trusted: if one was not generated by {@link ElementBinding#of(Class, KeyParser, ContainerCreator)}, registering it
+ * may produce a factory that fails, or behaves unexpectedly, when it is used.
+ * <p>
+ * In the index, each binding occupies a single line, consisting of tab-separated fields: the type key, the binary name
+ * of the element class, either {@code constructor} or {@code method} (for elements using a static factory method),
+ * the binary name of the data class, the {@link Default} values of the element class and the data class, and one field
+ * per constructor parameter. Empty fields stand for absent values. Within default values, backslashes, tabs and line
+ * terminators are escaped as {@code \\}, {@code \t}, {@code \n} and {@code \r}. Parameters are formatted as
+ * {@code KIND:type:value}, where the kind of a child parameter that is a container of children is followed by
+ * {@code *}. Blank lines, and lines starting with {@code #}, are ignored.
+ *
+ * @param type         the type key string, as given by the {@link Model} annotation
+ * @param className    the binary name of the element class
+ * @param constructor  true if the element uses a factory constructor, false if it uses a static factory method
+ * @param dataClass    the binary name of the data class, or null if there is none
+ * @param defaults     the value of the element class's {@link Default} annotation, or null if there is none
+ * @param dataDefaults the value of the data class's {@link Default} annotation, or null if there is none
+ * @param parameters   the factory constructor's parameters, which is empty if a factory method is used
+ */
+public record ElementBinding(@NotNull String type, @NotNull String className, boolean constructor,
+        @Nullable String dataClass, @Nullable String defaults, @Nullable String dataDefaults,
+        @NotNull @Unmodifiable List<Parameter> parameters) {
+    /**
+     * The location of binding index resources.
+     */
+    public static final String INDEX_LOCATION = "META-INF/element/bindings";
+
+    private static final String CONSTRUCTOR = "constructor";
+    private static final String METHOD = "method";
+    private static final String CONTAINER = "*";
+
+    private static final Map<String, Class<?>> PRIMITIVES = Map.of("boolean", boolean.class, "byte", byte.class,
+            "short", short.class, "char", char.class, "int", int.class, "long", long.class, "float", float.class,
+            "double", double.class);
+
+    /**
+     * Creates a new instance of this record.
+     *
+     * @param type         the type key string, as given by the {@link Model} annotation
+     * @param className    the binary name of the element class
+     * @param constructor  true if the element uses a factory constructor, false if it uses a static factory method
+     * @param dataClass    the binary name of the data class, or null if there is none
+     * @param defaults     the value of the element class's {@link Default} annotation, or null if there is none
+     * @param dataDefaults the value of the data class's {@link Default} annotation, or null if there is none
+     * @param parameters   the factory constructor's parameters, which is empty if a factory method is used
+     */
+    public ElementBinding {
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(className);
+        parameters = List.copyOf(parameters);
+    }
+
+    /**
+     * Creates a new instance of this record, for an element class and data class which have no default values.
+     *
+     * @param type        the type key string, as given by the {@link Model} annotation
+     * @param className   the binary name of the element class
+     * @param constructor true if the element uses a factory constructor, false if it uses a static factory method
+     * @param dataClass   the binary name of the data class, or null if there is none
+     * @param parameters  the factory constructor's parameters, which is empty if a factory method is used
+     */
+    public ElementBinding(final @NotNull String type, final @NotNull String className, final boolean constructor,
+            final @Nullable String dataClass, final @NotNull List<Parameter> parameters) {
+        this(type, className, constructor, dataClass, null, null, parameters);
+    }
+
+    /**
+     * The kind of value a factory constructor parameter binds to.
+     */
+    public enum Kind {
+        /**
+         * The element's data object.
+         */
+        DATA,
+
+        /**
+         * A dependency, which may be lazily-provided.
+         */
+        DEPENDENCY,
+
+        /**
+         * A child element, or container of child elements.
+         */
+        CHILD
+    }
+
+    /**
+     * A single factory constructor parameter.
+     *
+     * @param kind      what this parameter binds to
+     * @param typeName  the binary name of the parameter's raw type
+     * @param value     the dependency name (empty for unnamed dependencies), or the child path; empty for data
+     *                  parameters
+     * @param container true if this is a child parameter whose type is a container of child elements
+     */
+    public record Parameter(@NotNull Kind kind, @NotNull String typeName, @NotNull String value, boolean container) {
+        /**
+         * Creates a new instance of this record.
+         *
+         * @param kind      what this parameter binds to
+         * @param typeName  the binary name of the parameter's raw type
+         * @param value     the dependency name (empty for unnamed dependencies), or the child path; empty for data
+         *                  parameters
+         * @param container true if this is a child parameter whose type is a container of child elements
+         * @throws ElementException if container is true, but this is not a child parameter
+         */
+        public Parameter {
+            Objects.requireNonNull(kind);
+            Objects.requireNonNull(typeName);
+            Objects.requireNonNull(value);
+
+            if (container && kind != Kind.CHILD) {
+                throw elementException("Only child parameters may be containers");
+            }
+        }
+
+        /**
+         * Creates a new instance of this record, for a parameter which is not a container of child elements.
+         *
+         * @param kind     what this parameter binds to
+         * @param typeName the binary name of the parameter's raw type
+         * @param value    the dependency name (empty for unnamed dependencies), or the child path; empty for data
+         *                 parameters
+         */
+        public Parameter(final @NotNull Kind kind, final @NotNull String typeName, final @NotNull String value) {
+            this(kind, typeName, value, false);
+        }
+    }
+
+    /**
+     * Computes the binding of the given element class by inspecting its annotations, using a {@link BasicKeyParser} to
+     * validate dependency names, and a {@link BasicContainerCreator} with its default resolver to identify container
+     * parameters. This is intended to be used by build tools that generate binding indices.
+     *
+     * @param elementClass the element class
+     * @return the binding for the class
+     * @throws ElementException if the class is not a valid element class
+     */
+    public static @NotNull ElementBinding of(final @NotNull Class<?> elementClass) {
+        return of(elementClass, new BasicKeyParser(), new BasicContainerCreator());
+    }
+
+    /**
+     * Computes the binding of the given element class by inspecting its annotations. Parameters are classified and
+     * validated exactly as they would be when resolving a factory for the class at runtime. The binding should only be
+     * registered with a {@link ContextManager} whose {@link ContainerCreator} recognizes the same container types as
+     * the one given here.
+     *
+     * @param elementClass     the element class
+     * @param keyParser        the {@link KeyParser} used to validate dependency names
+     * @param containerCreator the {@link ContainerCreator} used to determine which child parameters are containers
+     * @return the binding for the class
+     * @throws ElementException if the class is not a valid element class
+     */
+    public static @NotNull ElementBinding of(final @NotNull Class<?> elementClass,
+            final @NotNull KeyParser keyParser, final @NotNull ContainerCreator containerCreator) {
+        final Model model = elementClass.getDeclaredAnnotation(Model.class);
+        if (model == null) {
+            throw elementException(elementClass, "No @Model annotation");
+        }
+
+        Constructor<?> factoryConstructor = null;
+        for (Constructor<?> constructor : elementClass.getConstructors()) {
+            if (constructor.isAnnotationPresent(FactoryMethod.class)) {
+                if (factoryConstructor != null) {
+                    throw elementException(elementClass, "More than one annotation of type " + FactoryMethod.class);
+                }
+
+                factoryConstructor = constructor;
+            }
+        }
+
+        if (factoryConstructor == null) {
+            return new ElementBinding(model.value(), elementClass.getName(), false, null, List.of());
+        }
+
+        final List<ParameterClassifier.Classified> classified = ParameterClassifier.classify(factoryConstructor,
+                keyParser);
+        final List<Parameter> parameters = new ArrayList<>(classified.size());
+        for (ParameterClassifier.Classified parameter : classified) {
+            final boolean container = parameter.kind() == Kind.CHILD && containerCreator.isContainerType(
+                    Token.ofType(parameter.parameter().getParameterizedType()));
+            parameters.add(new Parameter(parameter.kind(), parameter.parameter().getType().getName(),
+                    parameter.value(), container));
+        }
+
+        final Class<?> dataClass = ParameterClassifier.dataClass(elementClass, classified);
+        return new ElementBinding(model.value(), elementClass.getName(), true,
+                dataClass == null ? null : dataClass.getName(), defaults(elementClass),
+                dataClass == null ? null : defaults(dataClass), parameters);
+    }
+
+    private static String defaults(final Class<?> cls) {
+        final Default defaultAnnotation = cls.getAnnotation(Default.class);
+        if (defaultAnnotation == null) {
+            return null;
+        }
+
+        //check ahead of time that the defaults can be parsed at runtime
+        final String value = defaultAnnotation.value();
+        if (!ConfigElement.of(value).isNode()) {
+            throw elementException(cls, "Default annotation must be a node");
+        }
+
+        return value;
+    }
+
+    /**
+     * Parses a binding from a single line of a binding index.
+     *
+     * @param line the line to parse
+     * @return the binding
+     * @throws ElementException if the line is not a valid binding
+     */
+    public static @NotNull ElementBinding parse(final @NotNull String line) {
+        final String[] fields = line.split("\t", -1);
+        if (fields.length < 6) {
+            throw elementException("Invalid binding: " + line);
+        }
+
+        final boolean constructor;
+        if (fields[2].equals(CONSTRUCTOR)) {
+            constructor = true;
+        }
+        else if (fields[2].equals(METHOD)) {
+            constructor = false;
+        }
+        else {
+            throw elementException("Invalid factory kind " + fields[2] + " in binding: " + line);
+        }
+
+        final List<Parameter> parameters = new ArrayList<>(fields.length - 6);
+        for (int i = 6; i < fields.length; i++) {
+            final String[] parts = fields[i].split(":", 3);
+            if (parts.length != 3) {
+                throw elementException("Invalid parameter " + fields[i] + " in binding: " + line);
+            }
+
+            final boolean container = parts[0].endsWith(CONTAINER);
+            final String kindName = container ? parts[0].substring(0, parts[0].length() - CONTAINER.length()) :
+                    parts[0];
+
+            final Kind kind;
+            try {
+                kind = Kind.valueOf(kindName);
+            }
+            catch (IllegalArgumentException e) {
+                throw elementException(e, "Invalid parameter kind " + parts[0] + " in binding: " + line);
+            }
+
+            if (container && kind != Kind.CHILD) {
+                throw elementException("Invalid container parameter " + fields[i] + " in binding: " + line);
+            }
+
+            parameters.add(new Parameter(kind, parts[1], parts[2], container));
+        }
+
+        return new ElementBinding(fields[0], fields[1], constructor, emptyToNull(fields[3]),
+                unescape(fields[4], line), unescape(fields[5], line), parameters);
+    }
+
+    private static String emptyToNull(final String field) {
+        return field.isEmpty() ? null : field;
+    }
+
+    private static String escape(final String value) {
+        final StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char character = value.charAt(i);
+            switch (character) {
+                case '\\' -> builder.append("\\\\");
+                case '\t' -> builder.append("\\t");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                default -> builder.append(character);
+            }
+        }
+
+        return builder.toString();
+    }
+
+    private static String unescape(final String field, final String line) {
+        if (field.isEmpty()) {
+            return null;
+        }
+
+        if (field.indexOf('\\') < 0) {
+            return field;
+        }
+
+        final StringBuilder builder = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            final char character = field.charAt(i);
+            if (character != '\\') {
+                builder.append(character);
+                continue;
+            }
+
+            if (++i == field.length()) {
+                throw elementException("Unterminated escape in binding: " + line);
+            }
+
+            builder.append(switch (field.charAt(i)) {
+                case '\\' -> '\\';
+                case 't' -> '\t';
+                case 'n' -> '\n';
+                case 'r' -> '\r';
+                default -> throw elementException("Invalid escape in binding: " + line);
+            });
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Formats this binding as a single line, suitable for inclusion in a binding index.
+     *
+     * @return the formatted binding, without a line terminator
+     */
+    public @NotNull String format() {
+        final StringJoiner joiner = new StringJoiner("\t");
+        joiner.add(type).add(className).add(constructor ? CONSTRUCTOR : METHOD)
+                .add(dataClass == null ? "" : dataClass).add(defaults == null ? "" : escape(defaults))
+                .add(dataDefaults == null ? "" : escape(dataDefaults));
+
+        for (Parameter parameter : parameters) {
+            joiner.add(parameter.kind.name() + (parameter.container ? CONTAINER : "") + ":" + parameter.typeName +
+                    ":" + parameter.value);
+        }
+
+        return joiner.toString();
+    }
+
+    /**
+     * Loads every binding index visible to the given {@link ClassLoader}.
+     *
+     * @param classLoader the ClassLoader used to locate index resources
+     * @return the bindings from all indices, in the order they were found
+     * @throws ElementException if an index cannot be read, or contains an invalid binding
+     */
+    public static @NotNull List<ElementBinding> loadIndex(final @NotNull ClassLoader classLoader) {
+        final List<ElementBinding> bindings = new ArrayList<>();
+        try {
+            final Enumeration<URL> resources = classLoader.getResources(INDEX_LOCATION);
+            while (resources.hasMoreElements()) {
+                final URL resource = resources.nextElement();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(),
+                        StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.isBlank() || line.startsWith("#")) {
+                            continue;
+                        }
+
+                        bindings.add(parse(line));
+                    }
+                }
+            }
+        }
+        catch (IOException e) {
+            throw elementException(e, "Failed to read binding index");
+        }
+
+        return bindings;
+    }
+
+    /**
+     * Loads a class given its binary name, without initializing it. Names of primitive types are also accepted.
+     *
+     * @param name        the binary name of the class
+     * @param classLoader the ClassLoader used to load the class
+     * @return the class
+     * @throws ElementException if the class cannot be found
+     */
+    public static @NotNull Class<?> loadClass(final @NotNull String name, final @Nullable ClassLoader classLoader) {
+        final Class<?> primitive = PRIMITIVES.get(name);
+        if (primitive != null) {
+            return primitive;
+        }
+
+        try {
+            return Class.forName(name, false, classLoader);
+        }
+        catch (ClassNotFoundException e) {
+            throw elementException(e, "Class " + name + " named by binding not found");
+        }
+    }
+}
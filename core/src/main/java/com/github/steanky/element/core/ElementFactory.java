@@ -2,8 +2,15 @@ package com.github.steanky.element.core;
 
 import com.github.steanky.element.core.context.ElementContext;
 import com.github.steanky.element.core.dependency.DependencyProvider;
+import com.github.steanky.ethylene.core.collection.ConfigNode;
 import com.github.steanky.ethylene.core.path.ConfigPath;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Creates an element from some data.
@@ -26,4 +33,144 @@ public interface ElementFactory<TData, TElement> {
      */
     @NotNull TElement make(final TData objectData, final @NotNull ConfigPath configPath,
             final @NotNull ElementContext context, final @NotNull DependencyProvider dependencyProvider);
+
+    /**
+     * Begins constructing an element object, without constructing any of its children. The returned {@link Stage}
+     * describes the children the element needs; the caller is responsible for constructing them and passing them to
+     * {@link Stage#build(Object[])}. This allows an {@link ElementContext} to build deeply nested element graphs
+     * without recursion.
+     * <p>
+     * The default implementation constructs the element immediately using
+     * {@link ElementFactory#make(Object, ConfigPath, ElementContext, DependencyProvider)}, and returns a stage with no
+     * children.
+     *
+     * @param objectData         the specific data object used to create this type; may be null if this element does not
+     *                           accept any data
+     * @param configPath         the path of the data used to create this type
+     * @param context            the element context
+     * @param dependencyProvider the provider of dependency objects that are not elements
+     * @return a new stage
+     */
+    default @NotNull Stage<TElement> stage(final TData objectData, final @NotNull ConfigPath configPath,
+            final @NotNull ElementContext context, final @NotNull DependencyProvider dependencyProvider) {
+        return Stage.completed(make(objectData, configPath, context, dependencyProvider));
+    }
+
+    /**
+     * Asynchronous version of {@link ElementFactory#stage(Object, ConfigPath, ElementContext, DependencyProvider)}.
+     * Implementations should request their dependencies using
+     * {@link DependencyProvider#provideAsync(DependencyProvider.TypeKey)}, and complete the returned future once all of
+     * them are available, rather than blocking on each in turn.
+     * <p>
+     * The default implementation calls {@code stage} synchronously, and returns a completed (or failed) future.
+     *
+     * @param objectData         the specific data object used to create this type; may be null if this element does not
+     *                           accept any data
+     * @param configPath         the path of the data used to create this type
+     * @param context            the element context
+     * @param dependencyProvider the provider of dependency objects that are not elements
+     * @return a future which will complete with a new stage
+     */
+    default @NotNull CompletableFuture<Stage<TElement>> stageAsync(final TData objectData,
+            final @NotNull ConfigPath configPath, final @NotNull ElementContext context,
+            final @NotNull DependencyProvider dependencyProvider) {
+        try {
+            return CompletableFuture.completedFuture(stage(objectData, configPath, context, dependencyProvider));
+        }
+        catch (ElementException exception) {
+            return CompletableFuture.failedFuture(exception);
+        }
+    }
+
+    /**
+     * Gets the keys of the dependencies this factory will request from the {@link DependencyProvider} it is given, if
+     * they are known ahead of time. This is used to verify that a dependency provider can satisfy every registered
+     * element type before any elements are constructed. The default implementation returns an empty collection.
+     *
+     * @return the keys of the dependencies required by this factory
+     */
+    default @NotNull @Unmodifiable Collection<DependencyProvider.TypeKey<?>> dependencies() {
+        return List.of();
+    }
+
+    /**
+     * A partially-constructed element, whose children have not yet been created. Stages are single-use, and are not
+     * thread-safe.
+     *
+     * @param <TElement> the type of element being constructed
+     */
+    interface Stage<TElement> {
+        /**
+         * The number of child elements that must be constructed before this stage can be built.
+         *
+         * @return the number of child elements
+         */
+        int childCount();
+
+        /**
+         * Gets the absolute path of the data for the child element at the given index.
+         *
+         * @param index the child index
+         * @return the absolute path of the child's data
+         */
+        @NotNull ConfigPath childPath(final int index);
+
+        /**
+         * Gets the data node for the child at the given index, if it is already known. Callers may use this to avoid
+         * looking up the data again from the root.
+         *
+         * @param index the child index
+         * @return the child's data node, or null if it is not known
+         */
+        @Nullable ConfigNode childData(final int index);
+
+        /**
+         * Constructs the element, given its children.
+         *
+         * @param children the child elements, in the same order as the indices used to request them; the array will
+         *                 always have length equal to {@link Stage#childCount()}
+         * @return the element object
+         */
+        @NotNull TElement build(final @NotNull Object @NotNull [] children);
+
+        /**
+         * Called when an {@link ElementException} occurs while constructing one of this stage's children (or their
+         * descendants), before the exception is propagated. Implementations may use this to add information to the
+         * exception. The default implementation does nothing.
+         *
+         * @param exception the exception
+         */
+        default void handleException(final @NotNull ElementException exception) {}
+
+        /**
+         * Creates a stage with no children, that builds to the given element.
+         *
+         * @param element    the element
+         * @param <TElement> the type of element
+         * @return a completed stage
+         */
+        static <TElement> @NotNull Stage<TElement> completed(final @NotNull TElement element) {
+            return new Stage<>() {
+                @Override
+                public int childCount() {
+                    return 0;
+                }
+
+                @Override
+                public @NotNull ConfigPath childPath(final int index) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+
+                @Override
+                public @Nullable ConfigNode childData(final int index) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+
+                @Override
+                public @NotNull TElement build(final @NotNull Object @NotNull [] children) {
+                    return element;
+                }
+            };
+        }
+    }
 }
@@ -20,6 +20,20 @@ public interface ElementInspector {
      */
     @NotNull Information inspect(final @NotNull Class<?> elementClass);
 
+    /**
+     * Performs an inspection on the given element class, using a precomputed {@link ElementBinding}. Implementations
+     * may use the binding to avoid reflective searches and validation. The default implementation ignores the binding
+     * and calls {@link ElementInspector#inspect(Class)}.
+     *
+     * @param elementClass the class from which to extract information
+     * @param binding      the binding of the element class
+     * @return an {@link Information} object representing the element's information
+     */
+    default @NotNull Information inspect(final @NotNull Class<?> elementClass,
+            final @NotNull ElementBinding binding) {
+        return inspect(elementClass);
+    }
+
     /**
      * Describes how element objects prefer to be cached.
      */
@@ -17,4 +17,16 @@ public interface ElementTypeIdentifier {
      * @throws ElementException if the given class does not supply the {@link Model} annotation
      */
     @NotNull Key identify(final @NotNull Class<?> elementType);
+
+    /**
+     * Identifies the name of the given class, using a precomputed {@link ElementBinding}. The default implementation
+     * ignores the binding and calls {@link ElementTypeIdentifier#identify(Class)}.
+     *
+     * @param elementType the element class
+     * @param binding     the binding of the element class
+     * @return the name of this element class
+     */
+    default @NotNull Key identify(final @NotNull Class<?> elementType, final @NotNull ElementBinding binding) {
+        return identify(elementType);
+    }
 }
@@ -4,7 +4,7 @@ import java.lang.annotation.*;
 
 /**
  * Annotation used to indicate that the result of a {@link Depend} method should or should not be memoized such that it
- * is only called (reflectively) once.
+ * is only called once, even if it is requested concurrently.
  */
 @Documented
 @Retention(RetentionPolicy.RUNTIME)
@@ -16,4 +16,32 @@ public @interface Memoize {
      * @return true if it should be memoized; false otherwise. Defaults to true.
      */
     boolean value() default true;
+
+    /**
+     * How the memoized value should be retained.
+     *
+     * @return the kind of reference used to hold the memoized value. Defaults to {@link Reference#STRONG}.
+     */
+    Reference reference() default Reference.STRONG;
+
+    /**
+     * The ways in which a memoized value may be retained.
+     */
+    enum Reference {
+        /**
+         * The value is retained for as long as the supplier exists.
+         */
+        STRONG,
+
+        /**
+         * The value is softly reachable, and may be cleared when memory is low; it will be re-created on demand.
+         */
+        SOFT,
+
+        /**
+         * The value is weakly reachable, and may be cleared once nothing else references it; it will be re-created on
+         * demand.
+         */
+        WEAK
+    }
 }
@@ -0,0 +1,52 @@
+package com.github.steanky.element.core.annotation;
+
+import com.github.steanky.element.core.context.ElementContext;
+import com.github.steanky.element.core.dependency.DependencyModule;
+
+import java.lang.annotation.*;
+
+/**
+ * Specifies how long the value returned by a {@link Depend} method should be reused for. When applied to a
+ * {@link DependencyModule} class, sets the default for all of its supplier methods. A method's own annotation takes
+ * precedence over the class annotation. This annotation cannot be used together with {@link Memoize} on the same
+ * method or class.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Scope {
+    /**
+     * The scope of the supplier.
+     *
+     * @return the scope of the supplier
+     */
+    Kind value();
+
+    /**
+     * The supported dependency scopes.
+     */
+    enum Kind {
+        /**
+         * The supplier is called at most once, and its value is shared everywhere. Equivalent to {@link Memoize}.
+         */
+        SINGLETON,
+
+        /**
+         * The supplier is called at most once per {@link ElementContext}. Outside any context, it is called every
+         * time.
+         */
+        CONTEXT,
+
+        /**
+         * The supplier is called at most once per top-level element construction (call to one of the
+         * {@link ElementContext} provide methods). Elements constructed as children of the same element share the
+         * value. Outside any construction, it is called every time.
+         */
+        PROVIDE,
+
+        /**
+         * The supplier is called at most once per thread.
+         */
+        THREAD
+    }
+}
@@ -9,7 +9,7 @@ import java.lang.annotation.*;
  * high-level description of what the annotated element does.
  */
 @Documented
-@Retention(RetentionPolicy.SOURCE)
+@Retention(RetentionPolicy.CLASS)
 @Target({ElementType.METHOD, ElementType.TYPE})
 public @interface Description {
     /**
@@ -12,7 +12,7 @@ import java.lang.annotation.*;
  * they don't specify their own Group annotation.
  */
 @Documented
-@Retention(RetentionPolicy.SOURCE)
+@Retention(RetentionPolicy.CLASS)
 @Target({ElementType.TYPE, ElementType.PACKAGE})
 public @interface Group {
     /**
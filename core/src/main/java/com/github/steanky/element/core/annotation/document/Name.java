@@ -8,7 +8,7 @@ import java.lang.annotation.*;
  * Specifies a display name for a given element type.
  */
 @Documented
-@Retention(RetentionPolicy.SOURCE)
+@Retention(RetentionPolicy.CLASS)
 @Target(ElementType.TYPE)
 public @interface Name {
     /**
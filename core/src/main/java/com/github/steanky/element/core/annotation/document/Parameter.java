@@ -10,7 +10,7 @@ import java.lang.annotation.*;
  * object is not a record, manually specifying the parameters is necessary.
  */
 @Documented
-@Retention(RetentionPolicy.SOURCE)
+@Retention(RetentionPolicy.CLASS)
 @Target(ElementType.TYPE)
 @Repeatable(Parameters.class)
 public @interface Parameter {
@@ -8,7 +8,7 @@ import java.lang.annotation.*;
  * The container annotation for {@link Parameter}.
  */
 @Documented
-@Retention(RetentionPolicy.SOURCE)
+@Retention(RetentionPolicy.CLASS)
 @Target(ElementType.TYPE)
 public @interface Parameters {
     /**
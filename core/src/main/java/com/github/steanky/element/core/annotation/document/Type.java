@@ -9,7 +9,7 @@ import java.lang.annotation.*;
  * the element's type.
  */
 @Documented
-@Retention(RetentionPolicy.SOURCE)
+@Retention(RetentionPolicy.CLASS)
 @Target({ElementType.TYPE, ElementType.METHOD})
 public @interface Type {
     /**
@@ -1,17 +1,24 @@
 package com.github.steanky.element.core.context;
 
+import com.github.steanky.element.core.ElementBinding;
+import com.github.steanky.element.core.ElementException;
 import com.github.steanky.element.core.ElementFactory;
 import com.github.steanky.element.core.ElementInspector;
 import com.github.steanky.element.core.ElementTypeIdentifier;
+import com.github.steanky.element.core.dependency.DependencyProvider;
+import com.github.steanky.element.core.dependency.VerifiedDependencyProvider;
+import com.github.steanky.element.core.jfr.RegisterEvent;
 import com.github.steanky.ethylene.core.collection.ConfigContainer;
 import com.github.steanky.ethylene.core.processor.ConfigProcessor;
 import net.kyori.adventure.key.Key;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static com.github.steanky.element.core.util.Validate.elementException;
 
 /**
  * Standard implementation of {@link ContextManager}.
@@ -20,6 +27,7 @@ public class BasicContextManager implements ContextManager {
     private final ElementInspector elementInspector;
     private final ElementTypeIdentifier elementTypeIdentifier;
     private final ElementContext.Source elementContextSource;
+    private final Map<Key, ElementFactory<?, ?>> registeredFactories;
 
     /**
      * Creates a new instance of this class.
@@ -36,18 +44,25 @@ public class BasicContextManager implements ContextManager {
         this.elementInspector = Objects.requireNonNull(elementInspector);
         this.elementTypeIdentifier = Objects.requireNonNull(elementTypeIdentifier);
         this.elementContextSource = Objects.requireNonNull(elementContextSource);
+        this.registeredFactories = new ConcurrentHashMap<>();
     }
 
     @Override
     public void registerElementClass(final @NotNull Class<?> elementClass) {
+        final RegisterEvent event = new RegisterEvent();
+        event.begin();
+
         final Key elementKey = elementTypeIdentifier.identify(elementClass);
         final ElementInspector.Information elementInformation = elementInspector.inspect(elementClass);
+        commit(event, elementClass, elementKey, false);
+
         final ConfigProcessor<?> processor = elementInformation.processor();
         if (processor != null) {
             elementContextSource.processorRegistry().register(elementKey, processor);
         }
 
         elementContextSource.factoryRegistry().register(elementKey, elementInformation.factory());
+        registeredFactories.put(elementKey, elementInformation.factory());
 
         final ElementInspector.CachePreference preference = elementInformation.cachePreference();
 
@@ -71,14 +86,73 @@ public class BasicContextManager implements ContextManager {
             return;
         }
 
-        final Collection<Map.Entry<Key, ConfigProcessor<?>>> processors = new ArrayList<>(classes.length);
-        final Collection<Map.Entry<Key, ElementFactory<?, ?>>> factories = new ArrayList<>(classes.length);
-        final Collection<Map.Entry<Key, Boolean>> cache = new ArrayList<>(classes.length);
-
+        final Registrations registrations = new Registrations(classes.length);
         for (final Class<?> elementClass : classes) {
             Objects.requireNonNull(elementClass);
+
+            final RegisterEvent event = new RegisterEvent();
+            event.begin();
+
             final Key elementKey = elementTypeIdentifier.identify(elementClass);
-            final ElementInspector.Information elementInformation = elementInspector.inspect(elementClass);
+            registrations.add(elementKey, elementInspector.inspect(elementClass));
+            commit(event, elementClass, elementKey, false);
+        }
+
+        register(registrations);
+    }
+
+    @Override
+    public void registerBindings(final @NotNull Collection<? extends ElementBinding> bindings,
+            final @NotNull ClassLoader classLoader) {
+        Objects.requireNonNull(bindings);
+        Objects.requireNonNull(classLoader);
+
+        final Registrations registrations = new Registrations(bindings.size());
+        for (final ElementBinding binding : bindings) {
+            final RegisterEvent event = new RegisterEvent();
+            event.begin();
+
+            final Class<?> elementClass = ElementBinding.loadClass(binding.className(), classLoader);
+            final Key elementKey = elementTypeIdentifier.identify(elementClass, binding);
+            registrations.add(elementKey, elementInspector.inspect(elementClass, binding));
+            commit(event, elementClass, elementKey, true);
+        }
+
+        register(registrations);
+    }
+
+    private static void commit(final RegisterEvent event, final Class<?> elementClass, final Key elementKey,
+            final boolean fromBinding) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.elementClass = elementClass;
+            event.type = elementKey.asString();
+            event.fromBinding = fromBinding;
+            event.commit();
+        }
+    }
+
+    private void register(final Registrations registrations) {
+        elementContextSource.processorRegistry().registerBulk(registrations.processors);
+        elementContextSource.factoryRegistry().registerBulk(registrations.factories);
+        for (Map.Entry<Key, ElementFactory<?, ?>> entry : registrations.factories) {
+            registeredFactories.put(entry.getKey(), entry.getValue());
+        }
+        elementContextSource.cacheRegistry().registerBulk(registrations.cache);
+    }
+
+    private static final class Registrations {
+        private final Collection<Map.Entry<Key, ConfigProcessor<?>>> processors;
+        private final Collection<Map.Entry<Key, ElementFactory<?, ?>>> factories;
+        private final Collection<Map.Entry<Key, Boolean>> cache;
+
+        private Registrations(final int size) {
+            this.processors = new ArrayList<>(size);
+            this.factories = new ArrayList<>(size);
+            this.cache = new ArrayList<>(size);
+        }
+
+        private void add(final Key elementKey, final ElementInspector.Information elementInformation) {
             final ConfigProcessor<?> processor = elementInformation.processor();
             if (processor != null) {
                 processors.add(Map.entry(elementKey, processor));
@@ -91,10 +165,41 @@ public class BasicContextManager implements ContextManager {
                 cache.add(Map.entry(elementKey, preference == ElementInspector.CachePreference.CACHE));
             }
         }
+    }
+
+    @Override
+    public @NotNull VerifiedDependencyProvider verifyDependencies(
+            final @NotNull DependencyProvider dependencyProvider) {
+        Objects.requireNonNull(dependencyProvider);
+
+        //many element types usually share the same dependencies, so group them to only resolve each key once
+        final Map<DependencyProvider.TypeKey<?>, List<Key>> requiredBy = new LinkedHashMap<>();
+        for (Map.Entry<Key, ElementFactory<?, ?>> entry : registeredFactories.entrySet()) {
+            for (DependencyProvider.TypeKey<?> key : entry.getValue().dependencies()) {
+                requiredBy.computeIfAbsent(key, ignored -> new ArrayList<>(2)).add(entry.getKey());
+            }
+        }
+
+        final Map<DependencyProvider.TypeKey<?>, Supplier<?>> suppliers = new HashMap<>(requiredBy.size());
+        final Map<DependencyProvider.TypeKey<?>, Supplier<? extends CompletableFuture<?>>> asyncSuppliers =
+                new HashMap<>(requiredBy.size());
+        final StringBuilder errors = new StringBuilder();
+        for (Map.Entry<DependencyProvider.TypeKey<?>, List<Key>> entry : requiredBy.entrySet()) {
+            try {
+                suppliers.put(entry.getKey(), dependencyProvider.supplier(entry.getKey()));
+                asyncSuppliers.put(entry.getKey(), dependencyProvider.asyncSupplier(entry.getKey()));
+            }
+            catch (ElementException exception) {
+                errors.append(System.lineSeparator()).append(entry.getKey()).append(", required by ")
+                        .append(entry.getValue()).append(": ").append(exception.getMessage());
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            throw elementException("Unsatisfied dependencies:" + errors);
+        }
 
-        elementContextSource.processorRegistry().registerBulk(processors);
-        elementContextSource.factoryRegistry().registerBulk(factories);
-        elementContextSource.cacheRegistry().registerBulk(cache);
+        return new VerifiedDependencyProvider(dependencyProvider, suppliers, asyncSuppliers);
     }
 
     @Override
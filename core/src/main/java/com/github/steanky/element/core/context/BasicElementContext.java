@@ -4,7 +4,12 @@ import com.github.steanky.element.core.ElementException;
 import com.github.steanky.element.core.ElementFactory;
 import com.github.steanky.element.core.Registry;
 import com.github.steanky.element.core.dependency.DependencyProvider;
+import com.github.steanky.element.core.dependency.DependencyScope;
+import com.github.steanky.element.core.dependency.ScopeStorage;
+import com.github.steanky.element.core.jfr.ProvideEvent;
 import com.github.steanky.element.core.key.KeyExtractor;
+import com.github.steanky.element.core.metrics.ElementMetrics;
+import com.github.steanky.element.core.util.SizeEstimator;
 import com.github.steanky.ethylene.core.ConfigElement;
 import com.github.steanky.ethylene.core.collection.ConfigContainer;
 import com.github.steanky.ethylene.core.collection.ConfigNode;
@@ -16,9 +21,9 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -26,7 +31,20 @@ import java.util.concurrent.locks.ReentrantLock;
 import static com.github.steanky.element.core.util.Validate.elementException;
 
 /**
- * Basic implementation of {@link ElementContext}.
+ * Basic implementation of {@link ElementContext}. Element graphs are constructed iteratively, using
+ * {@link ElementFactory#stage(Object, ConfigPath, ElementContext, DependencyProvider)}, so deeply nested configurations
+ * do not require a correspondingly deep thread stack. Asynchronous construction uses the same approach, with
+ * {@link ElementFactory#stageAsync(Object, ConfigPath, ElementContext, DependencyProvider)}. Incremental construction
+ * (see {@link ElementContext#beginProvide(ConfigPath, ConfigNode, DependencyProvider, boolean)}) keeps the construction
+ * stack between steps, so that it can be resumed later; time spent between steps is not counted as construction time.
+ * <p>
+ * If an {@link ElementMetrics} instance other than {@link ElementMetrics#NONE} is given, it is notified of element
+ * construction, cache lookups, data processing, and dependency resolution. Otherwise, nothing is measured.
+ * Independently of this, a {@link ProvideEvent} is emitted for every element provided while that event is enabled in a
+ * Flight Recorder recording.
+ * <p>
+ * If a {@link SlowConstructionWatchdog} is given, it is used to report every element whose construction exceeds its
+ * threshold, along with the stack of elements being constructed at the time.
  */
 public class BasicElementContext implements ElementContext {
     private final Registry<ConfigProcessor<?>> processorRegistry;
@@ -37,6 +55,9 @@ public class BasicElementContext implements ElementContext {
     private final Map<ConfigPath, DataInfo> dataObjects;
     private final Map<ConfigPath, Object> elementObjects;
     private final Map<ConfigPath, Key> typeMap;
+    private final ScopeStorage scopeStorage;
+    private final ElementMetrics metrics;
+    private final SlowConstructionWatchdog watchdog;
 
     private final Lock defaultMapLock;
     private volatile Map<ConfigPath, ConfigNode> defaultMap;
@@ -51,11 +72,14 @@ public class BasicElementContext implements ElementContext {
      * @param cacheRegistry     the Registry used to determine if element types request caching or not
      * @param typeKeyExtractor  the {@link KeyExtractor} implementation used to extract type keys from nodes
      * @param rootContainer     the {@link ConfigContainer} used as the root (may contain additional element data)
+     * @param metrics           the {@link ElementMetrics} notified of construction events
+     * @param watchdog          the {@link SlowConstructionWatchdog} used to report slow elements; may be null
      */
     public BasicElementContext(final @NotNull Registry<ConfigProcessor<?>> processorRegistry,
             final @NotNull Registry<ElementFactory<?, ?>> factoryRegistry,
             final @NotNull Registry<Boolean> cacheRegistry, final @NotNull KeyExtractor typeKeyExtractor,
-            final @NotNull ConfigContainer rootContainer) {
+            final @NotNull ConfigContainer rootContainer, final @NotNull ElementMetrics metrics,
+            final @Nullable SlowConstructionWatchdog watchdog) {
         this.processorRegistry = Objects.requireNonNull(processorRegistry);
         this.factoryRegistry = Objects.requireNonNull(factoryRegistry);
         this.cacheRegistry = Objects.requireNonNull(cacheRegistry);
@@ -65,88 +89,442 @@ public class BasicElementContext implements ElementContext {
         this.dataObjects = new ConcurrentHashMap<>(4);
         this.elementObjects = new ConcurrentHashMap<>(4);
         this.typeMap = new ConcurrentHashMap<>(4);
+        this.scopeStorage = new ScopeStorage();
+        this.metrics = Objects.requireNonNull(metrics);
+        this.watchdog = watchdog;
 
         this.defaultMapLock = new ReentrantLock();
         this.defaultMap = Map.of();
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Creates a new instance of this class which does not report slow elements.
+     *
+     * @param processorRegistry the {@link Registry} used to hold references to {@link ConfigProcessor} instances needed
+     *                          to deserialize element object data
+     * @param factoryRegistry   the Registry used to hold references to {@link ElementFactory} instances needed to
+     *                          construct element objects
+     * @param cacheRegistry     the Registry used to determine if element types request caching or not
+     * @param typeKeyExtractor  the {@link KeyExtractor} implementation used to extract type keys from nodes
+     * @param rootContainer     the {@link ConfigContainer} used as the root (may contain additional element data)
+     * @param metrics           the {@link ElementMetrics} notified of construction events
+     */
+    public BasicElementContext(final @NotNull Registry<ConfigProcessor<?>> processorRegistry,
+            final @NotNull Registry<ElementFactory<?, ?>> factoryRegistry,
+            final @NotNull Registry<Boolean> cacheRegistry, final @NotNull KeyExtractor typeKeyExtractor,
+            final @NotNull ConfigContainer rootContainer, final @NotNull ElementMetrics metrics) {
+        this(processorRegistry, factoryRegistry, cacheRegistry, typeKeyExtractor, rootContainer, metrics, null);
+    }
+
+    /**
+     * Creates a new instance of this class which does not measure anything.
+     *
+     * @param processorRegistry the {@link Registry} used to hold references to {@link ConfigProcessor} instances needed
+     *                          to deserialize element object data
+     * @param factoryRegistry   the Registry used to hold references to {@link ElementFactory} instances needed to
+     *                          construct element objects
+     * @param cacheRegistry     the Registry used to determine if element types request caching or not
+     * @param typeKeyExtractor  the {@link KeyExtractor} implementation used to extract type keys from nodes
+     * @param rootContainer     the {@link ConfigContainer} used as the root (may contain additional element data)
+     */
+    public BasicElementContext(final @NotNull Registry<ConfigProcessor<?>> processorRegistry,
+            final @NotNull Registry<ElementFactory<?, ?>> factoryRegistry,
+            final @NotNull Registry<Boolean> cacheRegistry, final @NotNull KeyExtractor typeKeyExtractor,
+            final @NotNull ConfigContainer rootContainer) {
+        this(processorRegistry, factoryRegistry, cacheRegistry, typeKeyExtractor, rootContainer, ElementMetrics.NONE);
+    }
+
     @Override
     public <TElement> @NotNull TElement provide(final @NotNull ConfigPath path, final @Nullable ConfigNode substitute,
             final @NotNull DependencyProvider dependencyProvider, final boolean cache) {
+        return provide(path, substitute, dependencyProvider, cache, metrics(dependencyProvider));
+    }
+
+    @Override
+    public <TElement> @NotNull Traced<TElement> provideTraced(final @NotNull ConfigPath path,
+            final @NotNull DependencyProvider dependencyProvider, final boolean cache) {
+        final ConstructionTracer tracer = new ConstructionTracer();
+        final TElement element = provide(path, null, dependencyProvider, cache,
+                ElementMetrics.compose(metrics(dependencyProvider), tracer));
+        return new Traced<>(element, tracer.trace());
+    }
+
+    /*
+    Determines the metrics used by a call to provide. Nested calls, made by factories that construct their own
+    children, receive the provider given to the outermost call, and so use the same metrics (including any tracer).
+     */
+    private ElementMetrics metrics(final DependencyProvider dependencyProvider) {
+        return dependencyProvider instanceof MeasuredDependencyProvider measured ? measured.metrics() : metrics;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <TElement> TElement provide(final ConfigPath path, final ConfigNode substitute,
+            final DependencyProvider dependencyProvider, final boolean cache, final ElementMetrics metrics) {
+        //nested calls (from factories that construct their own children) share the outermost call's scope
+        final DependencyScope scope = DependencyScope.enter(scopeStorage);
         try {
-            final ConfigPath absolutePath = path.toAbsolute();
-
-            Key objectType = typeMap.get(absolutePath);
-            final ConfigNode dataNode;
-            if (objectType == null) {
-                ConfigNode child;
-                try {
-                    child = substitute != null ? substitute : rootCopy.atOrThrow(absolutePath).asNodeOrThrow();
+            final DependencyProvider provider = measured(dependencyProvider, metrics);
+            final Frame rootFrame;
+            try {
+                rootFrame = prepare(path.toAbsolute(), substitute, provider, cache, metrics);
+            }
+            catch (ElementException exception) {
+                exception.setConfigPath(path);
+                exception.fillInStackTrace();
+                throw exception;
+            }
+
+            if (rootFrame.stage == null) {
+                return (TElement) rootFrame.element;
+            }
+
+            return (TElement) construct(rootFrame, provider, metrics);
+        }
+        finally {
+            if (scope != null) {
+                scope.close();
+            }
+        }
+    }
+
+    /*
+    Builds the element graph rooted at the given frame bottom-up, using an explicit stack rather than recursion. This
+    keeps stack usage constant regardless of how deeply elements are nested.
+     */
+    private Object construct(final Frame rootFrame, final DependencyProvider dependencyProvider,
+            final ElementMetrics metrics) {
+        final Deque<Frame> stack = new ArrayDeque<>();
+        final Set<ConfigPath> pathsInProgress = new HashSet<>();
+
+        stack.push(rootFrame);
+        pathsInProgress.add(rootFrame.path);
+
+        ConfigPath currentPath = rootFrame.path;
+        try {
+            while (true) {
+                final Frame frame = stack.peek();
+                if (frame.next < frame.children.length) {
+                    final int index = frame.next++;
+                    currentPath = frame.stage.childPath(index).toAbsolute();
+
+                    final Frame childFrame = prepare(currentPath, frame.stage.childData(index), dependencyProvider,
+                            false, metrics);
+                    if (childFrame.stage == null) {
+                        frame.children[index] = childFrame.element;
+                        continue;
+                    }
+
+                    if (!pathsInProgress.add(currentPath)) {
+                        throw elementException(currentPath, "Element depends on itself");
+                    }
+
+                    stack.push(childFrame);
+                    continue;
                 }
-                catch (ConfigProcessException e) {
-                    throw elementException(e, absolutePath, "Configuration error");
+
+                currentPath = frame.path;
+                final Object element = complete(frame, metrics, stack);
+
+                stack.pop();
+                pathsInProgress.remove(frame.path);
+
+                final Frame parent = stack.peek();
+                if (parent == null) {
+                    return element;
                 }
 
-                objectType = typeKeyExtractor.extractKey(child);
-                typeMap.put(absolutePath, objectType);
-                dataNode = child;
-            } else {
-                dataNode = null;
+                parent.children[parent.next - 1] = element;
             }
+        }
+        catch (ElementException exception) {
+            exception.setConfigPath(currentPath);
 
-            final boolean cacheElement;
-            if (cacheRegistry.contains(objectType)) {
-                cacheElement = cacheRegistry.lookup(objectType);
-            } else {
-                cacheElement = cache;
+            for (Frame frame : stack) {
+                frame.stage.handleException(exception);
+                failed(frame, metrics);
             }
 
-            if (cacheElement && elementObjects.containsKey(absolutePath)) {
-                return (TElement) elementObjects.get(absolutePath);
+            exception.fillInStackTrace();
+            throw exception;
+        }
+    }
+
+    private Frame prepare(final ConfigPath absolutePath, final ConfigNode substitute,
+            final DependencyProvider dependencyProvider, final boolean cache, final ElementMetrics metrics) {
+        final ProvideEvent event = ProvideEvent.start();
+        final Target target = target(absolutePath, substitute, cache, metrics);
+        if (target.factory == null) {
+            ProvideEvent.end(event, absolutePath, target.type, true);
+            return new Frame(target.element);
+        }
+
+        final long start = started(target.type, absolutePath, metrics);
+        final ElementFactory.Stage<Object> stage;
+        try {
+            stage = target.factory.stage(target.data, absolutePath, this, dependencyProvider);
+        }
+        catch (RuntimeException exception) {
+            failed(target.type, absolutePath, start, metrics);
+            throw exception;
+        }
+
+        return new Frame(stage, absolutePath, target.cache, target.type, start, event);
+    }
+
+    /*
+    Wraps the given provider so that dependency resolution is measured, unless nothing is being measured, or the
+    provider has already been wrapped for the same metrics (by an outer call to provide).
+     */
+    private static DependencyProvider measured(final DependencyProvider dependencyProvider,
+            final ElementMetrics metrics) {
+        if (dependencyProvider instanceof MeasuredDependencyProvider measured) {
+            if (measured.metrics() == metrics) {
+                return dependencyProvider;
             }
 
-            final Key objectTypeFinal = objectType;
-            DataInfo dataInfo = dataObjects.get(absolutePath);
-            if (dataInfo == null) {
-                try {
-                    final ConfigNode configuration = dataNode != null ? dataNode :
-                            (substitute != null ? substitute : rootCopy.atOrThrow(absolutePath).asNodeOrThrow());
+            return measured(measured.delegate(), metrics);
+        }
 
-                    final Object data = processorRegistry.contains(objectTypeFinal) ?
-                            processorRegistry.lookup(objectTypeFinal).dataFromElement(configuration) : null;
+        if (metrics == ElementMetrics.NONE) {
+            return dependencyProvider;
+        }
 
-                    dataInfo = new DataInfo(data, objectTypeFinal);
-                    DataInfo newObject = dataObjects.putIfAbsent(absolutePath, dataInfo);
-                    if (newObject != null) {
-                        dataInfo = newObject;
-                    }
-                } catch (ConfigProcessException e) {
-                    throw elementException(e, absolutePath, "Configuration error");
+        return new MeasuredDependencyProvider(dependencyProvider, metrics);
+    }
+
+    private long started(final Key type, final ConfigPath path, final ElementMetrics metrics) {
+        if (metrics != ElementMetrics.NONE) {
+            metrics.constructionStarted(type, path);
+        }
+        else if (watchdog == null) {
+            return 0;
+        }
+
+        return System.nanoTime();
+    }
+
+    private static void failed(final Key type, final ConfigPath path, final long start, final ElementMetrics metrics) {
+        if (metrics != ElementMetrics.NONE) {
+            metrics.constructionFailed(type, path, System.nanoTime() - start);
+        }
+    }
+
+    private static void failed(final Frame frame, final ElementMetrics metrics) {
+        failed(frame.type, frame.path, frame.start, metrics);
+    }
+
+    /*
+    Locates the element at the given path, returning either an already-cached element or the factory and data needed to
+    construct it.
+     */
+    @SuppressWarnings("unchecked")
+    private Target target(final ConfigPath absolutePath, final ConfigNode substitute, final boolean cache,
+            final ElementMetrics metrics) {
+        final boolean measure = metrics != ElementMetrics.NONE;
+        Key objectType = typeMap.get(absolutePath);
+        final ConfigNode dataNode;
+        if (objectType == null) {
+            ConfigNode child;
+            try {
+                child = substitute != null ? substitute : rootCopy.atOrThrow(absolutePath).asNodeOrThrow();
+            }
+            catch (ConfigProcessException e) {
+                throw elementException(e, absolutePath, "Configuration error");
+            }
+
+            objectType = typeKeyExtractor.extractKey(child);
+            typeMap.put(absolutePath, objectType);
+            dataNode = child;
+        } else {
+            dataNode = null;
+        }
+
+        final boolean cacheElement;
+        if (cacheRegistry.contains(objectType)) {
+            cacheElement = cacheRegistry.lookup(objectType);
+        } else {
+            cacheElement = cache;
+        }
+
+        if (cacheElement) {
+            final Object elementObject = elementObjects.get(absolutePath);
+            if (elementObject != null) {
+                if (measure) {
+                    metrics.cacheHit(objectType, absolutePath);
                 }
+
+                return new Target(null, null, false, objectType, elementObject);
+            }
+
+            if (measure) {
+                metrics.cacheMiss(objectType, absolutePath);
             }
+        }
+
+        final Key objectTypeFinal = objectType;
+        DataInfo dataInfo = dataObjects.get(absolutePath);
+        if (dataInfo == null) {
+            try {
+                final ConfigNode configuration = dataNode != null ? dataNode :
+                        (substitute != null ? substitute : rootCopy.atOrThrow(absolutePath).asNodeOrThrow());
+
+                final Object data;
+                if (processorRegistry.contains(objectTypeFinal)) {
+                    final ConfigProcessor<?> processor = processorRegistry.lookup(objectTypeFinal);
+                    if (measure) {
+                        final long start = System.nanoTime();
+                        data = processor.dataFromElement(configuration);
+                        metrics.dataProcessed(objectTypeFinal, absolutePath, System.nanoTime() - start);
+                    }
+                    else {
+                        data = processor.dataFromElement(configuration);
+                    }
+                }
+                else {
+                    data = null;
+                }
 
-            final DataInfo finalDataInfo = dataInfo;
-            if (cacheElement) {
-                final Object elementObject = elementObjects.get(absolutePath);
-                if (elementObject != null) {
-                    return (TElement) elementObject;
+                dataInfo = new DataInfo(data, objectTypeFinal);
+                DataInfo newObject = dataObjects.putIfAbsent(absolutePath, dataInfo);
+                if (newObject != null) {
+                    dataInfo = newObject;
                 }
+            } catch (ConfigProcessException e) {
+                throw elementException(e, absolutePath, "Configuration error");
+            }
+        }
 
-                TElement object = (TElement) ((ElementFactory<Object, Object>) factoryRegistry.lookup(finalDataInfo.type))
-                        .make(finalDataInfo.data, absolutePath, this, dependencyProvider);
-                TElement newObject = (TElement) elementObjects.putIfAbsent(absolutePath, object);
-                return newObject != null ? newObject : object;
+        return new Target((ElementFactory<Object, Object>) factoryRegistry.lookup(dataInfo.type), dataInfo.data,
+                cacheElement, dataInfo.type, null);
+    }
+
+    /*
+    Builds the element of the frame at the top of the given stack.
+     */
+    private Object complete(final Frame frame, final ElementMetrics metrics, final Deque<Frame> stack) {
+        final Object element = frame.stage.build(frame.children);
+        if (metrics != ElementMetrics.NONE || watchdog != null) {
+            final long nanos = System.nanoTime() - frame.start;
+            if (metrics != ElementMetrics.NONE) {
+                metrics.constructionFinished(frame.type, frame.path, nanos);
             }
 
-            return (TElement) ((ElementFactory<Object, Object>) factoryRegistry.lookup(dataInfo.type))
-                    .make(dataInfo.data, absolutePath, this, dependencyProvider);
+            if (watchdog != null) {
+                watch(frame, nanos, stack);
+            }
         }
-        catch (ElementException exception) {
-            exception.setConfigPath(path);
-            exception.fillInStackTrace();
-            throw exception;
+
+        ProvideEvent.end(frame.event, frame.path, frame.type, false);
+
+        if (!frame.cache) {
+            return element;
         }
+
+        final Object oldElement = elementObjects.putIfAbsent(frame.path, element);
+        return oldElement != null ? oldElement : element;
+    }
+
+    private void watch(final Frame frame, final long nanos, final Deque<Frame> stack) {
+        final long threshold = watchdog.thresholdNanos();
+        final long selfNanos = Math.max(0, nanos - frame.childNanos);
+        final boolean slow = nanos > threshold && (!frame.slowDescendant || selfNanos > threshold);
+        if (slow) {
+            final List<SlowConstructionWatchdog.StackEntry> entries = new ArrayList<>(stack.size());
+            final Iterator<Frame> iterator = stack.descendingIterator();
+            while (iterator.hasNext()) {
+                final Frame stackFrame = iterator.next();
+                entries.add(new SlowConstructionWatchdog.StackEntry(stackFrame.type, stackFrame.path));
+            }
+
+            watchdog.report(new SlowConstructionWatchdog.SlowConstruction(frame.type, frame.path, nanos, selfNanos,
+                    entries));
+        }
+
+        //the parent, if any, is immediately below the frame being completed
+        final Iterator<Frame> iterator = stack.iterator();
+        iterator.next();
+        if (iterator.hasNext()) {
+            final Frame parent = iterator.next();
+            parent.childNanos += nanos;
+            parent.slowDescendant |= slow || frame.slowDescendant;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <TElement> @NotNull CompletableFuture<TElement> provideAsync(final @NotNull ConfigPath path,
+            final @Nullable ConfigNode substitute, final @NotNull DependencyProvider dependencyProvider,
+            final boolean cache) {
+        final AsyncConstruction construction = new AsyncConstruction(dependencyProvider);
+        construction.start(path.toAbsolute(), substitute, cache);
+        return (CompletableFuture<TElement>) construction.result;
+    }
+
+    @Override
+    public <TElement> @NotNull IncrementalConstruction<TElement> beginProvide(final @NotNull ConfigPath path,
+            final @Nullable ConfigNode substitute, final @NotNull DependencyProvider dependencyProvider,
+            final boolean cache) {
+        return new Incremental<>(path.toAbsolute(), substitute, dependencyProvider, cache);
+    }
+
+    @Override
+    public @NotNull ContextStats stats(final @NotNull DependencyProvider dependencyProvider) {
+        final SizeEstimator estimator = new SizeEstimator();
+        final Map<Key, TypeUsage> byType = new HashMap<>();
+
+        //neither this context, nor anything shared through the dependency provider, counts towards an element
+        estimator.shallowSize(this);
+        estimator.exclude(dependencyProvider);
+
+        ContextStats.Usage types = ContextStats.Usage.EMPTY;
+        for (Map.Entry<ConfigPath, Key> entry : typeMap.entrySet()) {
+            final long bytes = estimator.deepSize(entry.getKey()) + estimator.deepSize(entry.getValue());
+            types = types.plus(bytes);
+
+            final TypeUsage usage = TypeUsage.of(byType, entry.getValue());
+            usage.types = usage.types.plus(bytes);
+        }
+
+        ContextStats.Usage data = ContextStats.Usage.EMPTY;
+        for (Map.Entry<ConfigPath, DataInfo> entry : dataObjects.entrySet()) {
+            final long bytes = estimator.deepSize(entry.getKey()) + estimator.shallowSize(entry.getValue()) +
+                    estimator.deepSize(entry.getValue().data);
+            data = data.plus(bytes);
+
+            final TypeUsage usage = TypeUsage.of(byType, entry.getValue().type);
+            usage.data = usage.data.plus(bytes);
+        }
+
+        ContextStats.Usage elements = ContextStats.Usage.EMPTY;
+        for (Map.Entry<ConfigPath, Object> entry : elementObjects.entrySet()) {
+            final long bytes = estimator.deepSize(entry.getKey()) + estimator.deepSize(entry.getValue());
+            elements = elements.plus(bytes);
+
+            final TypeUsage usage = TypeUsage.of(byType, typeMap.get(entry.getKey()));
+            if (usage != null) {
+                usage.elements = usage.elements.plus(bytes);
+            }
+        }
+
+        ContextStats.Usage defaults = ContextStats.Usage.EMPTY;
+        for (Map.Entry<ConfigPath, ConfigNode> entry : defaultMap.entrySet()) {
+            final long bytes = estimator.deepSize(entry.getKey()) + estimator.deepSize(entry.getValue());
+            defaults = defaults.plus(bytes);
+
+            final TypeUsage usage = TypeUsage.of(byType, typeMap.get(entry.getKey()));
+            if (usage != null) {
+                usage.defaults = usage.defaults.plus(bytes);
+            }
+        }
+
+        final Map<Key, ContextStats.TypeUsage> typeUsage = new HashMap<>(byType.size());
+        for (Map.Entry<Key, TypeUsage> entry : byType.entrySet()) {
+            final TypeUsage usage = entry.getValue();
+            typeUsage.put(entry.getKey(), new ContextStats.TypeUsage(usage.types, usage.data, usage.elements,
+                    usage.defaults));
+        }
+
+        return new ContextStats(types, data, elements, defaults, typeUsage);
     }
 
     @Override
@@ -215,6 +593,419 @@ public class BasicElementContext implements ElementContext {
 
     private record DataInfo(Object data, Key type) {}
 
+    //accumulates usage for a single type while computing stats
+    private static final class TypeUsage {
+        private ContextStats.Usage types = ContextStats.Usage.EMPTY;
+        private ContextStats.Usage data = ContextStats.Usage.EMPTY;
+        private ContextStats.Usage elements = ContextStats.Usage.EMPTY;
+        private ContextStats.Usage defaults = ContextStats.Usage.EMPTY;
+
+        private static TypeUsage of(final Map<Key, TypeUsage> byType, final Key type) {
+            return type == null ? null : byType.computeIfAbsent(type, ignored -> new TypeUsage());
+        }
+    }
+
+    private record Target(ElementFactory<Object, Object> factory, Object data, boolean cache, Key type,
+            Object element) {}
+
+    /*
+    Asynchronous counterpart to construct. The element graph is built in the same order, using the same explicit stack,
+    but stages are obtained using stageAsync. Whenever a stage is not immediately available, construction is suspended
+    and resumed by whichever thread completes it. Stages that are already available are handled in a loop rather than
+    by chaining futures, so stack usage stays constant. Only one thread ever works on a given construction at once.
+     */
+    private final class AsyncConstruction {
+        private final ElementMetrics metrics;
+        private final DependencyProvider dependencyProvider;
+        private final ScopeStorage provideStorage;
+        private final Deque<Frame> stack;
+        private final Set<ConfigPath> pathsInProgress;
+        private final CompletableFuture<Object> result;
+
+        private ConfigPath currentPath;
+
+        private AsyncConstruction(final DependencyProvider dependencyProvider) {
+            this.metrics = metrics(Objects.requireNonNull(dependencyProvider));
+            this.dependencyProvider = measured(dependencyProvider, this.metrics);
+            this.provideStorage = new ScopeStorage();
+            this.stack = new ArrayDeque<>();
+            this.pathsInProgress = new HashSet<>();
+            this.result = new CompletableFuture<>();
+        }
+
+        private void start(final ConfigPath absolutePath, final ConfigNode substitute, final boolean cache) {
+            final DependencyScope scope = DependencyScope.enter(scopeStorage, provideStorage);
+            try {
+                currentPath = absolutePath;
+                final ProvideEvent event = ProvideEvent.start();
+                final Target target = target(absolutePath, substitute, cache, metrics);
+                if (target.factory == null) {
+                    ProvideEvent.end(event, absolutePath, target.type, true);
+                    result.complete(target.element);
+                    return;
+                }
+
+                pathsInProgress.add(absolutePath);
+                if (await(target, event)) {
+                    run();
+                }
+            }
+            catch (Throwable e) {
+                fail(e);
+            }
+            finally {
+                if (scope != null) {
+                    scope.close();
+                }
+            }
+        }
+
+        private void resume(final ElementFactory.Stage<Object> stage, final Throwable error, final ConfigPath path,
+                final Target target, final long start, final ProvideEvent event) {
+            final DependencyScope scope = DependencyScope.enter(scopeStorage, provideStorage);
+            try {
+                currentPath = path;
+                if (error != null) {
+                    failed(target.type, path, start, metrics);
+                    fail(error);
+                    return;
+                }
+
+                stack.push(new Frame(stage, path, target.cache, target.type, start, event));
+                run();
+            }
+            catch (Throwable e) {
+                fail(e);
+            }
+            finally {
+                if (scope != null) {
+                    scope.close();
+                }
+            }
+        }
+
+        /*
+        Requests the stage for the element at currentPath. Returns true if the stage was immediately available, in
+        which case it has been pushed; otherwise returns false, and construction will resume once it completes.
+         */
+        private boolean await(final Target target, final ProvideEvent event) {
+            final ConfigPath path = currentPath;
+            final long start = started(target.type, path, metrics);
+            final CompletableFuture<ElementFactory.Stage<Object>> future;
+            final ElementFactory.Stage<Object> stage;
+            try {
+                future = target.factory.stageAsync(target.data, path, BasicElementContext.this, dependencyProvider);
+                stage = future.isDone() ? future.join() : null;
+            }
+            catch (RuntimeException exception) {
+                failed(target.type, path, start, metrics);
+                throw exception;
+            }
+
+            if (stage != null) {
+                stack.push(new Frame(stage, path, target.cache, target.type, start, event));
+                return true;
+            }
+
+            future.whenComplete((completed, error) -> resume(completed, error, path, target, start, event));
+            return false;
+        }
+
+        private void run() {
+            while (true) {
+                final Frame frame = stack.peek();
+                if (frame.next < frame.children.length) {
+                    final int index = frame.next++;
+                    currentPath = frame.stage.childPath(index).toAbsolute();
+
+                    final ProvideEvent event = ProvideEvent.start();
+                    final Target target = target(currentPath, frame.stage.childData(index), false, metrics);
+                    if (target.factory == null) {
+                        ProvideEvent.end(event, currentPath, target.type, true);
+                        frame.children[index] = target.element;
+                        continue;
+                    }
+
+                    if (!pathsInProgress.add(currentPath)) {
+                        throw elementException(currentPath, "Element depends on itself");
+                    }
+
+                    if (!await(target, event)) {
+                        return;
+                    }
+
+                    continue;
+                }
+
+                currentPath = frame.path;
+                final Object element = complete(frame, metrics, stack);
+
+                stack.pop();
+                pathsInProgress.remove(frame.path);
+
+                final Frame parent = stack.peek();
+                if (parent == null) {
+                    result.complete(element);
+                    return;
+                }
+
+                parent.children[parent.next - 1] = element;
+            }
+        }
+
+        private void fail(final Throwable error) {
+            Throwable cause = error;
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+
+            final ElementException exception;
+            if (cause instanceof ElementException elementException) {
+                exception = elementException;
+                exception.setConfigPath(currentPath);
+            }
+            else {
+                exception = elementException(cause, currentPath, "Failed to construct element");
+            }
+
+            for (Frame frame : stack) {
+                frame.stage.handleException(exception);
+                failed(frame, metrics);
+            }
+
+            stack.clear();
+            result.completeExceptionally(exception);
+        }
+    }
+
+    /*
+    Works like the synchronous construct method, but keeps its state in fields, so that construction can be stopped
+    between elements and resumed by a later call to step.
+     */
+    private final class Incremental<TElement> implements IncrementalConstruction<TElement> {
+        private final ConfigPath absolutePath;
+        private final ConfigNode substitute;
+        private final boolean cache;
+        private final ElementMetrics metrics;
+        private final DependencyProvider dependencyProvider;
+        private final ScopeStorage provideStorage;
+        private final Deque<Frame> stack;
+        private final Set<ConfigPath> pathsInProgress;
+
+        private ConfigPath currentPath;
+        private boolean started;
+        private boolean done;
+        private boolean paused;
+        private long pausedAt;
+        private Object element;
+        private RuntimeException exception;
+
+        private Incremental(final ConfigPath absolutePath, final ConfigNode substitute,
+                final DependencyProvider dependencyProvider, final boolean cache) {
+            this.absolutePath = absolutePath;
+            this.substitute = substitute;
+            this.cache = cache;
+            this.metrics = metrics(Objects.requireNonNull(dependencyProvider));
+            this.dependencyProvider = measured(dependencyProvider, this.metrics);
+            this.provideStorage = new ScopeStorage();
+            this.stack = new ArrayDeque<>();
+            this.pathsInProgress = new HashSet<>();
+        }
+
+        @Override
+        public boolean step(final long nanosBudget) {
+            if (done) {
+                if (exception != null) {
+                    throw exception;
+                }
+
+                return true;
+            }
+
+            final long now = System.nanoTime();
+            final long deadline = now + nanosBudget;
+            resume(now);
+
+            final DependencyScope scope = DependencyScope.enter(scopeStorage, provideStorage);
+            try {
+                long time;
+                do {
+                    if (advance()) {
+                        done = true;
+                        return true;
+                    }
+                } while ((time = System.nanoTime()) - deadline < 0);
+
+                paused = true;
+                pausedAt = time;
+                return false;
+            }
+            catch (RuntimeException exception) {
+                //any failure ends construction, so that a later step never builds a parent whose child is missing
+                final ElementException elementException = exception instanceof ElementException e ? e : null;
+                if (elementException != null) {
+                    elementException.setConfigPath(currentPath);
+                }
+
+                for (Frame frame : stack) {
+                    if (elementException != null) {
+                        frame.stage.handleException(elementException);
+                    }
+
+                    failed(frame, metrics);
+                }
+
+                stack.clear();
+                pathsInProgress.clear();
+
+                if (elementException != null) {
+                    elementException.fillInStackTrace();
+                }
+
+                this.exception = exception;
+                done = true;
+                throw exception;
+            }
+            finally {
+                if (scope != null) {
+                    scope.close();
+                }
+            }
+        }
+
+        /*
+        Moves the start time of every element still under construction forward by the time spent between steps, so that
+        construction times (as reported to metrics and the watchdog) only include time spent inside step. Flight Recorder
+        events can't be adjusted in the same way, so their durations still include the time between steps.
+         */
+        private void resume(final long now) {
+            if (!paused) {
+                return;
+            }
+
+            final long pausedNanos = now - pausedAt;
+            for (Frame frame : stack) {
+                frame.start += pausedNanos;
+            }
+
+            paused = false;
+        }
+
+        /*
+        Performs a single unit of work: preparing one element, or completing one whose children are all available.
+        Returns true once the root element has been constructed.
+         */
+        private boolean advance() {
+            if (!started) {
+                started = true;
+                currentPath = absolutePath;
+
+                final Frame rootFrame = prepare(absolutePath, substitute, dependencyProvider, cache, metrics);
+                if (rootFrame.stage == null) {
+                    element = rootFrame.element;
+                    return true;
+                }
+
+                stack.push(rootFrame);
+                pathsInProgress.add(rootFrame.path);
+                return false;
+            }
+
+            final Frame frame = stack.peek();
+            if (frame.next < frame.children.length) {
+                final int index = frame.next++;
+                currentPath = frame.stage.childPath(index).toAbsolute();
+
+                final Frame childFrame = prepare(currentPath, frame.stage.childData(index), dependencyProvider, false,
+                        metrics);
+                if (childFrame.stage == null) {
+                    frame.children[index] = childFrame.element;
+                    return false;
+                }
+
+                if (!pathsInProgress.add(currentPath)) {
+                    throw elementException(currentPath, "Element depends on itself");
+                }
+
+                stack.push(childFrame);
+                return false;
+            }
+
+            currentPath = frame.path;
+            final Object element = complete(frame, metrics, stack);
+
+            stack.pop();
+            pathsInProgress.remove(frame.path);
+
+            final Frame parent = stack.peek();
+            if (parent == null) {
+                this.element = element;
+                return true;
+            }
+
+            parent.children[parent.next - 1] = element;
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public @NotNull TElement element() {
+            if (!done) {
+                throw new IllegalStateException("Construction has not finished");
+            }
+
+            if (exception != null) {
+                throw exception;
+            }
+
+            return (TElement) element;
+        }
+    }
+
+    private static final class Frame {
+        private final ElementFactory.Stage<Object> stage;
+        private final ConfigPath path;
+        private final boolean cache;
+        private final Object[] children;
+        private final Object element;
+        private final Key type;
+        private final ProvideEvent event;
+
+        //not final, so that incremental construction can exclude the time between steps
+        private long start;
+        private int next;
+        private long childNanos;
+        private boolean slowDescendant;
+
+        private Frame(final ElementFactory.Stage<Object> stage, final ConfigPath path, final boolean cache,
+                final Key type, final long start, final ProvideEvent event) {
+            this.stage = stage;
+            this.path = path;
+            this.cache = cache;
+            this.children = new Object[stage.childCount()];
+            this.element = null;
+            this.type = type;
+            this.start = start;
+            this.event = event;
+        }
+
+        private Frame(final Object element) {
+            this.stage = null;
+            this.path = null;
+            this.cache = false;
+            this.children = null;
+            this.element = element;
+            this.type = null;
+            this.start = 0;
+            this.event = null;
+        }
+    }
+
     /**
      * Basic implementation of {@link ElementContext.Source}.
      */
@@ -223,6 +1014,8 @@ public class BasicElementContext implements ElementContext {
         private final Registry<ElementFactory<?, ?>> factoryRegistry;
         private final Registry<Boolean> cacheRegistry;
         private final KeyExtractor keyExtractor;
+        private final ElementMetrics metrics;
+        private final SlowConstructionWatchdog watchdog;
 
         /**
          * Creates a new instance of this class.
@@ -235,19 +1028,66 @@ public class BasicElementContext implements ElementContext {
          *                          used to determine whether element objects should be cached.
          * @param keyExtractor      the {@link KeyExtractor} passed to all BasicDataContext instances created by this
          *                          source
+         * @param metrics           the {@link ElementMetrics} shared by all BasicElementContext instances created by
+         *                          this source
+         * @param watchdog          the {@link SlowConstructionWatchdog} shared by all BasicElementContext instances
+         *                          created by this source; may be null
          */
         public Source(final @NotNull Registry<ConfigProcessor<?>> processorRegistry,
                 final @NotNull Registry<ElementFactory<?, ?>> factoryRegistry,
-                final @NotNull Registry<Boolean> cacheRegistry, final @NotNull KeyExtractor keyExtractor) {
+                final @NotNull Registry<Boolean> cacheRegistry, final @NotNull KeyExtractor keyExtractor,
+                final @NotNull ElementMetrics metrics, final @Nullable SlowConstructionWatchdog watchdog) {
             this.processorRegistry = Objects.requireNonNull(processorRegistry);
             this.factoryRegistry = Objects.requireNonNull(factoryRegistry);
             this.cacheRegistry = Objects.requireNonNull(cacheRegistry);
             this.keyExtractor = Objects.requireNonNull(keyExtractor);
+            this.metrics = Objects.requireNonNull(metrics);
+            this.watchdog = watchdog;
+        }
+
+        /**
+         * Creates a new instance of this class whose contexts do not report slow elements.
+         *
+         * @param processorRegistry the {@link Registry} passed to all {@link BasicElementContext} instances created by
+         *                          this source, used for referencing {@link ConfigProcessor} objects
+         * @param factoryRegistry   the {@link Registry} passed to all BasicElementContext instances created by this
+         *                          source, used for referencing {@link ElementFactory} objects
+         * @param cacheRegistry     the Registry passed to all BasicElementContext instances created by this source,
+         *                          used to determine whether element objects should be cached.
+         * @param keyExtractor      the {@link KeyExtractor} passed to all BasicDataContext instances created by this
+         *                          source
+         * @param metrics           the {@link ElementMetrics} shared by all BasicElementContext instances created by
+         *                          this source
+         */
+        public Source(final @NotNull Registry<ConfigProcessor<?>> processorRegistry,
+                final @NotNull Registry<ElementFactory<?, ?>> factoryRegistry,
+                final @NotNull Registry<Boolean> cacheRegistry, final @NotNull KeyExtractor keyExtractor,
+                final @NotNull ElementMetrics metrics) {
+            this(processorRegistry, factoryRegistry, cacheRegistry, keyExtractor, metrics, null);
+        }
+
+        /**
+         * Creates a new instance of this class whose contexts do not measure anything.
+         *
+         * @param processorRegistry the {@link Registry} passed to all {@link BasicElementContext} instances created by
+         *                          this source, used for referencing {@link ConfigProcessor} objects
+         * @param factoryRegistry   the {@link Registry} passed to all BasicElementContext instances created by this
+         *                          source, used for referencing {@link ElementFactory} objects
+         * @param cacheRegistry     the Registry passed to all BasicElementContext instances created by this source,
+         *                          used to determine whether element objects should be cached.
+         * @param keyExtractor      the {@link KeyExtractor} passed to all BasicDataContext instances created by this
+         *                          source
+         */
+        public Source(final @NotNull Registry<ConfigProcessor<?>> processorRegistry,
+                final @NotNull Registry<ElementFactory<?, ?>> factoryRegistry,
+                final @NotNull Registry<Boolean> cacheRegistry, final @NotNull KeyExtractor keyExtractor) {
+            this(processorRegistry, factoryRegistry, cacheRegistry, keyExtractor, ElementMetrics.NONE);
         }
 
         @Override
         public @NotNull BasicElementContext make(final @NotNull ConfigContainer container) {
-            return new BasicElementContext(processorRegistry, factoryRegistry, cacheRegistry, keyExtractor, container);
+            return new BasicElementContext(processorRegistry, factoryRegistry, cacheRegistry, keyExtractor, container,
+                    metrics, watchdog);
         }
 
         @Override
@@ -0,0 +1,288 @@
+package com.github.steanky.element.core.context;
+
+import com.github.steanky.element.core.dependency.DependencyProvider;
+import com.github.steanky.ethylene.core.path.ConfigPath;
+import net.kyori.adventure.key.Key;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The construction tree recorded by a single call to
+ * {@link ElementContext#provideTraced(ConfigPath, DependencyProvider, boolean)}. Each {@link Node} represents one
+ * element that was provided, either by constructing it or by taking it from the cache. The children of a node are the
+ * elements provided while constructing it, in the order they were provided.
+ * <p>
+ * Traces can be exported as JSON, or in the "collapsed stack" format understood by most flame graph tools. Neither
+ * export uses recursion, so arbitrarily deep traces can be written.
+ *
+ * @param root the node of the element that was requested
+ */
+public record ConstructionTrace(@NotNull Node root) {
+    /**
+     * The type key used for nodes whose element type is not known to the context that recorded them. The default
+     * implementation of {@link ElementContext#provideTraced(ConfigPath, DependencyProvider, boolean)} uses this for its
+     * single node.
+     */
+    public static final Key UNKNOWN_TYPE = Key.key("element", "unknown");
+
+    /**
+     * Creates a new instance of this record.
+     *
+     * @param root the node of the element that was requested
+     */
+    public ConstructionTrace {
+        Objects.requireNonNull(root);
+    }
+
+    /**
+     * How the element cache was involved in providing an element.
+     */
+    public enum CacheStatus {
+        /**
+         * The element was not eligible for caching.
+         */
+        UNCACHED,
+
+        /**
+         * A cached instance of the element was found.
+         */
+        HIT,
+
+        /**
+         * The element was eligible for caching, but no cached instance was found, so it was constructed.
+         */
+        MISS
+    }
+
+    /**
+     * A dependency resolved while constructing an element.
+     *
+     * @param key   the key of the dependency
+     * @param nanos the time taken to resolve the dependency, in nanoseconds
+     */
+    public record Dependency(@NotNull DependencyProvider.TypeKey<?> key, long nanos) {
+        /**
+         * Creates a new instance of this record.
+         *
+         * @param key   the key of the dependency
+         * @param nanos the time taken to resolve the dependency, in nanoseconds
+         */
+        public Dependency {
+            Objects.requireNonNull(key);
+        }
+    }
+
+    /**
+     * A single element in a construction trace.
+     *
+     * @param path         the absolute path of the element's configuration
+     * @param type         the element's type key
+     * @param cache        how the element cache was involved
+     * @param nanos        the total time spent providing the element, including its children, in nanoseconds
+     * @param dataNanos    the time spent processing the element's data, in nanoseconds
+     * @param failed       true if the element could not be constructed
+     * @param dependencies the dependencies resolved while constructing the element, not including those of its
+     *                     children
+     * @param children     the child elements
+     */
+    public record Node(@NotNull ConfigPath path, @NotNull Key type, @NotNull CacheStatus cache, long nanos,
+            long dataNanos, boolean failed, @NotNull @Unmodifiable List<Dependency> dependencies,
+            @NotNull @Unmodifiable List<Node> children) {
+        /**
+         * Creates a new instance of this record.
+         *
+         * @param path         the absolute path of the element's configuration
+         * @param type         the element's type key
+         * @param cache        how the element cache was involved
+         * @param nanos        the total time spent providing the element, including its children, in nanoseconds
+         * @param dataNanos    the time spent processing the element's data, in nanoseconds
+         * @param failed       true if the element could not be constructed
+         * @param dependencies the dependencies resolved while constructing the element, not including those of its
+         *                     children
+         * @param children     the child elements
+         */
+        public Node {
+            Objects.requireNonNull(path);
+            Objects.requireNonNull(type);
+            Objects.requireNonNull(cache);
+            dependencies = List.copyOf(dependencies);
+            children = List.copyOf(children);
+        }
+
+        /**
+         * Computes the time spent providing this element, excluding the time spent providing its children.
+         *
+         * @return the exclusive time, in nanoseconds
+         */
+        public long selfNanos() {
+            long childNanos = 0;
+            for (Node child : children) {
+                childNanos += child.nanos;
+            }
+
+            return Math.max(0, nanos - childNanos);
+        }
+    }
+
+    /**
+     * Writes this trace as a JSON object. Each node is written as an object with the fields {@code path},
+     * {@code type}, {@code cache}, {@code nanos}, {@code selfNanos}, {@code dataNanos}, {@code failed},
+     * {@code dependencies} and {@code children}.
+     *
+     * @param appendable the {@link Appendable} to write to
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeJson(final @NotNull Appendable appendable) throws IOException {
+        final Deque<Iterator<Node>> stack = new ArrayDeque<>();
+
+        writeNodeStart(appendable, root);
+        stack.push(root.children.iterator());
+        boolean first = true;
+        while (!stack.isEmpty()) {
+            final Iterator<Node> iterator = stack.peek();
+            if (!iterator.hasNext()) {
+                appendable.append("]}");
+                stack.pop();
+                first = false;
+                continue;
+            }
+
+            if (!first) {
+                appendable.append(',');
+            }
+
+            final Node node = iterator.next();
+            writeNodeStart(appendable, node);
+            stack.push(node.children.iterator());
+            first = true;
+        }
+    }
+
+    private static void writeNodeStart(final Appendable appendable, final Node node) throws IOException {
+        appendable.append("{\"path\":");
+        writeString(appendable, node.path.toString());
+        appendable.append(",\"type\":");
+        writeString(appendable, node.type.asString());
+        appendable.append(",\"cache\":\"").append(node.cache.name()).append("\",\"nanos\":")
+                .append(Long.toString(node.nanos)).append(",\"selfNanos\":").append(Long.toString(node.selfNanos()))
+                .append(",\"dataNanos\":").append(Long.toString(node.dataNanos)).append(",\"failed\":")
+                .append(Boolean.toString(node.failed)).append(",\"dependencies\":[");
+
+        for (int i = 0; i < node.dependencies.size(); i++) {
+            final Dependency dependency = node.dependencies.get(i);
+            if (i > 0) {
+                appendable.append(',');
+            }
+
+            appendable.append("{\"key\":");
+            writeString(appendable, dependency.key.toString());
+            appendable.append(",\"nanos\":").append(Long.toString(dependency.nanos)).append('}');
+        }
+
+        appendable.append("],\"children\":[");
+    }
+
+    private static void writeString(final Appendable appendable, final String string) throws IOException {
+        appendable.append('"');
+        for (int i = 0; i < string.length(); i++) {
+            final char c = string.charAt(i);
+            switch (c) {
+                case '"' -> appendable.append("\\\"");
+                case '\\' -> appendable.append("\\\\");
+                case '\n' -> appendable.append("\\n");
+                case '\r' -> appendable.append("\\r");
+                case '\t' -> appendable.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        appendable.append(String.format("\\u%04x", (int) c));
+                    }
+                    else {
+                        appendable.append(c);
+                    }
+                }
+            }
+        }
+        appendable.append('"');
+    }
+
+    /**
+     * Writes this trace in the collapsed stack format: one line per node, consisting of the semicolon-separated frames
+     * from the root to the node, a space, and the node's exclusive time in nanoseconds. Frames are written as the
+     * element's type key, followed by a space and its path. Nodes whose exclusive time is zero are omitted.
+     *
+     * @param appendable the {@link Appendable} to write to
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeCollapsedStacks(final @NotNull Appendable appendable) throws IOException {
+        final Deque<Node> nodes = new ArrayDeque<>();
+        final Deque<String> stacks = new ArrayDeque<>();
+
+        nodes.push(root);
+        stacks.push(frame(root));
+        while (!nodes.isEmpty()) {
+            final Node node = nodes.pop();
+            final String stack = stacks.pop();
+
+            final long selfNanos = node.selfNanos();
+            if (selfNanos > 0) {
+                appendable.append(stack).append(' ').append(Long.toString(selfNanos)).append('\n');
+            }
+
+            //push in reverse, so children are written in the order they were provided
+            for (int i = node.children.size() - 1; i >= 0; i--) {
+                final Node child = node.children.get(i);
+                nodes.push(child);
+                stacks.push(stack + ";" + frame(child));
+            }
+        }
+    }
+
+    private static String frame(final Node node) {
+        final String frame = node.type.asString() + " " + node.path;
+        return frame.replace(';', '_').replace('\n', '_').replace('\r', '_');
+    }
+
+    /**
+     * Convenience method which returns this trace as a JSON string.
+     *
+     * @return the JSON representation of this trace
+     * @see ConstructionTrace#writeJson(Appendable)
+     */
+    public @NotNull String toJson() {
+        final StringBuilder builder = new StringBuilder();
+        try {
+            writeJson(builder);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Convenience method which returns this trace in the collapsed stack format.
+     *
+     * @return the collapsed stacks of this trace
+     * @see ConstructionTrace#writeCollapsedStacks(Appendable)
+     */
+    public @NotNull String toCollapsedStacks() {
+        final StringBuilder builder = new StringBuilder();
+        try {
+            writeCollapsedStacks(builder);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return builder.toString();
+    }
+}
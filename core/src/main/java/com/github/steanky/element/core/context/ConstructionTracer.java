@@ -0,0 +1,134 @@
+package com.github.steanky.element.core.context;
+
+import com.github.steanky.element.core.dependency.DependencyProvider;
+import com.github.steanky.element.core.metrics.ElementMetrics;
+import com.github.steanky.ethylene.core.path.ConfigPath;
+import net.kyori.adventure.key.Key;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static com.github.steanky.element.core.util.Validate.elementException;
+
+/**
+ * {@link ElementMetrics} implementation which records the construction tree of a single provide call, in order to
+ * produce a {@link ConstructionTrace}. Instances are confined to the thread performing the call, and events received
+ * after the traced element has been provided (such as the resolution of lazy dependencies) are ignored.
+ */
+final class ConstructionTracer implements ElementMetrics {
+    private final Deque<PendingNode> stack;
+
+    private ConstructionTrace.CacheStatus pendingCache;
+    private long pendingDataNanos;
+    private ConstructionTrace.Node root;
+
+    ConstructionTracer() {
+        this.stack = new ArrayDeque<>();
+        this.pendingCache = ConstructionTrace.CacheStatus.UNCACHED;
+    }
+
+    @Override
+    public void constructionStarted(final @NotNull Key type, final @NotNull ConfigPath path) {
+        if (root != null) {
+            return;
+        }
+
+        stack.push(new PendingNode(path, type, pendingCache, pendingDataNanos));
+        pendingCache = ConstructionTrace.CacheStatus.UNCACHED;
+        pendingDataNanos = 0;
+    }
+
+    @Override
+    public void constructionFinished(final @NotNull Key type, final @NotNull ConfigPath path, final long nanos) {
+        finish(nanos, false);
+    }
+
+    @Override
+    public void constructionFailed(final @NotNull Key type, final @NotNull ConfigPath path, final long nanos) {
+        finish(nanos, true);
+    }
+
+    private void finish(final long nanos, final boolean failed) {
+        final PendingNode pending = stack.poll();
+        if (pending == null) {
+            return;
+        }
+
+        add(new ConstructionTrace.Node(pending.path, pending.type, pending.cache, nanos, pending.dataNanos, failed,
+                pending.dependencies, pending.children));
+    }
+
+    private void add(final ConstructionTrace.Node node) {
+        final PendingNode parent = stack.peek();
+        if (parent == null) {
+            root = node;
+        }
+        else {
+            parent.children.add(node);
+        }
+    }
+
+    @Override
+    public void cacheHit(final @NotNull Key type, final @NotNull ConfigPath path) {
+        if (root != null) {
+            return;
+        }
+
+        add(new ConstructionTrace.Node(path, type, ConstructionTrace.CacheStatus.HIT, 0, 0, false, List.of(),
+                List.of()));
+    }
+
+    @Override
+    public void cacheMiss(final @NotNull Key type, final @NotNull ConfigPath path) {
+        pendingCache = ConstructionTrace.CacheStatus.MISS;
+    }
+
+    @Override
+    public void dataProcessed(final @NotNull Key type, final @NotNull ConfigPath path, final long nanos) {
+        pendingDataNanos = nanos;
+    }
+
+    @Override
+    public void dependencyResolved(final @NotNull DependencyProvider.TypeKey<?> key, final long nanos) {
+        final PendingNode current = stack.peek();
+        if (current != null) {
+            current.dependencies.add(new ConstructionTrace.Dependency(key, nanos));
+        }
+    }
+
+    /**
+     * Returns the completed trace.
+     *
+     * @return the trace
+     * @throws com.github.steanky.element.core.ElementException if no element was provided
+     */
+    @NotNull ConstructionTrace trace() {
+        if (root == null) {
+            throw elementException("No element was traced");
+        }
+
+        return new ConstructionTrace(root);
+    }
+
+    private static final class PendingNode {
+        private final ConfigPath path;
+        private final Key type;
+        private final ConstructionTrace.CacheStatus cache;
+        private final long dataNanos;
+        private final List<ConstructionTrace.Dependency> dependencies;
+        private final List<ConstructionTrace.Node> children;
+
+        private PendingNode(final ConfigPath path, final Key type, final ConstructionTrace.CacheStatus cache,
+                final long dataNanos) {
+            this.path = path;
+            this.type = type;
+            this.cache = cache;
+            this.dataNanos = dataNanos;
+            this.dependencies = new ArrayList<>(2);
+            this.children = new ArrayList<>(2);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.github.steanky.element.core.context;
 
 import com.github.steanky.element.core.*;
+import com.github.steanky.element.core.dependency.DependencyProvider;
+import com.github.steanky.element.core.dependency.VerifiedDependencyProvider;
 import com.github.steanky.element.core.factory.BasicContainerCreator;
 import com.github.steanky.element.core.factory.BasicFactoryResolver;
 import com.github.steanky.element.core.factory.ContainerCreator;
@@ -9,6 +11,7 @@ import com.github.steanky.element.core.key.BasicKeyExtractor;
 import com.github.steanky.element.core.key.BasicKeyParser;
 import com.github.steanky.element.core.key.KeyExtractor;
 import com.github.steanky.element.core.key.KeyParser;
+import com.github.steanky.element.core.metrics.ElementMetrics;
 import com.github.steanky.element.core.processor.BasicProcessorResolver;
 import com.github.steanky.element.core.processor.ProcessorResolver;
 import com.github.steanky.ethylene.core.collection.ConfigContainer;
@@ -18,7 +21,9 @@ import com.github.steanky.ethylene.mapper.QuadFunction;
 import org.apache.commons.lang3.function.TriFunction;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -60,6 +65,41 @@ public interface ContextManager {
      */
     void registerElementClasses(final @NotNull Collection<? extends Class<?>> elementClasses);
 
+    /**
+     * Registers element classes using precomputed {@link ElementBinding}s, such as those loaded from a binding index
+     * using {@link ElementBinding#loadIndex(ClassLoader)}. Implementations may use the bindings to skip annotation
+     * discovery and validation, which can significantly reduce the time needed to register many classes. The default
+     * implementation loads each class and registers it using {@link ContextManager#registerElementClasses(Collection)}.
+     *
+     * @param bindings    the bindings to register
+     * @param classLoader the ClassLoader used to load element classes
+     * @throws ElementException if an exception occurs, including if a bound class cannot be found
+     */
+    default void registerBindings(final @NotNull Collection<? extends ElementBinding> bindings,
+            final @NotNull ClassLoader classLoader) {
+        final List<Class<?>> classes = new ArrayList<>(bindings.size());
+        for (ElementBinding binding : bindings) {
+            classes.add(ElementBinding.loadClass(binding.className(), classLoader));
+        }
+
+        registerElementClasses(classes);
+    }
+
+    /**
+     * Checks that the given {@link DependencyProvider} can satisfy every dependency required by the element classes
+     * registered so far, as reported by {@link ElementFactory#dependencies()}. All missing or ambiguous dependencies
+     * are reported at once, in a single {@link ElementException}.
+     * <p>
+     * If verification succeeds, returns a {@link VerifiedDependencyProvider} which has already resolved each of these
+     * dependencies, and can provide them synchronously or asynchronously without repeating any lookups or checks. It
+     * should be used in place of the original provider when constructing elements.
+     *
+     * @param dependencyProvider the provider to verify
+     * @return a verified provider that delegates to the given provider
+     * @throws ElementException if any dependencies are missing or ambiguous
+     */
+    @NotNull VerifiedDependencyProvider verifyDependencies(final @NotNull DependencyProvider dependencyProvider);
+
     /**
      * Makes a {@link ElementContext} object from the given {@link ConfigContainer}.
      *
@@ -91,9 +131,13 @@ public interface ContextManager {
         private Supplier<? extends Registry<ElementFactory<?, ?>>> elementFactoryRegistrySupplier = HashRegistry::new;
         private Supplier<? extends Registry<Boolean>> cacheRegistrySupplier = HashRegistry::new;
 
-        private QuadFunction<? super Registry<ConfigProcessor<?>>, ? super Registry<ElementFactory<?, ?>>, ? super Registry<Boolean>, ? super KeyExtractor, ? extends ElementContext.Source> elementContextSourceFunction = BasicElementContext.Source::new;
+        private QuadFunction<? super Registry<ConfigProcessor<?>>, ? super Registry<ElementFactory<?, ?>>, ? super Registry<Boolean>, ? super KeyExtractor, ? extends ElementContext.Source> elementContextSourceFunction = this::makeElementContextSource;
         private TriFunction<? super ElementInspector, ? super ElementTypeIdentifier, ? super ElementContext.Source, ? extends ContextManager> contextManagerFunction = BasicContextManager::new;
 
+        private ClassLoader bindingIndexClassLoader;
+        private ElementMetrics elementMetrics = ElementMetrics.NONE;
+        private SlowConstructionWatchdog slowConstructionWatchdog;
+
         private Builder(final @NotNull String namespace) {
             this.namespace = Objects.requireNonNull(namespace);
         }
@@ -286,6 +330,58 @@ public interface ContextManager {
             return this;
         }
 
+        /**
+         * Specify a {@link ClassLoader} whose binding indices (see {@link ElementBinding#INDEX_LOCATION}) will be used
+         * to register element classes. When set, every {@link ContextManager} created by this builder will have all
+         * indexed classes registered using {@link ContextManager#registerBindings(Collection, ClassLoader)}.
+         *
+         * @param classLoader the ClassLoader used to locate binding indices and load element classes
+         * @return this builder, for chaining
+         */
+        public @NotNull Builder withBindingIndex(final @NotNull ClassLoader classLoader) {
+            this.bindingIndexClassLoader = Objects.requireNonNull(classLoader);
+            return this;
+        }
+
+        /**
+         * Specify the {@link ElementMetrics} notified of events that occur while constructing elements. The same
+         * instance is used by every {@link ContextManager} created by this builder. By default,
+         * {@link ElementMetrics#NONE} is used, and nothing is measured.
+         * <p>
+         * This has no effect if a custom function was given to
+         * {@link Builder#withElementContextSourceFunction(QuadFunction)}.
+         *
+         * @param metrics the ElementMetrics to use
+         * @return this builder, for chaining
+         */
+        public @NotNull Builder withElementMetrics(final @NotNull ElementMetrics metrics) {
+            this.elementMetrics = Objects.requireNonNull(metrics);
+            return this;
+        }
+
+        /**
+         * Specify the {@link SlowConstructionWatchdog} used to report elements which are slow to construct. The same
+         * instance is used by every {@link ContextManager} created by this builder. By default, no watchdog is used.
+         * <p>
+         * This has no effect if a custom function was given to
+         * {@link Builder#withElementContextSourceFunction(QuadFunction)}.
+         *
+         * @param watchdog the SlowConstructionWatchdog to use
+         * @return this builder, for chaining
+         */
+        public @NotNull Builder withSlowConstructionWatchdog(final @NotNull SlowConstructionWatchdog watchdog) {
+            this.slowConstructionWatchdog = Objects.requireNonNull(watchdog);
+            return this;
+        }
+
+        private ElementContext.Source makeElementContextSource(
+                final Registry<ConfigProcessor<?>> configProcessorRegistry,
+                final Registry<ElementFactory<?, ?>> elementFactoryRegistry, final Registry<Boolean> cacheRegistry,
+                final KeyExtractor typeKeyExtractor) {
+            return new BasicElementContext.Source(configProcessorRegistry, elementFactoryRegistry, cacheRegistry,
+                    typeKeyExtractor, elementMetrics, slowConstructionWatchdog);
+        }
+
         private String getTypeKeyName() {
             return typeKeyNameSupplier.get();
         }
@@ -376,7 +472,15 @@ public interface ContextManager {
             final ElementContext.Source elementContextSource = getElementContextSource(configProcessorRegistry,
                     elementFactoryRegistry, cacheRegistry, keyExtractor);
 
-            return getContextManager(elementInspector, elementTypeIdentifier, elementContextSource);
+            final ContextManager contextManager = getContextManager(elementInspector, elementTypeIdentifier,
+                    elementContextSource);
+
+            if (bindingIndexClassLoader != null) {
+                contextManager.registerBindings(ElementBinding.loadIndex(bindingIndexClassLoader),
+                        bindingIndexClassLoader);
+            }
+
+            return contextManager;
         }
     }
 }
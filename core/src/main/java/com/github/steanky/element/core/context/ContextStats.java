@@ -0,0 +1,118 @@
+package com.github.steanky.element.core.context;
+
+import com.github.steanky.element.core.dependency.DependencyProvider;
+import net.kyori.adventure.key.Key;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A snapshot of the memory retained by an {@link ElementContext}, as returned by
+ * {@link ElementContext#stats(DependencyProvider)}. Usage is reported for each of the context's internal stores: the
+ * type keys of visited paths, processed element data, cached elements, and registered default values. Totals are given
+ * for each store, along with a breakdown by element type key.
+ * <p>
+ * Sizes are estimates. Objects referenced by more than one entry are counted only once, towards whichever entry is
+ * measured first; stores are measured in the order listed above. Objects reachable from the dependency provider given
+ * to {@code stats}, and the context itself, are never counted.
+ *
+ * @param types    usage of the type key store, which holds one entry for every path an element was provided from
+ * @param data     usage of the element data store
+ * @param elements usage of the element cache
+ * @param defaults usage of the default value store
+ * @param byType   usage broken down by element type key; default values registered for paths without a known type are
+ *                 only included in the totals
+ */
+public record ContextStats(@NotNull Usage types, @NotNull Usage data, @NotNull Usage elements,
+        @NotNull Usage defaults, @NotNull @Unmodifiable Map<Key, TypeUsage> byType) {
+    /**
+     * Creates a new instance of this record.
+     *
+     * @param types    usage of the type key store
+     * @param data     usage of the element data store
+     * @param elements usage of the element cache
+     * @param defaults usage of the default value store
+     * @param byType   usage broken down by element type key
+     */
+    public ContextStats {
+        Objects.requireNonNull(types);
+        Objects.requireNonNull(data);
+        Objects.requireNonNull(elements);
+        Objects.requireNonNull(defaults);
+        byType = Map.copyOf(byType);
+    }
+
+    /**
+     * Computes the total estimated size of all stores.
+     *
+     * @return the total size in bytes
+     */
+    public long totalBytes() {
+        return types.bytes + data.bytes + elements.bytes + defaults.bytes;
+    }
+
+    /**
+     * The usage of a single store.
+     *
+     * @param entries the number of entries
+     * @param bytes   the estimated size of the entries, in bytes
+     */
+    public record Usage(int entries, long bytes) {
+        /**
+         * A usage with no entries.
+         */
+        public static final Usage EMPTY = new Usage(0, 0);
+
+        /**
+         * Adds a single entry to this usage.
+         *
+         * @param bytes the estimated size of the entry
+         * @return a new usage including the entry
+         */
+        public @NotNull Usage plus(final long bytes) {
+            return new Usage(entries + 1, this.bytes + bytes);
+        }
+    }
+
+    /**
+     * The usage of each store by elements of a single type.
+     *
+     * @param types    usage of the type key store
+     * @param data     usage of the element data store
+     * @param elements usage of the element cache
+     * @param defaults usage of the default value store
+     */
+    public record TypeUsage(@NotNull Usage types, @NotNull Usage data, @NotNull Usage elements,
+            @NotNull Usage defaults) {
+        /**
+         * Usage by a type with no entries in any store.
+         */
+        public static final TypeUsage EMPTY = new TypeUsage(Usage.EMPTY, Usage.EMPTY, Usage.EMPTY, Usage.EMPTY);
+
+        /**
+         * Creates a new instance of this record.
+         *
+         * @param types    usage of the type key store
+         * @param data     usage of the element data store
+         * @param elements usage of the element cache
+         * @param defaults usage of the default value store
+         */
+        public TypeUsage {
+            Objects.requireNonNull(types);
+            Objects.requireNonNull(data);
+            Objects.requireNonNull(elements);
+            Objects.requireNonNull(defaults);
+        }
+
+        /**
+         * Computes the total estimated size of this type's entries.
+         *
+         * @return the total size in bytes
+         */
+        public long totalBytes() {
+            return types.bytes + data.bytes + elements.bytes + defaults.bytes;
+        }
+    }
+}
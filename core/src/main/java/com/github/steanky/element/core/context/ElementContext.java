@@ -5,6 +5,9 @@ import com.github.steanky.element.core.ElementFactory;
 import com.github.steanky.element.core.Registry;
 import com.github.steanky.element.core.annotation.Cache;
 import com.github.steanky.element.core.dependency.DependencyProvider;
+import com.github.steanky.element.core.util.PathUtils;
+import com.github.steanky.element.core.util.SizeEstimator;
+import com.github.steanky.ethylene.core.ConfigElement;
 import com.github.steanky.ethylene.core.collection.ConfigContainer;
 import com.github.steanky.ethylene.core.collection.ConfigEntry;
 import com.github.steanky.ethylene.core.collection.ConfigList;
@@ -17,6 +20,7 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.IntFunction;
 import java.util.function.Supplier;
@@ -200,6 +204,185 @@ public interface ElementContext {
         return provide(ConfigPath.EMPTY, DependencyProvider.EMPTY, false);
     }
 
+    /**
+     * Asynchronous version of {@link ElementContext#provide(ConfigPath, ConfigNode, DependencyProvider, boolean)}.
+     * Implementations may use {@link ElementFactory#stageAsync(Object, ConfigPath, ElementContext, DependencyProvider)}
+     * so that elements whose dependencies are not yet available do not block the calling thread. If construction
+     * fails, the returned future completes exceptionally with an {@link ElementException}.
+     * <p>
+     * The default implementation simply calls {@code provide} on the current thread, and returns a completed (or
+     * failed) future.
+     *
+     * @param path               the {@link ConfigPath} used to locate the target data
+     * @param substitute         if non-null, effectively "replaces" the element at {@code path} regardless of what is
+     *                           actually in the data
+     * @param dependencyProvider the {@link DependencyProvider} used to provide dependencies
+     * @param cache              true if this element should be cached, false otherwise
+     * @param <TElement>         the type of the element object
+     * @return a {@link CompletableFuture} which will complete with the element object
+     */
+    default <TElement> @NotNull CompletableFuture<TElement> provideAsync(final @NotNull ConfigPath path,
+            final @Nullable ConfigNode substitute, final @NotNull DependencyProvider dependencyProvider,
+            final boolean cache) {
+        try {
+            return CompletableFuture.completedFuture(provide(path, substitute, dependencyProvider, cache));
+        }
+        catch (ElementException exception) {
+            return CompletableFuture.failedFuture(exception);
+        }
+    }
+
+    /**
+     * Convenience overload for
+     * {@link ElementContext#provideAsync(ConfigPath, ConfigNode, DependencyProvider, boolean)}. This will provide the
+     * element at the given path, using a {@code null} substitute.
+     *
+     * @param path               the {@link ConfigPath} used to locate the target data
+     * @param dependencyProvider the {@link DependencyProvider} used to provide dependencies
+     * @param cache              true if this element should be cached, false otherwise
+     * @param <TElement>         the type of the element object
+     * @return a {@link CompletableFuture} which will complete with the element object
+     */
+    default <TElement> @NotNull CompletableFuture<TElement> provideAsync(final @NotNull ConfigPath path,
+            final @NotNull DependencyProvider dependencyProvider, final boolean cache) {
+        return provideAsync(path, null, dependencyProvider, cache);
+    }
+
+    /**
+     * Convenience overload for
+     * {@link ElementContext#provideAsync(ConfigPath, ConfigNode, DependencyProvider, boolean)}. This will provide the
+     * root element, without caching.
+     *
+     * @param dependencyProvider the {@link DependencyProvider} used to provide dependencies
+     * @param <TElement>         the type of the element object
+     * @return a {@link CompletableFuture} which will complete with the element object
+     */
+    default <TElement> @NotNull CompletableFuture<TElement> provideAsync(
+            final @NotNull DependencyProvider dependencyProvider) {
+        return provideAsync(ConfigPath.EMPTY, null, dependencyProvider, false);
+    }
+
+    /**
+     * Works like {@link ElementContext#provide(ConfigPath, DependencyProvider, boolean)}, but also records the full
+     * construction tree of the element: each element provided while constructing it, how long each one took, whether
+     * it was taken from the cache, and which dependencies it resolved. Tracing has additional overhead, so this should
+     * only be used to diagnose slow construction.
+     * <p>
+     * The default implementation cannot see inside {@link ElementContext#provide(ConfigPath, DependencyProvider,
+     * boolean)}, so its trace consists of a single node, whose type is {@link ConstructionTrace#UNKNOWN_TYPE}, holding
+     * the total time taken and every dependency resolved while providing the element.
+     *
+     * @param path               the {@link ConfigPath} used to locate the target data
+     * @param dependencyProvider the {@link DependencyProvider} used to provide dependencies
+     * @param cache              true if this element should be cached, false otherwise
+     * @param <TElement>         the type of the element object
+     * @return the element object, and its {@link ConstructionTrace}
+     */
+    default <TElement> @NotNull Traced<TElement> provideTraced(final @NotNull ConfigPath path,
+            final @NotNull DependencyProvider dependencyProvider, final boolean cache) {
+        final ConfigPath absolutePath = path.toAbsolute();
+        final ConstructionTracer tracer = new ConstructionTracer();
+
+        tracer.constructionStarted(ConstructionTrace.UNKNOWN_TYPE, absolutePath);
+        final long start = System.nanoTime();
+        final TElement element = provide(path, new MeasuredDependencyProvider(dependencyProvider, tracer), cache);
+        tracer.constructionFinished(ConstructionTrace.UNKNOWN_TYPE, absolutePath, System.nanoTime() - start);
+        return new Traced<>(element, tracer.trace());
+    }
+
+    /**
+     * Convenience overload for {@link ElementContext#provideTraced(ConfigPath, DependencyProvider, boolean)}. This will
+     * provide and trace the root element, without caching.
+     *
+     * @param dependencyProvider the {@link DependencyProvider} used to provide dependencies
+     * @param <TElement>         the type of the element object
+     * @return the element object, and its {@link ConstructionTrace}
+     */
+    default <TElement> @NotNull Traced<TElement> provideTraced(final @NotNull DependencyProvider dependencyProvider) {
+        return provideTraced(ConfigPath.EMPTY, dependencyProvider, false);
+    }
+
+    /**
+     * Begins providing an element incrementally. Construction does not start until
+     * {@link IncrementalConstruction#step(long)} is called; each call to {@code step} constructs part of the element
+     * graph, and returns once construction has finished or its time budget has been used up. This allows a large
+     * element to be constructed on a thread that cannot be blocked for long, such as a game server's main thread,
+     * across several ticks. Elements are constructed in the same order, and with the same results, as they would be by
+     * {@link ElementContext#provide(ConfigPath, ConfigNode, DependencyProvider, boolean)}.
+     * <p>
+     * The default implementation constructs the entire element during the first call to {@code step}.
+     *
+     * @param path               the {@link ConfigPath} used to locate the target data
+     * @param substitute         if non-null, effectively "replaces" the element at {@code path} regardless of what is
+     *                           actually in the data
+     * @param dependencyProvider the {@link DependencyProvider} used to provide dependencies
+     * @param cache              true if this element should be cached, false otherwise
+     * @param <TElement>         the type of the element object
+     * @return an {@link IncrementalConstruction} used to construct the element
+     */
+    default <TElement> @NotNull IncrementalConstruction<TElement> beginProvide(final @NotNull ConfigPath path,
+            final @Nullable ConfigNode substitute, final @NotNull DependencyProvider dependencyProvider,
+            final boolean cache) {
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(dependencyProvider);
+        return new IncrementalConstruction<>() {
+            private TElement element;
+            private ElementException exception;
+            private boolean done;
+
+            @Override
+            public boolean step(final long nanosBudget) {
+                if (!done) {
+                    done = true;
+                    try {
+                        element = provide(path, substitute, dependencyProvider, cache);
+                    }
+                    catch (ElementException e) {
+                        exception = e;
+                    }
+                }
+
+                if (exception != null) {
+                    throw exception;
+                }
+
+                return true;
+            }
+
+            @Override
+            public boolean isDone() {
+                return done;
+            }
+
+            @Override
+            public @NotNull TElement element() {
+                if (!done) {
+                    throw new IllegalStateException("Construction has not finished");
+                }
+
+                if (exception != null) {
+                    throw exception;
+                }
+
+                return element;
+            }
+        };
+    }
+
+    /**
+     * Convenience overload for
+     * {@link ElementContext#beginProvide(ConfigPath, ConfigNode, DependencyProvider, boolean)}. This will provide the
+     * root element, using a {@code null} substitute and without caching.
+     *
+     * @param dependencyProvider the {@link DependencyProvider} used to provide dependencies
+     * @param <TElement>         the type of the element object
+     * @return an {@link IncrementalConstruction} used to construct the element
+     */
+    default <TElement> @NotNull IncrementalConstruction<TElement> beginProvide(
+            final @NotNull DependencyProvider dependencyProvider) {
+        return beginProvide(ConfigPath.EMPTY, null, dependencyProvider, false);
+    }
+
     /**
      * Provides a collection of elements, given a valid {@link ConfigPath} pointing at a {@link ConfigList}, relative
      * to this context's <i>root node</i>. This method catches {@link ElementException}s that are thrown when elements
@@ -240,7 +423,10 @@ public interface ElementContext {
         ElementException exception = null;
         for (int i = 0; i < listElement.size(); i++) {
             try {
-                elementCollection.add(provide(listPath.append(Integer.toString(i)), dependencyProvider, cache));
+                //pass the element we already have as a substitute, so it isn't looked up again from the root
+                final ConfigElement element = listElement.get(i);
+                elementCollection.add(provide(PathUtils.appendIndex(listPath, i), element.isNode() ? element.asNode() :
+                        null, dependencyProvider, cache));
             } catch (ElementException e) {
                 if (exception == null) {
                     exception = e;
@@ -466,7 +652,9 @@ public interface ElementContext {
         ElementException exception = null;
         for (ConfigEntry entry : nodeElement.entryCollection()) {
             try {
-                elementMap.put(entry.getKey(), provide(nodePath.append(entry.getKey()), dependencyProvider, cache));
+                final ConfigElement element = entry.getValue();
+                elementMap.put(entry.getKey(), provide(nodePath.append(entry.getKey()), element.isNode() ?
+                        element.asNode() : null, dependencyProvider, cache));
             } catch (ElementException e) {
                 if (exception == null) {
                     exception = e;
@@ -657,6 +845,38 @@ public interface ElementContext {
      */
     @NotNull @Unmodifiable ConfigContainer root();
 
+    /**
+     * Computes how much memory this context is retaining, in order to diagnose contexts whose configuration or cached
+     * elements are unexpectedly large. This walks every object held by the context, so it should not be called
+     * frequently.
+     * <p>
+     * Cached elements usually reference their dependencies, which are shared with the rest of the application rather
+     * than retained by this context. Objects reachable from the given {@link DependencyProvider} are therefore not
+     * counted; it should be the provider that elements of this context are normally provided with.
+     * <p>
+     * The default implementation only knows of {@link ElementContext#root()}, and reports its estimated size as a
+     * single data entry, without a breakdown by type.
+     *
+     * @param dependencyProvider the {@link DependencyProvider} whose dependencies should not be counted
+     * @return a snapshot of the memory retained by this context
+     */
+    default @NotNull ContextStats stats(final @NotNull DependencyProvider dependencyProvider) {
+        final SizeEstimator estimator = new SizeEstimator();
+        estimator.exclude(dependencyProvider);
+        return new ContextStats(ContextStats.Usage.EMPTY, ContextStats.Usage.EMPTY.plus(estimator.deepSize(root())),
+                ContextStats.Usage.EMPTY, ContextStats.Usage.EMPTY, Map.of());
+    }
+
+    /**
+     * Convenience overload for {@link ElementContext#stats(DependencyProvider)}. Every object retained by this context
+     * is counted, including the dependencies of cached elements.
+     *
+     * @return a snapshot of the memory retained by this context
+     */
+    default @NotNull ContextStats stats() {
+        return stats(DependencyProvider.EMPTY);
+    }
+
     /**
      * Registers default values at a specific path. These values will be used by child element(s) if necessary.
      * <p>
@@ -677,6 +897,67 @@ public interface ElementContext {
      */
     ConfigNode follow(final @NotNull ConfigPath path);
 
+    /**
+     * The result of {@link ElementContext#provideTraced(ConfigPath, DependencyProvider, boolean)}.
+     *
+     * @param element    the element object
+     * @param trace      the construction trace of the element
+     * @param <TElement> the type of the element object
+     */
+    record Traced<TElement>(TElement element, @NotNull ConstructionTrace trace) {
+        /**
+         * Creates a new instance of this record.
+         *
+         * @param element the element object
+         * @param trace   the construction trace of the element
+         */
+        public Traced {
+            Objects.requireNonNull(trace);
+        }
+    }
+
+    /**
+     * An element being constructed incrementally, as returned by
+     * {@link ElementContext#beginProvide(ConfigPath, ConfigNode, DependencyProvider, boolean)}. Instances are not
+     * thread-safe: {@link IncrementalConstruction#step(long)} may be called from different threads over time, but not
+     * concurrently.
+     *
+     * @param <TElement> the type of the element object
+     */
+    interface IncrementalConstruction<TElement> {
+        /**
+         * Continues construction until it finishes, or until roughly the given amount of time has passed. The budget is
+         * checked between elements, so a single element whose own construction is slow (including any children its
+         * factory provides itself) can exceed it. At least one element is constructed per call, regardless of the
+         * budget, so repeated calls always make progress.
+         * <p>
+         * If a step throws any exception, construction is finished: every element still under construction is
+         * abandoned, and the same exception is thrown by all later calls to this method and to
+         * {@link IncrementalConstruction#element()}.
+         *
+         * @param nanosBudget the time budget for this step, in nanoseconds
+         * @return true if construction has finished, false if further steps are needed
+         * @throws ElementException if construction failed, during this or a previous step
+         */
+        boolean step(final long nanosBudget);
+
+        /**
+         * Determines if construction has finished, either successfully or not.
+         *
+         * @return true if construction has finished, false otherwise
+         */
+        boolean isDone();
+
+        /**
+         * Gets the constructed element.
+         *
+         * @return the element object
+         * @throws IllegalStateException if construction has not finished
+         * @throws ElementException      if construction failed
+         */
+        @NotNull TElement element();
+    }
+
     /**
      * A source of {@link ElementContext} objects.
      */
@@ -0,0 +1,111 @@
+package com.github.steanky.element.core.context;
+
+import com.github.steanky.element.core.dependency.DependencyProvider;
+import com.github.steanky.element.core.dependency.Provider;
+import com.github.steanky.element.core.metrics.ElementMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * {@link DependencyProvider} which delegates to another provider, reporting how long each dependency takes to resolve
+ * to an {@link ElementMetrics} instance. Asynchronous dependencies are measured until their future completes.
+ */
+final class MeasuredDependencyProvider implements DependencyProvider {
+    private final DependencyProvider delegate;
+    private final ElementMetrics metrics;
+
+    MeasuredDependencyProvider(final @NotNull DependencyProvider delegate, final @NotNull ElementMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the provider this one delegates to.
+     *
+     * @return the delegate provider
+     */
+    @NotNull DependencyProvider delegate() {
+        return delegate;
+    }
+
+    /**
+     * Returns the metrics this provider reports to.
+     *
+     * @return the metrics
+     */
+    @NotNull ElementMetrics metrics() {
+        return metrics;
+    }
+
+    @Override
+    public <TDependency> TDependency provide(final @NotNull TypeKey<TDependency> key) {
+        final long start = System.nanoTime();
+        final TDependency dependency = delegate.provide(key);
+        metrics.dependencyResolved(key, System.nanoTime() - start);
+        return dependency;
+    }
+
+    @Override
+    public <TDependency> @NotNull CompletableFuture<TDependency> provideAsync(
+            final @NotNull TypeKey<TDependency> key) {
+        final long start = System.nanoTime();
+        return measure(key, delegate.provideAsync(key), start);
+    }
+
+    @Override
+    public <TDependency> @NotNull Supplier<CompletableFuture<TDependency>> asyncSupplier(
+            final @NotNull TypeKey<TDependency> key) {
+        final Supplier<CompletableFuture<TDependency>> asyncSupplier = delegate.asyncSupplier(key);
+        return () -> {
+            final long start = System.nanoTime();
+            return measure(key, asyncSupplier.get(), start);
+        };
+    }
+
+    private <TDependency> CompletableFuture<TDependency> measure(final TypeKey<TDependency> key,
+            final CompletableFuture<TDependency> future, final long start) {
+        if (future.isDone()) {
+            if (!future.isCompletedExceptionally()) {
+                metrics.dependencyResolved(key, System.nanoTime() - start);
+            }
+
+            return future;
+        }
+
+        return future.whenComplete((dependency, error) -> {
+            if (error == null) {
+                metrics.dependencyResolved(key, System.nanoTime() - start);
+            }
+        });
+    }
+
+    @Override
+    public <TDependency> @NotNull Supplier<TDependency> supplier(final @NotNull TypeKey<TDependency> key) {
+        final Supplier<TDependency> supplier = delegate.supplier(key);
+        return () -> {
+            final long start = System.nanoTime();
+            final TDependency dependency = supplier.get();
+            metrics.dependencyResolved(key, System.nanoTime() - start);
+            return dependency;
+        };
+    }
+
+    @Override
+    public <TDependency> @NotNull Provider<TDependency> provider(final @NotNull TypeKey<TDependency> key) {
+        //keep whatever handle the delegate returns, so measuring doesn't change how the dependency is resolved
+        final Provider<TDependency> provider = delegate.provider(key);
+        return () -> {
+            final long start = System.nanoTime();
+            final TDependency dependency = provider.get();
+            metrics.dependencyResolved(key, System.nanoTime() - start);
+            return dependency;
+        };
+    }
+
+    @Override
+    public boolean hasDependency(final @NotNull TypeKey<?> key) {
+        return delegate.hasDependency(key);
+    }
+}
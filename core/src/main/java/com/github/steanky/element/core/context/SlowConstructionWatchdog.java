@@ -0,0 +1,154 @@
+package com.github.steanky.element.core.context;
+
+import com.github.steanky.element.core.dependency.DependencyProvider;
+import com.github.steanky.ethylene.core.collection.ConfigNode;
+import com.github.steanky.ethylene.core.path.ConfigPath;
+import net.kyori.adventure.key.Key;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Detects elements that take longer than a given threshold to construct. When used by a {@link BasicElementContext},
+ * every slow element is reported, along with the stack of elements that were being constructed at the time. Reports
+ * are logged as warnings, using the {@link System.Logger} named {@link SlowConstructionWatchdog#LOGGER_NAME}, and
+ * passed to an optional callback.
+ * <p>
+ * Construction times include the time needed to construct child elements, so a single slow element would normally make
+ * all of its ancestors slow as well. To avoid reporting these, an element is not reported if one of its descendants was
+ * reported, unless the element itself (excluding its children) exceeded the threshold.
+ * <p>
+ * Despite its name, this is not a live watchdog: elements are only checked after they have been built, on the thread
+ * that built them, so an element whose construction never finishes is never reported. Reports are made before the
+ * element is returned or cached, so the callback should be fast. If it throws, the exception is logged and otherwise
+ * ignored; it never causes construction to fail.
+ */
+public final class SlowConstructionWatchdog {
+    /**
+     * The name of the logger used to report slow elements.
+     */
+    public static final String LOGGER_NAME = "com.github.steanky.element.SlowConstruction";
+
+    private static final System.Logger LOGGER = System.getLogger(LOGGER_NAME);
+
+    private final long thresholdNanos;
+    private final Consumer<? super SlowConstruction> callback;
+
+    /**
+     * Creates a new instance of this class.
+     *
+     * @param threshold the construction time above which elements are reported
+     * @param callback  the callback invoked for each slow element, after it is logged; may be null. Exceptions thrown
+     *                  by the callback are logged and ignored
+     */
+    public SlowConstructionWatchdog(final @NotNull Duration threshold,
+            final @Nullable Consumer<? super SlowConstruction> callback) {
+        this.thresholdNanos = threshold.toNanos();
+        this.callback = callback;
+    }
+
+    /**
+     * Creates a new instance of this class which only logs slow elements.
+     *
+     * @param threshold the construction time above which elements are reported
+     */
+    public SlowConstructionWatchdog(final @NotNull Duration threshold) {
+        this(threshold, null);
+    }
+
+    /**
+     * A single element whose construction exceeded the threshold.
+     *
+     * @param type      the element's type key
+     * @param path      the absolute path of the element's configuration
+     * @param nanos     the time taken to construct the element, including its children, in nanoseconds
+     * @param selfNanos the time taken to construct the element, excluding its children, in nanoseconds
+     * @param stack     the elements being constructed at the time, starting with the outermost, and ending with this
+     *                  element. Elements constructed by a separate call to
+     *                  {@link ElementContext#provide(ConfigPath, ConfigNode, DependencyProvider, boolean)} (for
+     *                  example, by a custom factory) start a new stack
+     */
+    public record SlowConstruction(@NotNull Key type, @NotNull ConfigPath path, long nanos, long selfNanos,
+            @NotNull @Unmodifiable List<StackEntry> stack) {
+        /**
+         * Creates a new instance of this record.
+         *
+         * @param type      the element's type key
+         * @param path      the absolute path of the element's configuration
+         * @param nanos     the time taken to construct the element, including its children, in nanoseconds
+         * @param selfNanos the time taken to construct the element, excluding its children, in nanoseconds
+         * @param stack     the elements being constructed at the time
+         */
+        public SlowConstruction {
+            Objects.requireNonNull(type);
+            Objects.requireNonNull(path);
+            stack = List.copyOf(stack);
+        }
+    }
+
+    /**
+     * An element in the construction stack of a {@link SlowConstruction}.
+     *
+     * @param type the element's type key
+     * @param path the absolute path of the element's configuration
+     */
+    public record StackEntry(@NotNull Key type, @NotNull ConfigPath path) {
+        /**
+         * Creates a new instance of this record.
+         *
+         * @param type the element's type key
+         * @param path the absolute path of the element's configuration
+         */
+        public StackEntry {
+            Objects.requireNonNull(type);
+            Objects.requireNonNull(path);
+        }
+
+        @Override
+        public String toString() {
+            return type.asString() + " " + path;
+        }
+    }
+
+    /**
+     * Returns the construction time above which elements are reported.
+     *
+     * @return the threshold, in nanoseconds
+     */
+    public long thresholdNanos() {
+        return thresholdNanos;
+    }
+
+    /**
+     * Reports a slow element, by logging it and invoking the callback (if any). Any {@link RuntimeException} thrown by
+     * the callback is logged, rather than propagated.
+     *
+     * @param construction the slow element
+     */
+    public void report(final @NotNull SlowConstruction construction) {
+        if (LOGGER.isLoggable(System.Logger.Level.WARNING)) {
+            LOGGER.log(System.Logger.Level.WARNING, "Slow construction of element {0} at {1}: {2} ms ({3} ms " +
+                    "excluding children); construction stack: {4}", construction.type.asString(), construction.path,
+                    millis(construction.nanos), millis(construction.selfNanos), construction.stack);
+        }
+
+        if (callback != null) {
+            try {
+                callback.accept(construction);
+            }
+            catch (RuntimeException exception) {
+                LOGGER.log(System.Logger.Level.WARNING, "Slow construction callback failed for element " +
+                        construction.type.asString() + " at " + construction.path, exception);
+            }
+        }
+    }
+
+    private static String millis(final long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+}
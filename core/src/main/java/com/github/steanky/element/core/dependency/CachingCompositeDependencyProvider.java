@@ -0,0 +1,156 @@
+package com.github.steanky.element.core.dependency;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.github.steanky.element.core.util.Validate.elementException;
+
+/**
+ * A composite {@link DependencyProvider} which remembers, for each {@link DependencyProvider.TypeKey} it is asked for,
+ * which of its delegates satisfies the key. Subsequent requests for the same key go directly to that delegate, without
+ * checking any of the others. Keys which no delegate can satisfy are remembered as well, up to a fixed limit, so
+ * probing many distinct missing keys (such as arbitrary parameterized types) does not grow the cache without bound.
+ * <p>
+ * Like {@link DependencyProvider#composite(DependencyProvider...)}, delegates are checked in order, and the first one
+ * reporting that it has a dependency is used. The cache is only correct as long as the set of dependencies each
+ * delegate can provide does not change. If a delegate is mutable, {@link CachingCompositeDependencyProvider#invalidate()}
+ * or {@link CachingCompositeDependencyProvider#invalidate(DependencyProvider.TypeKey)} must be called after it changes.
+ * <p>
+ * This class is thread-safe.
+ */
+public class CachingCompositeDependencyProvider implements DependencyProvider {
+    //marks keys that no delegate could satisfy
+    private static final DependencyProvider MISSING = DependencyProvider.EMPTY;
+
+    //the maximum number of missing keys that are remembered
+    private static final int MISSING_LIMIT = 1024;
+
+    private final DependencyProvider[] providers;
+    private final Map<TypeKey<?>, DependencyProvider> resolvedProviders;
+    private final AtomicInteger missingCount;
+
+    /**
+     * Creates a new instance of this class.
+     *
+     * @param providers the delegate providers, in order of priority
+     */
+    public CachingCompositeDependencyProvider(final @NotNull DependencyProvider @NotNull ... providers) {
+        this.providers = new DependencyProvider[providers.length];
+        for (int i = 0; i < providers.length; i++) {
+            this.providers[i] = Objects.requireNonNull(providers[i]);
+        }
+
+        this.resolvedProviders = new ConcurrentHashMap<>();
+        this.missingCount = new AtomicInteger();
+    }
+
+    @Override
+    public <TDependency> TDependency provide(final @NotNull TypeKey<TDependency> key) {
+        final DependencyProvider provider = resolve(key);
+        if (provider == MISSING) {
+            throw elementException("Unable to resolve dependency: " + key);
+        }
+
+        return provider.provide(key);
+    }
+
+    @Override
+    public <TDependency> @NotNull CompletableFuture<TDependency> provideAsync(final @NotNull TypeKey<TDependency> key) {
+        final DependencyProvider provider = resolve(key);
+        if (provider == MISSING) {
+            return CompletableFuture.failedFuture(elementException("Unable to resolve dependency: " + key));
+        }
+
+        return provider.provideAsync(key);
+    }
+
+    @Override
+    public boolean hasDependency(final @NotNull TypeKey<?> key) {
+        return resolve(key) != MISSING;
+    }
+
+    @Override
+    public <TDependency> @NotNull Supplier<TDependency> supplier(final @NotNull TypeKey<TDependency> key) {
+        final DependencyProvider provider = resolve(key);
+        if (provider == MISSING) {
+            throw elementException("Unable to resolve dependency: " + key);
+        }
+
+        return provider.supplier(key);
+    }
+
+    @Override
+    public <TDependency> @NotNull Supplier<CompletableFuture<TDependency>> asyncSupplier(
+            final @NotNull TypeKey<TDependency> key) {
+        final DependencyProvider provider = resolve(key);
+        if (provider == MISSING) {
+            throw elementException("Unable to resolve dependency: " + key);
+        }
+
+        return provider.asyncSupplier(key);
+    }
+
+    @Override
+    public <TDependency> @NotNull Provider<TDependency> provider(final @NotNull TypeKey<TDependency> key) {
+        final DependencyProvider provider = resolve(key);
+        return provider == MISSING ? DependencyProvider.super.provider(key) : provider.provider(key);
+    }
+
+    /**
+     * Discards all remembered key resolutions. Should be called whenever a mutable delegate changes which dependencies
+     * it can provide.
+     */
+    public void invalidate() {
+        resolvedProviders.clear();
+        missingCount.set(0);
+    }
+
+    /**
+     * Discards the remembered resolution for a single key, if any.
+     *
+     * @param key the key to invalidate
+     */
+    public void invalidate(final @NotNull TypeKey<?> key) {
+        if (resolvedProviders.remove(Objects.requireNonNull(key)) == MISSING) {
+            missingCount.decrementAndGet();
+        }
+    }
+
+    private DependencyProvider resolve(final TypeKey<?> key) {
+        final DependencyProvider cached = resolvedProviders.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        //resolution is side-effect-free, so it's fine if more than one thread does it at the same time
+        DependencyProvider resolved = MISSING;
+        for (final DependencyProvider provider : providers) {
+            if (provider.hasDependency(key)) {
+                resolved = provider;
+                break;
+            }
+        }
+
+        if (resolved == MISSING) {
+            //the limit may be slightly exceeded under contention, which is harmless
+            if (missingCount.get() >= MISSING_LIMIT) {
+                return MISSING;
+            }
+
+            if (resolvedProviders.putIfAbsent(key, MISSING) == null) {
+                missingCount.incrementAndGet();
+            }
+
+            return MISSING;
+        }
+
+        final DependencyProvider oldResolved = resolvedProviders.putIfAbsent(key, resolved);
+        return oldResolved != null ? oldResolved : resolved;
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.steanky.element.core.dependency;
+
+import com.github.steanky.element.core.annotation.Memoize;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Supplier} which memoizes the value of another supplier. The delegate is guaranteed to be called only once,
+ * even under contention, unless the memoized value is weakly or softly retained and has been garbage collected, in
+ * which case it is called again (still at most once at a time).
+ * <p>
+ * Each instance uses its own {@link Lock}, so a slow delegate only blocks threads requesting the same value. The lock
+ * is never held by threads which find an already-memoized value, and does not pin virtual threads to their carrier.
+ * <p>
+ * Instances keep count of how often the memoized value was returned without calling the delegate, and how often the
+ * delegate was called. This class is thread-safe.
+ *
+ * @param <T> the type of value
+ */
+public final class ConcurrentMemoizingSupplier<T> implements Supplier<T> {
+    private final Supplier<? extends T> delegate;
+    private final Memoize.Reference reference;
+    private final Lock lock;
+
+    private final LongAdder hits;
+    private final LongAdder invocations;
+
+    //holds either the value itself (for strong retention) or a Reference to it
+    private volatile Object value;
+
+    /**
+     * Creates a new instance of this class.
+     *
+     * @param delegate  the supplier whose value will be memoized
+     * @param reference how the memoized value is retained
+     */
+    public ConcurrentMemoizingSupplier(final @NotNull Supplier<? extends T> delegate,
+            final @NotNull Memoize.Reference reference) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.reference = Objects.requireNonNull(reference);
+        this.lock = new ReentrantLock();
+
+        this.hits = new LongAdder();
+        this.invocations = new LongAdder();
+    }
+
+    /**
+     * Creates a new instance of this class which retains its value strongly.
+     *
+     * @param delegate the supplier whose value will be memoized
+     */
+    public ConcurrentMemoizingSupplier(final @NotNull Supplier<? extends T> delegate) {
+        this(delegate, Memoize.Reference.STRONG);
+    }
+
+    @Override
+    public T get() {
+        T current = unwrap(value);
+        if (current != null) {
+            hits.increment();
+            return current;
+        }
+
+        lock.lock();
+        try {
+            current = unwrap(value);
+            if (current != null) {
+                hits.increment();
+                return current;
+            }
+
+            current = delegate.get();
+            invocations.increment();
+
+            value = switch (reference) {
+                case STRONG -> current;
+                case SOFT -> new SoftReference<>(current);
+                case WEAK -> new WeakReference<>(current);
+            };
+
+            return current;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T unwrap(final Object value) {
+        if (value instanceof Reference<?> valueReference && reference != Memoize.Reference.STRONG) {
+            return (T) valueReference.get();
+        }
+
+        return (T) value;
+    }
+
+    /**
+     * Returns a snapshot of this supplier's statistics.
+     *
+     * @return the current statistics
+     */
+    public @NotNull Stats stats() {
+        return new Stats(hits.sum(), invocations.sum());
+    }
+
+    /**
+     * Statistics about a memoizing supplier.
+     *
+     * @param hits        the number of times the memoized value was returned, without calling the delegate
+     * @param invocations the number of times the delegate was called
+     */
+    public record Stats(long hits, long invocations) {}
+}
@@ -1,12 +1,19 @@
 package com.github.steanky.element.core.dependency;
 
+import com.github.steanky.element.core.ElementException;
 import com.github.steanky.ethylene.mapper.type.Token;
 import net.kyori.adventure.key.Key;
 import org.apache.commons.lang3.ClassUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import static com.github.steanky.element.core.util.Validate.elementException;
 
@@ -32,27 +39,29 @@ public interface DependencyProvider {
     };
 
     /**
-     * Creates a new {@link TypeKey} from the specified {@link Class}, which will be its type. Its name will be null.
+     * Gets a {@link TypeKey} from the specified {@link Class}, which will be its type. Its name will be null. The
+     * returned key is interned.
      *
      * @param type the type
      * @param <T>  the dependency type
-     * @return a new TypeKey instance
+     * @return a TypeKey instance
      */
     static <T> @NotNull TypeKey<T> key(final @NotNull Token<T> type) {
-        return new TypeKey<>(type, null);
+        return TypeKey.intern(type, null);
     }
 
     /**
-     * Creates a new {@link DependencyProvider.TypeKey} from the specified {@link Class} and {@link Key}. The key may be
-     * null, in which case only the class may be used to determine which supplier to call.
+     * Gets a {@link DependencyProvider.TypeKey} from the specified {@link Class} and {@link Key}. The key may be
+     * null, in which case only the class may be used to determine which supplier to call. The returned key is
+     * interned.
      *
      * @param type the type
      * @param name the name, to disambiguate in cases where there are multiple types
      * @param <T>  the dependency type
-     * @return a new TypeKey instance
+     * @return a TypeKey instance
      */
     static <T> @NotNull TypeKey<T> key(final @NotNull Token<T> type, final @Nullable Key name) {
-        return new TypeKey<>(type, name);
+        return TypeKey.intern(type, name);
     }
 
     /**
@@ -123,6 +132,20 @@ public interface DependencyProvider {
         };
     }
 
+    /**
+     * Creates a new, caching composite {@link DependencyProvider} from any number of others. This behaves like
+     * {@link DependencyProvider#composite(DependencyProvider...)}, but remembers which provider satisfies each key,
+     * so repeated requests for the same key do not need to check every provider. If any of the given providers can
+     * change which dependencies they provide, the returned provider must be invalidated when they do.
+     *
+     * @param providers the providers which make up this composite
+     * @return a new {@link CachingCompositeDependencyProvider}
+     */
+    static @NotNull CachingCompositeDependencyProvider cachingComposite(
+            final @NotNull DependencyProvider @NotNull ... providers) {
+        return new CachingCompositeDependencyProvider(providers);
+    }
+
     /**
      * Provides a named dependency.
      *
@@ -132,6 +155,87 @@ public interface DependencyProvider {
      */
     <TDependency> TDependency provide(final @NotNull TypeKey<TDependency> key);
 
+    /**
+     * Provides a dependency asynchronously. Implementations which are able to create dependencies asynchronously
+     * should override this method, so that callers requesting several dependencies at once can wait for all of them in
+     * parallel. Failures, including missing dependencies, are reported through the returned future.
+     * <p>
+     * The default implementation calls {@link DependencyProvider#provide(TypeKey)}, and returns a completed future.
+     *
+     * @param key           the type key for the dependency
+     * @param <TDependency> the type of the dependency
+     * @return a future which will complete with the dependency
+     */
+    default <TDependency> @NotNull CompletableFuture<TDependency> provideAsync(final @NotNull TypeKey<TDependency> key) {
+        try {
+            return CompletableFuture.completedFuture(provide(key));
+        }
+        catch (ElementException exception) {
+            return CompletableFuture.failedFuture(exception);
+        }
+    }
+
+    /**
+     * Creates a {@link Provider} which lazily provides the given dependency. The dependency is not requested until
+     * {@link Provider#get()} is called, and this method does not fail if the dependency does not exist. The default
+     * implementation calls {@link DependencyProvider#provide(TypeKey)} each time the provider is invoked; implementations
+     * may return a handle that avoids repeating the lookup. Handles resolve the dependency in the {@link DependencyScope}
+     * that was active when they were created, so {@link com.github.steanky.element.core.annotation.Scope scoped}
+     * dependencies are shared with the construction that requested the handle.
+     *
+     * @param key           the type key for the dependency
+     * @param <TDependency> the type of the dependency
+     * @return a lazy provider of the dependency
+     */
+    default <TDependency> @NotNull Provider<TDependency> provider(final @NotNull TypeKey<TDependency> key) {
+        Objects.requireNonNull(key);
+        return DependencyScope.bind(() -> provide(key));
+    }
+
+    /**
+     * Resolves the {@link Supplier} this provider would use to provide the given dependency, without calling it. This
+     * can be used to check, ahead of time, that a dependency can be provided; the resulting supplier may also be
+     * retained and called later, bypassing any lookups performed by {@link DependencyProvider#provide(TypeKey)}.
+     * <p>
+     * The default implementation checks {@link DependencyProvider#hasDependency(TypeKey)}, and returns a supplier that
+     * calls {@link DependencyProvider#provide(TypeKey)}.
+     *
+     * @param key           the type key for the dependency
+     * @param <TDependency> the type of the dependency
+     * @return a supplier of the dependency
+     * @throws com.github.steanky.element.core.ElementException if the dependency is missing or ambiguous
+     */
+    default <TDependency> @NotNull Supplier<TDependency> supplier(final @NotNull TypeKey<TDependency> key) {
+        if (!hasDependency(key)) {
+            throw elementException("Unable to resolve dependency: " + key);
+        }
+
+        return () -> provide(key);
+    }
+
+    /**
+     * Resolves the {@link Supplier} this provider would use to provide the given dependency asynchronously, without
+     * calling it. This is the asynchronous counterpart of {@link DependencyProvider#supplier(TypeKey)}: each call to the
+     * resulting supplier behaves like {@link DependencyProvider#provideAsync(TypeKey)}, reporting failures through the
+     * returned future, but without repeating any lookups.
+     * <p>
+     * The default implementation checks {@link DependencyProvider#hasDependency(TypeKey)}, and returns a supplier that
+     * calls {@link DependencyProvider#provideAsync(TypeKey)}.
+     *
+     * @param key           the type key for the dependency
+     * @param <TDependency> the type of the dependency
+     * @return a supplier of futures which will complete with the dependency
+     * @throws com.github.steanky.element.core.ElementException if the dependency is missing or ambiguous
+     */
+    default <TDependency> @NotNull Supplier<CompletableFuture<TDependency>> asyncSupplier(
+            final @NotNull TypeKey<TDependency> key) {
+        if (!hasDependency(key)) {
+            throw elementException("Unable to resolve dependency: " + key);
+        }
+
+        return () -> provideAsync(key);
+    }
+
     /**
      * Determines if this provider has the given, named dependency.
      *
@@ -143,20 +247,44 @@ public interface DependencyProvider {
     /**
      * An object which can be used to access a dependency. Consists of a type (class) and a key used to disambiguate in
      * the case of multiple dependencies of the same type.
+     * <p>
+     * Instances obtained through {@link DependencyProvider#key(Token, Key)} (or {@link DependencyProvider#key(Token)})
+     * are interned, so equal keys obtained this way are the same object, and their hash codes are computed only once.
+     * This makes them cheap to use as map keys. Instances created through the constructor are not interned, but still
+     * compare equal to interned instances. Looking up an already-interned key does not require any locking.
      *
-     * @param type the type component of this key
-     * @param name the name component of this key
-     * @param <T>  the dependency type
+     * @param <T> the dependency type
      */
-    record TypeKey<T>(@NotNull Token<T> type, @Nullable Key name) {
+    final class TypeKey<T> {
+        //keys for non-generic types are stored with the class itself, so they don't keep other classes alive
+        private static final ClassValue<ClassKeys> CLASS_KEYS = new ClassValue<>() {
+            @Override
+            protected ClassKeys computeValue(final @NotNull Class<?> type) {
+                if (ClassUtils.isPrimitiveWrapper(type)) {
+                    //wrapper types share the keys of their primitive type
+                    return CLASS_KEYS.get(ClassUtils.wrapperToPrimitive(type));
+                }
+
+                return new ClassKeys(type);
+            }
+        };
+
+        //keys for generic types are weakly referenced, so they don't keep the classes (or loaders) they mention alive
+        private static final ConcurrentHashMap<WeakKey, WeakKey> GENERIC_KEYS = new ConcurrentHashMap<>();
+        private static final ReferenceQueue<TypeKey<?>> CLEARED = new ReferenceQueue<>();
+
+        private final Token<T> type;
+        private final Key name;
+        private final int hash;
+
         /**
-         * Creates a new instance of this record.
+         * Creates a new instance of this class.
          *
          * @param type the type component of this key
          * @param name the name component of this key
          */
         @SuppressWarnings("unchecked")
-        public TypeKey(@NotNull Token<T> type, @Nullable Key name) {
+        public TypeKey(final @NotNull Token<T> type, final @Nullable Key name) {
             final Class<?> rawType = type.rawType();
             if (ClassUtils.isPrimitiveWrapper(rawType)) {
                 //perform unbox conversion
@@ -166,6 +294,137 @@ public interface DependencyProvider {
             }
 
             this.name = name;
+            this.hash = 31 * this.type.hashCode() + Objects.hashCode(name);
+        }
+
+        private static final class ClassKeys {
+            private final TypeKey<?> unnamed;
+            private final ConcurrentHashMap<Key, TypeKey<?>> named;
+
+            private ClassKeys(final Class<?> type) {
+                this.unnamed = new TypeKey<>(Token.ofClass(type), null);
+                this.named = new ConcurrentHashMap<>();
+            }
+        }
+
+        private static final class WeakKey extends WeakReference<TypeKey<?>> {
+            private final int hash;
+
+            private WeakKey(final TypeKey<?> key, final ReferenceQueue<TypeKey<?>> queue) {
+                super(key, queue);
+                this.hash = key.hash;
+            }
+
+            @Override
+            public int hashCode() {
+                return hash;
+            }
+
+            @Override
+            public boolean equals(final Object obj) {
+                if (obj == this) {
+                    return true;
+                }
+
+                if (!(obj instanceof WeakKey other) || other.hash != hash) {
+                    return false;
+                }
+
+                final TypeKey<?> key = get();
+                return key != null && key.equals(other.get());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> TypeKey<T> intern(final Token<T> type, final Key name) {
+            if (type.get() instanceof Class<?> rawType) {
+                final ClassKeys keys = CLASS_KEYS.get(rawType);
+                if (name == null) {
+                    return (TypeKey<T>) keys.unnamed;
+                }
+
+                final TypeKey<?> key = keys.named.get(name);
+                if (key != null) {
+                    return (TypeKey<T>) key;
+                }
+
+                return (TypeKey<T>) keys.named.computeIfAbsent(name, ignored -> new TypeKey<>(keys.unnamed.type, name));
+            }
+
+            return internGeneric(new TypeKey<>(type, name));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> TypeKey<T> internGeneric(final TypeKey<T> key) {
+            Reference<? extends TypeKey<?>> cleared;
+            while ((cleared = CLEARED.poll()) != null) {
+                GENERIC_KEYS.remove((WeakKey) cleared);
+            }
+
+            final WeakKey existing = GENERIC_KEYS.get(new WeakKey(key, null));
+            if (existing != null) {
+                final TypeKey<?> interned = existing.get();
+                if (interned != null) {
+                    return (TypeKey<T>) interned;
+                }
+            }
+
+            final WeakKey entry = new WeakKey(key, CLEARED);
+            while (true) {
+                final WeakKey previous = GENERIC_KEYS.putIfAbsent(entry, entry);
+                if (previous == null) {
+                    return key;
+                }
+
+                final TypeKey<?> interned = previous.get();
+                if (interned != null) {
+                    return (TypeKey<T>) interned;
+                }
+
+                //the previous key was collected, but not yet removed
+                GENERIC_KEYS.remove(previous, previous);
+            }
+        }
+
+        /**
+         * The type component of this key.
+         *
+         * @return the type component of this key
+         */
+        public @NotNull Token<T> type() {
+            return type;
+        }
+
+        /**
+         * The name component of this key.
+         *
+         * @return the name component of this key
+         */
+        public @Nullable Key name() {
+            return name;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+
+            if (!(obj instanceof TypeKey<?> other) || other.hash != hash) {
+                return false;
+            }
+
+            return type.equals(other.type) && Objects.equals(name, other.name);
+        }
+
+        @Override
+        public String toString() {
+            return "TypeKey[type=" + type + ", name=" + name + "]";
         }
     }
 }
@@ -0,0 +1,141 @@
+package com.github.steanky.element.core.dependency;
+
+import com.github.steanky.element.core.annotation.Scope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static com.github.steanky.element.core.util.Validate.elementException;
+
+/**
+ * Tracks the dependency scope active on the current thread, which is used to resolve suppliers annotated with
+ * {@link Scope.Kind#CONTEXT} or {@link Scope.Kind#PROVIDE}. Scopes are entered by element contexts at the start of a
+ * top-level element construction, and closed when it finishes.
+ */
+public final class DependencyScope implements AutoCloseable {
+    private static final ThreadLocal<DependencyScope> CURRENT = new ThreadLocal<>();
+
+    private final ScopeStorage contextStorage;
+    private final DependencyScope previous;
+
+    //only created if a PROVIDE-scoped dependency is actually requested
+    private ScopeStorage provideStorage;
+
+    private DependencyScope(final ScopeStorage contextStorage, final ScopeStorage provideStorage,
+            final DependencyScope previous) {
+        this.contextStorage = contextStorage;
+        this.provideStorage = provideStorage;
+        this.previous = previous;
+    }
+
+    /**
+     * Enters a new scope on the current thread, associated with the given context-level storage. If a scope using the
+     * same storage is already active on this thread (the caller is nested inside another construction in the same
+     * context), no new scope is entered and this method returns null.
+     *
+     * @param contextStorage the storage used for {@link Scope.Kind#CONTEXT} dependencies
+     * @return the new scope, which must be closed by the same thread, or null if no new scope was entered
+     */
+    public static @Nullable DependencyScope enter(final @NotNull ScopeStorage contextStorage) {
+        return enter(contextStorage, null);
+    }
+
+    /**
+     * Works like {@link DependencyScope#enter(ScopeStorage)}, but uses an existing storage for
+     * {@link Scope.Kind#PROVIDE} dependencies. This allows a single construction that is split across several threads
+     * (for example, when elements are provided asynchronously) to share its PROVIDE-scoped dependencies.
+     *
+     * @param contextStorage the storage used for {@link Scope.Kind#CONTEXT} dependencies
+     * @param provideStorage the storage used for {@link Scope.Kind#PROVIDE} dependencies, or null to create one only
+     *                       when it is needed
+     * @return the new scope, which must be closed by the same thread, or null if no new scope was entered
+     * @throws com.github.steanky.element.core.ElementException if contextStorage is null
+     */
+    public static @Nullable DependencyScope enter(final @NotNull ScopeStorage contextStorage,
+            final @Nullable ScopeStorage provideStorage) {
+        if (contextStorage == null) {
+            throw elementException("A context storage is required to enter a dependency scope");
+        }
+
+        final DependencyScope current = CURRENT.get();
+        if (current != null && current.contextStorage == contextStorage) {
+            return null;
+        }
+
+        final DependencyScope scope = new DependencyScope(contextStorage, provideStorage, current);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Gets the storage for the given kind of scope on the current thread.
+     *
+     * @param kind the kind of scope; must be {@link Scope.Kind#CONTEXT} or {@link Scope.Kind#PROVIDE}
+     * @return the storage, or null if there is no active scope on this thread
+     */
+    static @Nullable ScopeStorage currentStorage(final @NotNull Scope.Kind kind) {
+        final DependencyScope current = CURRENT.get();
+        if (current == null) {
+            return null;
+        }
+
+        return switch (kind) {
+            case CONTEXT -> current.contextStorage;
+            case PROVIDE -> {
+                ScopeStorage storage = current.provideStorage;
+                if (storage == null) {
+                    storage = new ScopeStorage();
+                    current.provideStorage = storage;
+                }
+
+                yield storage;
+            }
+            default -> throw new IllegalArgumentException("Scope kind " + kind + " does not use scope storage");
+        };
+    }
+
+    /**
+     * Binds the given lazy provider to the scope active on the current thread, if any. The returned provider enters
+     * that scope again whenever it is invoked, so that scoped dependencies requested after the scope was closed (or
+     * from another thread) are still shared with the rest of the scope, rather than created anew on every call.
+     *
+     * @param provider the provider to bind
+     * @param <T>      the type of dependency
+     * @return a provider bound to the current scope, or the given provider if no scope is active
+     */
+    static <T> @NotNull Provider<T> bind(final @NotNull Provider<T> provider) {
+        final DependencyScope current = CURRENT.get();
+        if (current == null) {
+            return provider;
+        }
+
+        final ScopeStorage contextStorage = current.contextStorage;
+        final ScopeStorage provideStorage = currentStorage(Scope.Kind.PROVIDE);
+        return () -> {
+            final DependencyScope scope = new DependencyScope(contextStorage, provideStorage, CURRENT.get());
+            CURRENT.set(scope);
+            try {
+                return provider.get();
+            }
+            finally {
+                scope.close();
+            }
+        };
+    }
+
+    /**
+     * Exits this scope, restoring whichever scope was active when it was entered.
+     */
+    @Override
+    public void close() {
+        if (CURRENT.get() != this) {
+            throw new IllegalStateException("Scope closed out of order or from the wrong thread");
+        }
+
+        if (previous == null) {
+            CURRENT.remove();
+        }
+        else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -1,17 +1,20 @@
 package com.github.steanky.element.core.dependency;
 
+import com.github.steanky.element.core.ElementException;
 import com.github.steanky.element.core.annotation.Depend;
 import com.github.steanky.element.core.annotation.Ignore;
 import com.github.steanky.element.core.annotation.Memoize;
+import com.github.steanky.element.core.annotation.Scope;
 import com.github.steanky.element.core.key.Constants;
 import com.github.steanky.element.core.key.KeyParser;
 import com.github.steanky.element.core.util.ReflectionUtils;
 import com.github.steanky.ethylene.mapper.type.Token;
-import com.github.steanky.toolkit.function.MemoizingSupplier;
 import net.kyori.adventure.key.Key;
 import org.apache.commons.lang3.ClassUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
 
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -19,6 +22,8 @@ import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import static com.github.steanky.element.core.util.Validate.*;
@@ -27,10 +32,24 @@ import static com.github.steanky.element.core.util.Validate.*;
  * Implementation of DependencyProvider which has a concept of modules. Each module consists of a single object which
  * provides any number of methods (static or instance) that act as suppliers of dependencies. Methods can provide
  * "named" dependencies by declaring a single {@link Key} object as a parameter.
+ * <p>
+ * Supplier methods may return {@link CompletableFuture}. Such methods supply dependencies of the future's type
+ * asynchronously, through {@link DependencyProvider#provideAsync(TypeKey)} and
+ * {@link DependencyProvider#asyncSupplier(TypeKey)}. Synchronous requests for the future's type never wait for it, as
+ * that would block the calling thread; they fail with an {@link ElementException} instead. Requests for the
+ * {@code CompletableFuture} type itself are also supported.
+ * <p>
+ * Any number of modules may be given. Their suppliers are merged into a single table, and ambiguities between
+ * suppliers are detected on construction, regardless of whether the suppliers belong to the same module.
  */
 public class ModuleDependencyProvider implements DependencyProvider {
-    private final DependencyModule module;
+    private final Class<?> moduleClass;
     private final Map<Token<?>, Map<String, Supplier<?>>> dependencyMap;
+    private final Map<Token<?>, Map<String, Supplier<?>>> asyncDependencyMap;
+
+    //TypeKeys cache their hash codes, unlike Tokens, so repeated lookups are cheaper through this map
+    private final Map<TypeKey<?>, Supplier<?>> resolvedSuppliers;
+    private final Map<Method, ConcurrentMemoizingSupplier<?>> memoizingSuppliers;
 
     /**
      * Creates a new instance of this class.
@@ -38,11 +57,77 @@ public class ModuleDependencyProvider implements DependencyProvider {
      * @param keyParser the {@link KeyParser} object used to convert strings to keys
      * @param module    the {@link DependencyModule} object to use
      */
-    @SuppressWarnings("unchecked")
     public ModuleDependencyProvider(final @NotNull KeyParser keyParser, final @NotNull DependencyModule module) {
+        this(keyParser, new DependencyModule[] {module});
+    }
+
+    /**
+     * Creates a new instance of this class from any number of modules. The suppliers of all modules are combined; two
+     * suppliers which would be ambiguous within a single module are also considered ambiguous if they are in different
+     * modules.
+     *
+     * @param keyParser the {@link KeyParser} object used to convert strings to keys
+     * @param modules   the {@link DependencyModule} objects to use
+     */
+    @SuppressWarnings("unchecked")
+    public ModuleDependencyProvider(final @NotNull KeyParser keyParser,
+            final @NotNull DependencyModule @NotNull ... modules) {
         Objects.requireNonNull(keyParser);
-        this.module = Objects.requireNonNull(module);
 
+        //this variable is temporary, will be transformed into an immutable map later
+        final Map<Token<?>, Map<String, Supplier<?>>> dependencyMap = new HashMap<>();
+        final Map<Method, ConcurrentMemoizingSupplier<?>> memoizingSuppliers = new HashMap<>();
+        for (final DependencyModule module : modules) {
+            addModule(keyParser, Objects.requireNonNull(module), dependencyMap, memoizingSuppliers);
+        }
+
+        final Map.Entry<Token<?>, Map<String, Supplier<?>>>[] array = dependencyMap.entrySet()
+                .toArray(Map.Entry[]::new);
+        for (int i = 0; i < array.length; i++) {
+            final Map.Entry<Token<?>, Map<String, Supplier<?>>> entry = array[i];
+
+            final Map<String, Supplier<?>> supplierMap = entry.getValue();
+            final Map<String, Supplier<?>> immutableMap;
+            if (supplierMap.size() == 1 && !supplierMap.containsKey(Constants.DEFAULT)) {
+                immutableMap = Map.of(Constants.DEFAULT, supplierMap.values().iterator().next());
+            } else {
+                immutableMap = Map.copyOf(supplierMap);
+            }
+
+            array[i] = Map.entry(entry.getKey(), immutableMap);
+        }
+
+        this.moduleClass = modules.length == 1 ? modules[0].getClass() : null;
+        this.dependencyMap = Map.ofEntries(array);
+        this.asyncDependencyMap = asyncDependencies(this.dependencyMap);
+        this.resolvedSuppliers = new ConcurrentHashMap<>();
+        this.memoizingSuppliers = Map.copyOf(memoizingSuppliers);
+    }
+
+    private static Map<Token<?>, Map<String, Supplier<?>>> asyncDependencies(
+            final Map<Token<?>, Map<String, Supplier<?>>> dependencyMap) {
+        //suppliers of CompletableFuture<T> can also satisfy asynchronous requests for T
+        final Map<Token<?>, Map<String, Supplier<?>>> asyncDependencyMap = new HashMap<>();
+        for (Map.Entry<Token<?>, Map<String, Supplier<?>>> entry : dependencyMap.entrySet()) {
+            final Token<?> type = entry.getKey();
+            if (!type.rawType().equals(CompletableFuture.class) || !type.isParameterized()) {
+                continue;
+            }
+
+            final Token<?> resultType = type.actualTypeParameters()[0];
+            final Class<?> rawResultType = resultType.rawType();
+
+            //perform unbox conversion, as TypeKey does
+            asyncDependencyMap.put(ClassUtils.isPrimitiveWrapper(rawResultType) ?
+                    Token.ofClass(ClassUtils.wrapperToPrimitive(rawResultType)) : resultType, entry.getValue());
+        }
+
+        return Map.copyOf(asyncDependencyMap);
+    }
+
+    private static void addModule(final KeyParser keyParser, final DependencyModule module,
+            final Map<Token<?>, Map<String, Supplier<?>>> dependencyMap,
+            final Map<Method, ConcurrentMemoizingSupplier<?>> memoizingSuppliers) {
         final Class<?> moduleClass = module.getClass();
 
         int moduleClassModifiers = moduleClass.getModifiers();
@@ -52,13 +137,12 @@ public class ModuleDependencyProvider implements DependencyProvider {
 
         final boolean defaultDepend = moduleClass.isAnnotationPresent(Depend.class);
 
+        final Scope.Kind defaultScope = scopeOf(moduleClass, moduleClass, null);
         final Memoize moduleClassMemoize = moduleClass.getAnnotation(Memoize.class);
-        final boolean defaultMemoize = moduleClassMemoize != null && moduleClassMemoize.value();
+        final Memoize.Reference defaultReference = moduleClassMemoize == null ? Memoize.Reference.STRONG :
+                moduleClassMemoize.reference();
 
         final Method[] methods = moduleClass.getDeclaredMethods();
-
-        //this variable is temporary, will be transformed into an immutable map later
-        final Map<Token<?>, Map<String, Supplier<?>>> dependencyMap = new HashMap<>();
         for (final Method method : methods) {
             if (method.isAnnotationPresent(Ignore.class)) {
                 continue;
@@ -102,7 +186,8 @@ public class ModuleDependencyProvider implements DependencyProvider {
             final Map<String, Supplier<?>> supplierMap = dependencyMap.get(returnType);
             if (supplierMap == null) {
                 final Map<String, Supplier<?>> newMap = new HashMap<>(4);
-                putInvoker(newMap, annotationValue, method, module, defaultMemoize);
+                putInvoker(newMap, annotationValue, method, module, defaultScope, defaultReference,
+                        memoizingSuppliers);
                 dependencyMap.put(returnType, newMap);
                 continue;
             }
@@ -116,56 +201,165 @@ public class ModuleDependencyProvider implements DependencyProvider {
                 throw elementException(moduleClass, "Supplier ambiguity, two suppliers may not have the same name");
             }
 
-            putInvoker(supplierMap, annotationValue, method, module, defaultMemoize);
+            putInvoker(supplierMap, annotationValue, method, module, defaultScope, defaultReference,
+                    memoizingSuppliers);
         }
+    }
 
-        final Map.Entry<Token<?>, Map<String, Supplier<?>>>[] array = dependencyMap.entrySet()
-                .toArray(Map.Entry[]::new);
-        for (int i = 0; i < array.length; i++) {
-            final Map.Entry<Token<?>, Map<String, Supplier<?>>> entry = array[i];
+    private static void putInvoker(Map<String, Supplier<?>> map, String key, Method method, Object module,
+            Scope.Kind defaultScope, Memoize.Reference defaultReference,
+            Map<Method, ConcurrentMemoizingSupplier<?>> memoizingSuppliers) {
+        final Scope.Kind scope = scopeOf(method, module.getClass(), defaultScope);
+
+        final Supplier<?> invoker = ReflectionUtils.methodSupplier(method, isStatic(method) ? null : module);
+        if (scope == null) {
+            map.put(key, invoker);
+            return;
+        }
 
-            final Map<String, Supplier<?>> supplierMap = entry.getValue();
-            final Map<String, Supplier<?>> immutableMap;
-            if (supplierMap.size() == 1 && !supplierMap.containsKey(Constants.DEFAULT)) {
-                immutableMap = Map.of(Constants.DEFAULT, supplierMap.values().iterator().next());
-            } else {
-                immutableMap = Map.copyOf(supplierMap);
+        map.put(key, switch (scope) {
+            case SINGLETON -> {
+                final Memoize memoize = method.getAnnotation(Memoize.class);
+                final ConcurrentMemoizingSupplier<?> memoizingSupplier = new ConcurrentMemoizingSupplier<>(invoker,
+                        memoize == null ? defaultReference : memoize.reference());
+
+                memoizingSuppliers.put(method, memoizingSupplier);
+                yield memoizingSupplier;
             }
+            case CONTEXT, PROVIDE -> new Supplier<>() {
+                @Override
+                public Object get() {
+                    final ScopeStorage storage = DependencyScope.currentStorage(scope);
+
+                    //not inside any scope, so there is nothing to share the value with
+                    return storage == null ? invoker.get() : storage.get(this, invoker);
+                }
+            };
+            case THREAD -> ThreadLocal.withInitial(invoker)::get;
+        });
+    }
 
-            array[i] = Map.entry(entry.getKey(), immutableMap);
+    private static Scope.Kind scopeOf(AnnotatedElement element, Class<?> moduleClass, Scope.Kind defaultScope) {
+        final Scope scope = element.getAnnotation(Scope.class);
+        final Memoize memoize = element.getAnnotation(Memoize.class);
+        if (scope != null && memoize != null) {
+            throw elementException(moduleClass, "@Scope and @Memoize may not be used together");
         }
 
-        this.dependencyMap = Map.ofEntries(array);
+        if (scope != null) {
+            return scope.value();
+        }
+
+        if (memoize != null) {
+            return memoize.value() ? Scope.Kind.SINGLETON : null;
+        }
+
+        return defaultScope;
     }
 
-    private static void putInvoker(Map<String, Supplier<?>> map, String key, Method method, Object module,
-            boolean defaultMemoize) {
-        final Memoize memoize = method.getAnnotation(Memoize.class);
-        final boolean isMemoizing = memoize == null ? defaultMemoize : memoize.value();
+    /**
+     * Gets statistics for every memoized supplier method of this provider's modules, keyed by the method. This
+     * includes methods annotated with {@link Memoize} and with {@link Scope.Kind#SINGLETON} scope.
+     *
+     * @return a map of memoized supplier methods to their current statistics
+     */
+    public @NotNull @Unmodifiable Map<Method, ConcurrentMemoizingSupplier.Stats> memoizationStats() {
+        final Map<Method, ConcurrentMemoizingSupplier.Stats> stats = new HashMap<>(memoizingSuppliers.size());
+        for (Map.Entry<Method, ConcurrentMemoizingSupplier<?>> entry : memoizingSuppliers.entrySet()) {
+            stats.put(entry.getKey(), entry.getValue().stats());
+        }
 
-        final Supplier<?> invoker = isStatic(method) ? () -> ReflectionUtils.invokeMethod(method, null) :
-                () -> ReflectionUtils.invokeMethod(method, module);
-        map.put(key, isMemoizing ? new MemoizingSupplier<>(invoker) : invoker);
+        return Map.copyOf(stats);
     }
 
     private static boolean isStatic(Member member) {
         return Modifier.isStatic(member.getModifiers());
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public <TDependency> TDependency provide(final @NotNull TypeKey<TDependency> key) {
+        return supplier(key).get();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <TDependency> @NotNull CompletableFuture<TDependency> provideAsync(final @NotNull TypeKey<TDependency> key) {
+        final Token<?> keyType = key.type();
+        if (!dependencyMap.containsKey(keyType) && asyncDependencyMap.containsKey(keyType)) {
+            try {
+                return (CompletableFuture<TDependency>) resolve(asyncDependencyMap, key).get();
+            }
+            catch (ElementException exception) {
+                return CompletableFuture.failedFuture(exception);
+            }
+        }
+
+        return DependencyProvider.super.provideAsync(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <TDependency> @NotNull Supplier<TDependency> supplier(final @NotNull TypeKey<TDependency> key) {
+        final Supplier<?> resolved = resolvedSuppliers.get(key);
+        if (resolved != null) {
+            return (Supplier<TDependency>) resolved;
+        }
+
+        final Token<?> keyType = key.type();
+        if (!dependencyMap.containsKey(keyType) && asyncDependencyMap.containsKey(keyType)) {
+            //only an asynchronous supplier exists; waiting for it here would block the calling thread, so just check
+            //that the name is not missing or ambiguous
+            resolve(asyncDependencyMap, key);
+            return (Supplier<TDependency>) remember(key, () -> {
+                throw elementException("Dependency " + key +
+                        " is only available asynchronously, and must be requested using provideAsync");
+            });
+        }
+
+        return (Supplier<TDependency>) remember(key, resolve(dependencyMap, key));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <TDependency> @NotNull Supplier<CompletableFuture<TDependency>> asyncSupplier(
+            final @NotNull TypeKey<TDependency> key) {
+        final Token<?> keyType = key.type();
+        if (!dependencyMap.containsKey(keyType) && asyncDependencyMap.containsKey(keyType)) {
+            final Supplier<?> asyncSupplier = resolve(asyncDependencyMap, key);
+            return () -> {
+                try {
+                    return (CompletableFuture<TDependency>) asyncSupplier.get();
+                }
+                catch (ElementException exception) {
+                    return CompletableFuture.failedFuture(exception);
+                }
+            };
+        }
+
+        final Supplier<TDependency> supplier = supplier(key);
+        return () -> {
+            try {
+                return CompletableFuture.completedFuture(supplier.get());
+            }
+            catch (ElementException exception) {
+                return CompletableFuture.failedFuture(exception);
+            }
+        };
+    }
+
+    private Supplier<?> resolve(final Map<Token<?>, Map<String, Supplier<?>>> table, final TypeKey<?> key) {
         final Token<?> keyType = key.type();
 
-        final Map<String, Supplier<?>> supplierMap = dependencyMap.get(keyType);
+        final Map<String, Supplier<?>> supplierMap = table.get(keyType);
         if (supplierMap == null) {
-            throw elementException(module.getClass(), "no dependencies of type " + keyType);
+            throw moduleClass == null ? elementException("no dependencies of type " + keyType) :
+                    elementException(moduleClass, "no dependencies of type " + keyType);
         }
 
         //if supplierMap only contains a single entry, it is guaranteed to use Constants.DEFAULT as a key
         if (supplierMap.size() == 1) {
             //ignore the name, as there is only one dependency satisfying this type
-            return (TDependency) supplierMap.get(Constants.DEFAULT).get();
+            return supplierMap.get(Constants.DEFAULT);
         }
 
         final Key name = key.name();
@@ -178,13 +372,39 @@ public class ModuleDependencyProvider implements DependencyProvider {
             throw elementException("Supplier named " + nameString + " with return type " + keyType + " not found");
         }
 
-        return (TDependency) supplierMap.get(nameString).get();
+        return supplierMap.get(nameString);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <TDependency> @NotNull Provider<TDependency> provider(final @NotNull TypeKey<TDependency> key) {
+        final Supplier<?> resolved = resolvedSuppliers.get(key);
+        if (resolved != null) {
+            //already resolved, so the handle can call the supplier directly (in the scope active now)
+            return DependencyScope.bind(() -> (TDependency) resolved.get());
+        }
+
+        return DependencyProvider.super.provider(key);
+    }
+
+    private Supplier<?> remember(final TypeKey<?> key, final Supplier<?> supplier) {
+        final Supplier<?> oldSupplier = resolvedSuppliers.putIfAbsent(key, supplier);
+        return oldSupplier != null ? oldSupplier : supplier;
     }
 
     @Override
     public boolean hasDependency(final @NotNull TypeKey<?> key) {
+        if (resolvedSuppliers.containsKey(key)) {
+            return true;
+        }
+
         final Token<?> keyType = key.type();
-        final Map<String, Supplier<?>> supplierMap = dependencyMap.get(keyType);
+        return dependencyMap.containsKey(keyType) ? hasDependency(dependencyMap, key) :
+                hasDependency(asyncDependencyMap, key);
+    }
+
+    private static boolean hasDependency(final Map<Token<?>, Map<String, Supplier<?>>> table, final TypeKey<?> key) {
+        final Map<String, Supplier<?>> supplierMap = table.get(key.type());
         if (supplierMap == null) {
             return false;
         }
@@ -200,4 +420,4 @@ public class ModuleDependencyProvider implements DependencyProvider {
 
         return supplierMap.containsKey(name.asString());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package com.github.steanky.element.core.dependency;
+
+import java.util.function.Supplier;
+
+/**
+ * A handle to a dependency which is resolved only when {@link Provider#get()} is called. Element constructors may
+ * declare parameters of type {@code Provider<T>} (or {@code Supplier<T>}) to defer resolving dependencies that are
+ * expensive to create and only rarely used.
+ * <p>
+ * Each call to {@link Provider#get()} requests the dependency again; whether or not the same object is returned each
+ * time depends on how the dependency is supplied (for example, its {@link com.github.steanky.element.core.annotation.Scope}).
+ * Scoped dependencies are resolved in the scope of the construction that created the handle, even if {@code get} is
+ * called after that construction has finished.
+ *
+ * @param <T> the type of dependency
+ */
+@FunctionalInterface
+public interface Provider<T> extends Supplier<T> {
+    /**
+     * Resolves and returns the dependency.
+     *
+     * @return the dependency
+     */
+    @Override
+    T get();
+}
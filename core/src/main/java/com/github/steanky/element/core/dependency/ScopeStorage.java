@@ -0,0 +1,93 @@
+package com.github.steanky.element.core.dependency;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static com.github.steanky.element.core.util.Validate.elementException;
+
+/**
+ * Holds the values of scoped dependencies for a single scope instance, such as a single
+ * {@link com.github.steanky.element.core.context.ElementContext}. Each value is created exactly once. Reads of existing
+ * values do not lock.
+ * <p>
+ * Values are created independently of each other: a thread creating one value only blocks other threads requesting
+ * the same value, and waiting does not pin virtual threads to their carrier. This class is thread-safe.
+ */
+public final class ScopeStorage {
+    //holds either the value itself, or a Pending instance while the value is being created
+    private final Map<Object, Object> values;
+
+    /**
+     * Creates a new, empty instance of this class.
+     */
+    public ScopeStorage() {
+        this.values = new ConcurrentHashMap<>(4);
+    }
+
+    private static final class Pending extends ReentrantLock {
+        private Pending() {
+            //locked by the creating thread until the value is available
+            lock();
+        }
+    }
+
+    /**
+     * Gets the value associated with the given owner, creating it using the given supplier if it does not yet exist.
+     * Suppliers may themselves request other values from this storage, but not the value they are creating.
+     *
+     * @param owner    the object identifying the value, typically the scoped supplier itself
+     * @param supplier the supplier used to create the value
+     * @param <T>      the type of value
+     * @return the value
+     * @throws com.github.steanky.element.core.ElementException if the supplier requests the value it is creating
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(final @NotNull Object owner, final @NotNull Supplier<? extends T> supplier) {
+        while (true) {
+            Object value = values.get(owner);
+            if (value == null) {
+                final Pending pending = new Pending();
+                value = values.putIfAbsent(owner, pending);
+                if (value == null) {
+                    return create(owner, supplier, pending);
+                }
+
+                pending.unlock();
+            }
+
+            if (!(value instanceof Pending pending)) {
+                return (T) value;
+            }
+
+            if (pending.isHeldByCurrentThread()) {
+                throw elementException("Scoped dependency depends on itself");
+            }
+
+            //wait for the creating thread; if creation failed, the next iteration tries again
+            pending.lock();
+            pending.unlock();
+        }
+    }
+
+    private <T> T create(final Object owner, final Supplier<? extends T> supplier, final Pending pending) {
+        boolean created = false;
+        try {
+            final T value = Objects.requireNonNull(supplier.get(), "scoped dependency");
+            values.replace(owner, pending, value);
+            created = true;
+            return value;
+        }
+        finally {
+            if (!created) {
+                values.remove(owner, pending);
+            }
+
+            pending.unlock();
+        }
+    }
+}
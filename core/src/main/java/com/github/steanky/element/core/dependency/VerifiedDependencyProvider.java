@@ -0,0 +1,102 @@
+package com.github.steanky.element.core.dependency;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * A {@link DependencyProvider} whose dependencies have been resolved ahead of time, typically by
+ * {@link com.github.steanky.element.core.context.ContextManager#verifyDependencies(DependencyProvider)}. Requests for
+ * pre-resolved keys, whether synchronous or asynchronous, call the resolved {@link Supplier} directly, skipping any
+ * existence or ambiguity checks the delegate provider would otherwise perform. Requests for other keys are forwarded to
+ * the delegate.
+ * <p>
+ * The resolved suppliers are a snapshot; if the delegate can change which dependencies it provides, a new instance
+ * should be created after it changes.
+ */
+public class VerifiedDependencyProvider implements DependencyProvider {
+    private final DependencyProvider delegate;
+    private final Map<TypeKey<?>, Supplier<?>> suppliers;
+    private final Map<TypeKey<?>, Supplier<? extends CompletableFuture<?>>> asyncSuppliers;
+
+    /**
+     * Creates a new instance of this class.
+     *
+     * @param delegate       the provider to forward requests to, for keys which were not resolved ahead of time
+     * @param suppliers      the pre-resolved suppliers, which should have been obtained from
+     *                       {@link DependencyProvider#supplier(TypeKey)} on the delegate
+     * @param asyncSuppliers the pre-resolved asynchronous suppliers, which should have been obtained from
+     *                       {@link DependencyProvider#asyncSupplier(TypeKey)} on the delegate
+     */
+    public VerifiedDependencyProvider(final @NotNull DependencyProvider delegate,
+            final @NotNull Map<? extends TypeKey<?>, ? extends Supplier<?>> suppliers,
+            final @NotNull Map<? extends TypeKey<?>, ? extends Supplier<? extends CompletableFuture<?>>> asyncSuppliers) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.suppliers = Map.copyOf(suppliers);
+        this.asyncSuppliers = Map.copyOf(asyncSuppliers);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <TDependency> TDependency provide(final @NotNull TypeKey<TDependency> key) {
+        final Supplier<?> supplier = suppliers.get(key);
+        if (supplier != null) {
+            return (TDependency) supplier.get();
+        }
+
+        return delegate.provide(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <TDependency> @NotNull CompletableFuture<TDependency> provideAsync(final @NotNull TypeKey<TDependency> key) {
+        final Supplier<? extends CompletableFuture<?>> asyncSupplier = asyncSuppliers.get(key);
+        if (asyncSupplier != null) {
+            return (CompletableFuture<TDependency>) asyncSupplier.get();
+        }
+
+        return delegate.provideAsync(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <TDependency> @NotNull Supplier<TDependency> supplier(final @NotNull TypeKey<TDependency> key) {
+        final Supplier<?> supplier = suppliers.get(key);
+        if (supplier != null) {
+            return (Supplier<TDependency>) supplier;
+        }
+
+        return delegate.supplier(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <TDependency> @NotNull Supplier<CompletableFuture<TDependency>> asyncSupplier(
+            final @NotNull TypeKey<TDependency> key) {
+        final Supplier<? extends CompletableFuture<?>> asyncSupplier = asyncSuppliers.get(key);
+        if (asyncSupplier != null) {
+            return (Supplier<CompletableFuture<TDependency>>) asyncSupplier;
+        }
+
+        return delegate.asyncSupplier(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <TDependency> @NotNull Provider<TDependency> provider(final @NotNull TypeKey<TDependency> key) {
+        final Supplier<?> supplier = suppliers.get(key);
+        if (supplier != null) {
+            return DependencyScope.bind(() -> (TDependency) supplier.get());
+        }
+
+        return delegate.provider(key);
+    }
+
+    @Override
+    public boolean hasDependency(final @NotNull TypeKey<?> key) {
+        return suppliers.containsKey(key) || delegate.hasDependency(key);
+    }
+}
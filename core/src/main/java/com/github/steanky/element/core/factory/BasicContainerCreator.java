@@ -3,20 +3,28 @@ package com.github.steanky.element.core.factory;
 import com.github.steanky.ethylene.mapper.type.Token;
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Array;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 
 import static com.github.steanky.element.core.util.Validate.elementException;
 
 /**
- * Basic implementation of {@link ContainerCreator}.
+ * Basic implementation of {@link ContainerCreator}. Container constructors are resolved once per requested type and
+ * cached, so repeated calls to {@link BasicContainerCreator#createContainer(Class, int)} do not perform any reflective
+ * lookups.
  */
 public class BasicContainerCreator implements ContainerCreator {
     private static final Token<?> COLLECTION = Token.ofClass(Collection.class);
 
+    private static final MethodType SIZED_CONSTRUCTOR = MethodType.methodType(void.class, int.class);
+
     private static final Function<? super Class<?>, ? extends Class<?>> DEFAULT_RESOLVER = type -> {
         if (type.equals(List.class) || type.equals(Collection.class)) {
             return ArrayList.class;
@@ -29,15 +37,48 @@ public class BasicContainerCreator implements ContainerCreator {
         return null;
     };
 
+    private static final Map<Class<?>, IntFunction<?>> KNOWN_CONSTRUCTORS = Map.of(ArrayList.class,
+            (IntFunction<?>) ArrayList::new, HashSet.class, (IntFunction<?>) HashSet::new, LinkedHashSet.class,
+            (IntFunction<?>) LinkedHashSet::new, ArrayDeque.class, (IntFunction<?>) ArrayDeque::new, Vector.class,
+            (IntFunction<?>) Vector::new);
+
     private final Function<? super Class<?>, ? extends Class<?>> resolverFunction;
+    private final boolean compact;
+    private final Map<Class<?>, IntFunction<?>> constructorCache;
 
     /**
      * Creates a new instance of this class given the provided resolver {@link Function}.
      *
+     * @param resolverFunction the resolver function used to resolve concrete classes from abstract types
+     * @param compact          if true, requests for {@link List} or {@link Collection} containers will produce compact
+     *                         lists, backed by an array of exactly the requested size, which become unmodifiable once
+     *                         they are filled; empty compact lists are always unmodifiable
+     */
+    public BasicContainerCreator(final @NotNull Function<? super Class<?>, ? extends Class<?>> resolverFunction,
+            final boolean compact) {
+        this.resolverFunction = Objects.requireNonNull(resolverFunction);
+        this.compact = compact;
+        this.constructorCache = new ConcurrentHashMap<>(4);
+    }
+
+    /**
+     * Creates a new instance of this class given the provided resolver {@link Function}. Compact lists will not be
+     * used.
+     *
      * @param resolverFunction the resolver function used to resolve concrete classes from abstract types.
      */
     public BasicContainerCreator(final @NotNull Function<? super Class<?>, ? extends Class<?>> resolverFunction) {
-        this.resolverFunction = Objects.requireNonNull(resolverFunction);
+        this(resolverFunction, false);
+    }
+
+    /**
+     * Convenience overload; uses the default resolver {@link Function} to resolve classes.
+     *
+     * @param compact if true, requests for {@link List} or {@link Collection} containers will produce compact lists
+     * @see BasicContainerCreator#BasicContainerCreator(Function, boolean)
+     */
+    public BasicContainerCreator(final boolean compact) {
+        this(DEFAULT_RESOLVER, compact);
     }
 
     /**
@@ -45,11 +86,35 @@ public class BasicContainerCreator implements ContainerCreator {
      * use {@link ArrayList} for {@link List} and {@link Collection} types, and {@link HashSet} for {@link Set} types.
      */
     public BasicContainerCreator() {
-        this(DEFAULT_RESOLVER);
+        this(DEFAULT_RESOLVER, false);
     }
 
     @Override
     public @NotNull Object createContainer(final @NotNull Class<?> type, final int initialSize) {
+        IntFunction<?> constructor = constructorCache.get(type);
+        if (constructor == null) {
+            //the constructor does not depend on the size, so it's fine if multiple threads resolve it at once
+            constructor = resolveConstructor(type);
+            final IntFunction<?> oldConstructor = constructorCache.putIfAbsent(type, constructor);
+            if (oldConstructor != null) {
+                constructor = oldConstructor;
+            }
+        }
+
+        return constructor.apply(initialSize);
+    }
+
+    private IntFunction<?> resolveConstructor(final Class<?> type) {
+        if (type.isArray()) {
+            final Class<?> componentType = type.componentType();
+            return size -> Array.newInstance(componentType, size);
+        }
+
+        if (compact && (type.equals(List.class) || type.equals(Collection.class))) {
+            //an empty compact list is already full, so use the shared immutable list
+            return size -> size == 0 ? List.of() : new CompactList<>(size);
+        }
+
         Class<?> desiredClass = type;
         if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
             desiredClass = resolverFunction.apply(type);
@@ -58,7 +123,8 @@ public class BasicContainerCreator implements ContainerCreator {
             }
 
             if (desiredClass.isArray()) {
-                return Array.newInstance(desiredClass.componentType(), initialSize);
+                final Class<?> componentType = desiredClass.componentType();
+                return size -> Array.newInstance(componentType, size);
             }
 
             if (desiredClass.isInterface() || Modifier.isAbstract(desiredClass.getModifiers())) {
@@ -70,12 +136,28 @@ public class BasicContainerCreator implements ContainerCreator {
             }
         }
 
+        final IntFunction<?> knownConstructor = KNOWN_CONSTRUCTORS.get(desiredClass);
+        if (knownConstructor != null) {
+            return knownConstructor;
+        }
+
+        final MethodHandle constructorHandle;
         try {
-            return desiredClass.getConstructor(int.class).newInstance(initialSize);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException |
-                NoSuchMethodException e) {
+            constructorHandle = MethodHandles.publicLookup().findConstructor(desiredClass, SIZED_CONSTRUCTOR)
+                    .asType(MethodType.methodType(Object.class, int.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
             throw elementException(e, "Failed to instantiate container");
         }
+
+        return size -> {
+            try {
+                return (Object) constructorHandle.invokeExact(size);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw elementException(e, "Failed to instantiate container");
+            }
+        };
     }
 
     @Override
@@ -98,6 +180,42 @@ public class BasicContainerCreator implements ContainerCreator {
     @Override
     public boolean isContainerType(final @NotNull Token<?> type) {
         Objects.requireNonNull(type);
-        return resolverFunction.apply(type.rawType()) != null;
+        return type.isArrayType() || resolverFunction.apply(type.rawType()) != null;
+    }
+
+    /**
+     * A list backed by an array whose length is exactly equal to the number of elements it is meant to hold. Elements
+     * may be added until the capacity is reached, after which the list is effectively unmodifiable. Removal and
+     * replacement are never supported.
+     */
+    private static final class CompactList<T> extends AbstractList<T> implements RandomAccess {
+        private final Object[] elements;
+        private int size;
+
+        private CompactList(final int capacity) {
+            this.elements = new Object[capacity];
+        }
+
+        @Override
+        public boolean add(final T element) {
+            if (size == elements.length) {
+                throw new UnsupportedOperationException("Compact list is full");
+            }
+
+            elements[size++] = element;
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T get(final int index) {
+            Objects.checkIndex(index, size);
+            return (T) elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
     }
 }
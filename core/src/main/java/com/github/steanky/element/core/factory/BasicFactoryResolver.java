@@ -1,15 +1,16 @@
 package com.github.steanky.element.core.factory;
 
+import com.github.steanky.element.core.ElementBinding;
 import com.github.steanky.element.core.ElementException;
 import com.github.steanky.element.core.ElementFactory;
-import com.github.steanky.element.core.annotation.Child;
-import com.github.steanky.element.core.annotation.DataObject;
-import com.github.steanky.element.core.annotation.Depend;
 import com.github.steanky.element.core.annotation.FactoryMethod;
 import com.github.steanky.element.core.context.ElementContext;
 import com.github.steanky.element.core.dependency.DependencyProvider;
-import com.github.steanky.element.core.key.Constants;
+import com.github.steanky.element.core.jfr.DependencyEvent;
+import com.github.steanky.element.core.jfr.InstantiateEvent;
 import com.github.steanky.element.core.key.KeyParser;
+import com.github.steanky.element.core.util.ParameterClassifier;
+import com.github.steanky.element.core.util.PathUtils;
 import com.github.steanky.ethylene.core.ConfigElement;
 import com.github.steanky.ethylene.core.collection.ConfigList;
 import com.github.steanky.ethylene.core.collection.ConfigNode;
@@ -22,15 +23,15 @@ import com.github.steanky.ethylene.mapper.annotation.Default;
 import com.github.steanky.ethylene.mapper.type.Token;
 import net.kyori.adventure.key.Key;
 import org.apache.commons.lang3.mutable.Mutable;
-import org.intellij.lang.annotations.Subst;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 import static com.github.steanky.element.core.util.Validate.*;
 
@@ -39,15 +40,24 @@ import static com.github.steanky.element.core.util.Validate.*;
  * {@code public static} method annotated with {@link FactoryMethod}) or factory constructors.
  */
 public class BasicFactoryResolver implements FactoryResolver {
+    /**
+     * The default maximum number of string redirects that will be followed when resolving a single child element.
+     */
+    public static final int DEFAULT_REDIRECT_LIMIT = 256;
+
     private final KeyParser keyParser;
     private final ContainerCreator containerCreator;
     private final MappingProcessorSource processorSource;
+    private final int redirectLimit;
 
     private final class GenericFactory implements ElementFactory<Object, Object> {
+        private static final int SINGLE = -1;
+
         private final Constructor<?> factoryConstructor;
         private final ElementParameter[] parameters;
         private final boolean requiresData;
         private final ConfigNode defaultValues;
+        private final List<DependencyProvider.TypeKey<?>> dependencies;
 
         private GenericFactory(final Constructor<?> factoryConstructor, final ElementParameter[] parameters,
                 final boolean requiresData, final ConfigNode defaultValues) {
@@ -55,12 +65,106 @@ public class BasicFactoryResolver implements FactoryResolver {
             this.parameters = parameters;
             this.requiresData = requiresData;
             this.defaultValues = defaultValues;
+
+            final List<DependencyProvider.TypeKey<?>> dependencies = new ArrayList<>(parameters.length);
+            for (ElementParameter parameter : parameters) {
+                //Supplier parameters can be satisfied in more than one way, so they can't be verified in advance
+                if (parameter.type == ParameterType.DEPENDENCY ||
+                        (parameter.type == ParameterType.PROVIDER && parameter.wrapperKey == null)) {
+                    dependencies.add(parameter.typeKey);
+                }
+            }
+
+            this.dependencies = List.copyOf(dependencies);
+        }
+
+        @Override
+        public @NotNull @Unmodifiable Collection<DependencyProvider.TypeKey<?>> dependencies() {
+            return dependencies;
         }
 
         @NotNull
         @Override
         public Object make(final Object objectData, final @NotNull ConfigPath configPath, final @NotNull ElementContext context,
                 final @NotNull DependencyProvider dependencyProvider) {
+            final Stage<Object> stage = stage(objectData, configPath, context, dependencyProvider);
+
+            final Object[] children = new Object[stage.childCount()];
+            try {
+                for (int i = 0; i < children.length; i++) {
+                    children[i] = context.provide(stage.childPath(i), stage.childData(i), dependencyProvider, false);
+                }
+            }
+            catch (ElementException exception) {
+                stage.handleException(exception);
+                throw exception;
+            }
+
+            return stage.build(children);
+        }
+
+        @Override
+        public @NotNull Stage<Object> stage(final Object objectData, final @NotNull ConfigPath configPath,
+                final @NotNull ElementContext context, final @NotNull DependencyProvider dependencyProvider) {
+            return stage(objectData, configPath, context, dependencyProvider, null);
+        }
+
+        @Override
+        public @NotNull CompletableFuture<Stage<Object>> stageAsync(final Object objectData,
+                final @NotNull ConfigPath configPath, final @NotNull ElementContext context,
+                final @NotNull DependencyProvider dependencyProvider) {
+            final CompletableFuture<?>[] futures = new CompletableFuture[parameters.length];
+            final List<CompletableFuture<?>> pending = new ArrayList<>(parameters.length);
+            for (int i = 0; i < parameters.length; i++) {
+                final ElementParameter parameter = parameters[i];
+                if (parameter.type != ParameterType.DEPENDENCY) {
+                    continue;
+                }
+
+                //request all dependencies at once, so they can be resolved in parallel
+                CompletableFuture<?> future;
+                try {
+                    future = dependencyProvider.provideAsync(parameter.typeKey);
+                }
+                catch (ElementException exception) {
+                    future = CompletableFuture.failedFuture(exception);
+                }
+
+                futures[i] = future;
+                pending.add(future);
+            }
+
+            if (pending.isEmpty()) {
+                return ElementFactory.super.stageAsync(objectData, configPath, context, dependencyProvider);
+            }
+
+            return CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).handle((ignored, error) -> {
+                if (error != null) {
+                    final Throwable cause = error instanceof CompletionException && error.getCause() != null ?
+                            error.getCause() : error;
+
+                    final ElementException exception = cause instanceof ElementException elementException ?
+                            elementException : elementException(cause, factoryConstructor.getDeclaringClass(),
+                            configPath, "Failed to resolve dependency");
+
+                    exception.setConfigPath(configPath);
+                    exception.setElementClass(factoryConstructor.getDeclaringClass());
+                    throw exception;
+                }
+
+                final Object[] dependencies = new Object[futures.length];
+                for (int i = 0; i < futures.length; i++) {
+                    if (futures[i] != null) {
+                        dependencies[i] = futures[i].join();
+                    }
+                }
+
+                return stage(objectData, configPath, context, dependencyProvider, dependencies);
+            });
+        }
+
+        private Stage<Object> stage(final Object objectData, final ConfigPath configPath, final ElementContext context,
+                final DependencyProvider dependencyProvider, final Object[] resolvedDependencies) {
             if (requiresData && objectData == null) {
                 throw elementException(factoryConstructor.getDeclaringClass(), configPath,
                         "Element requires data, but none was provided");
@@ -78,22 +182,42 @@ public class BasicFactoryResolver implements FactoryResolver {
             ConfigNode ourData = null;
 
             final Object[] args = new Object[parameters.length];
+            final int[] childStarts = new int[parameters.length];
+            final int[] childCounts = new int[parameters.length];
+            final List<ChildRequest> requests = new ArrayList<>(parameters.length);
 
             try {
                 for (int i = 0; i < args.length; i++) {
                     final ElementParameter parameter = parameters[i];
 
-                    args[i] = switch (parameter.type) {
-                        case DATA -> objectData;
+                    switch (parameter.type) {
+                        case DATA -> args[i] = objectData;
                         case DEPENDENCY -> {
+                            if (resolvedDependencies != null) {
+                                args[i] = resolvedDependencies[i];
+                                continue;
+                            }
+
+                            final DependencyEvent event = DependencyEvent.start();
                             try {
-                                yield dependencyProvider.provide(parameter.typeKey);
+                                args[i] = dependencyProvider.provide(parameter.typeKey);
                             }
                             catch (ElementException exception) {
                                 exception.setConfigPath(configPath);
                                 exception.setElementClass(factoryConstructor.getDeclaringClass());
                                 throw exception;
                             }
+
+                            DependencyEvent.end(event, factoryConstructor.getDeclaringClass(), parameter.typeKey);
+                        }
+                        case PROVIDER -> {
+                            if (parameter.wrapperKey != null && dependencyProvider.hasDependency(parameter.wrapperKey)) {
+                                args[i] = dependencyProvider.provide(parameter.wrapperKey);
+                            }
+                            else {
+                                //don't resolve the dependency until it is actually needed
+                                args[i] = dependencyProvider.provider(parameter.typeKey);
+                            }
                         }
                         case CHILD -> {
                             if (ourData == null) {
@@ -104,15 +228,12 @@ public class BasicFactoryResolver implements FactoryResolver {
                                 }
                             }
 
-                            final ConfigPath absoluteChildDataPath = configPath.resolve(parameter.childPath);
-                            final boolean isContainer = containerCreator
-                                    .isContainerType(Token.ofType(parameter.parameter.getParameterizedType()));
-
-                            //recursively resolve child elements
-                            yield child(parameter, configPath, configPath, ourData, context, absoluteChildDataPath,
-                                    dependencyProvider, isContainer);
+                            //only determine what children are needed here, they are constructed by the caller
+                            childStarts[i] = requests.size();
+                            childCounts[i] = requestChildren(configPath, ourData, context,
+                                    configPath.resolve(parameter.childPath), null, parameter.isContainer, requests);
                         }
-                    };
+                    }
                 }
             }
             catch (ElementException exception) {
@@ -121,82 +242,207 @@ public class BasicFactoryResolver implements FactoryResolver {
                 throw exception;
             }
 
-            try {
-                return factoryConstructor.newInstance(args);
-            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-                throw elementException(e, factoryConstructor.getDeclaringClass(), configPath, "Error instantiating element");
-            }
+            return new GenericStage(configPath, args, childStarts, childCounts, requests);
         }
 
-        @SuppressWarnings("unchecked")
-        private Object child(ElementParameter parameter, ConfigPath dataPath, ConfigPath defaultingPath,
-                ConfigNode defaultingData, ElementContext context, ConfigPath absoluteChildDataPath,
-                DependencyProvider dependencyProvider, boolean isContainer) {
-            final ConfigElement childData;
+        private int requestChildren(final ConfigPath dataPath, final ConfigNode data, final ElementContext context,
+                final ConfigPath childPath, final ConfigElement knownChildData, final boolean isContainer,
+                final List<ChildRequest> requests) {
+            ConfigPath currentPath = childPath;
+            ConfigElement currentData = knownChildData;
+
+            int redirects = 0;
+            Set<ConfigPath> visited = null;
+            while (true) {
+                if (currentData == null) {
+                    currentData = followChild(dataPath, data, context, currentPath);
+                }
 
-            try {
-                if (absoluteChildDataPath.startsWith(defaultingPath)) {
-                    childData = defaultingData.atOrThrow(dataPath.relativize(absoluteChildDataPath).toAbsolute());
+                if (currentData.isNode()) {
+                    //simple case: child is a node
+                    requests.add(new ChildRequest(currentPath, currentData.asNode()));
+                    return SINGLE;
                 }
-                else {
-                    childData = context.root().atOrThrow(absoluteChildDataPath);
+
+                if (currentData.isList()) {
+                    final ConfigList childList = currentData.asList();
+                    if (isContainer) {
+                        for (int i = 0; i < childList.size(); i++) {
+                            requestChildren(dataPath, data, context, PathUtils.appendIndex(currentPath, i),
+                                    childList.get(i), false, requests);
+                        }
+
+                        return childList.size();
+                    }
+
+                    if (childList.isEmpty()) {
+                        throw elementException(factoryConstructor.getDeclaringClass(), currentPath,
+                                "Empty list provided for a non-container child");
+                    }
+
+                    currentPath = PathUtils.appendIndex(currentPath, 0);
+                    currentData = childList.get(0);
+                    continue;
                 }
 
-                if (childData.isNode()) {
-                    //simple case: child is a node
-                    return context.provide(absoluteChildDataPath, childData.asNode(), dependencyProvider, false);
+                if (currentData.isString()) {
+                    final ConfigPath childRedirect = currentPath.resolveSibling(currentData.asString());
+                    if (!childRedirect.isAbsolute()) {
+                        throw elementException(factoryConstructor.getDeclaringClass(), currentPath,
+                                "Child redirect points outside of root");
+                    }
+
+                    if (++redirects > redirectLimit) {
+                        throw elementException(factoryConstructor.getDeclaringClass(), childPath,
+                                "Child redirect chain exceeds the limit of " + redirectLimit);
+                    }
+
+                    if (visited == null) {
+                        visited = new HashSet<>(4);
+                        visited.add(currentPath);
+                    }
+
+                    if (!visited.add(childRedirect)) {
+                        throw elementException(factoryConstructor.getDeclaringClass(), childPath,
+                                "Cyclic child redirect through " + childRedirect);
+                    }
+
+                    currentPath = childRedirect;
+                    currentData = null;
+                    continue;
+                }
+
+                throw elementException(factoryConstructor.getDeclaringClass(), currentPath,
+                        "Unexpected element in child hierarchy " + currentData);
+            }
+        }
+
+        private ConfigElement followChild(final ConfigPath dataPath, final ConfigNode data,
+                final ElementContext context, final ConfigPath childPath) {
+            try {
+                if (childPath.startsWith(dataPath)) {
+                    return data.atOrThrow(dataPath.relativize(childPath).toAbsolute());
                 }
+
+                return context.root().atOrThrow(childPath);
             }
             catch (ConfigProcessException exception) {
-                throw elementException(exception, factoryConstructor.getDeclaringClass(), absoluteChildDataPath,
+                throw elementException(exception, factoryConstructor.getDeclaringClass(), childPath,
                         "Failure to follow path");
             }
+        }
 
-            if (childData.isList()) {
-                final ConfigList childList = childData.asList();
-                if (isContainer) {
-                    final Collection<Object> listOutput;
-                    try {
-                        listOutput = (Collection<Object>) containerCreator
-                                .createContainer(parameter.parameter.getType(), childList.size());
-                    }
-                    catch (ElementException exception) {
-                        exception.setElementClass(factoryConstructor.getDeclaringClass());
-                        exception.setConfigPath(absoluteChildDataPath);
-                        throw exception;
-                    }
+        private final class GenericStage implements Stage<Object> {
+            private final ConfigPath configPath;
+            private final Object[] args;
+            private final int[] childStarts;
+            private final int[] childCounts;
+            private final List<ChildRequest> requests;
+
+            private GenericStage(final ConfigPath configPath, final Object[] args, final int[] childStarts,
+                    final int[] childCounts, final List<ChildRequest> requests) {
+                this.configPath = configPath;
+                this.args = args;
+                this.childStarts = childStarts;
+                this.childCounts = childCounts;
+                this.requests = requests;
+            }
 
-                    for (int i = 0; i < childList.size(); i++) {
-                        final ConfigPath absoluteConfigPath = absoluteChildDataPath.append(Integer.toString(i));
-                        listOutput.add(child(parameter, dataPath, defaultingPath, defaultingData, context,
-                                absoluteConfigPath, dependencyProvider, false));
-                    }
+            @Override
+            public int childCount() {
+                return requests.size();
+            }
+
+            @Override
+            public @NotNull ConfigPath childPath(final int index) {
+                return requests.get(index).path;
+            }
+
+            @Override
+            public @NotNull ConfigNode childData(final int index) {
+                return requests.get(index).data;
+            }
+
+            @Override
+            public @NotNull Object build(final @NotNull Object @NotNull [] children) {
+                try {
+                    for (int i = 0; i < parameters.length; i++) {
+                        final ElementParameter parameter = parameters[i];
+                        if (parameter.type != ParameterType.CHILD) {
+                            continue;
+                        }
 
-                    return listOutput;
+                        final int start = childStarts[i];
+                        final int count = childCounts[i];
+                        args[i] = count == SINGLE ? children[start] : container(parameter, children, start, count);
+                    }
+                }
+                catch (ElementException exception) {
+                    handleException(exception);
+                    throw exception;
                 }
 
-                if (childList.isEmpty()) {
-                    throw elementException(factoryConstructor.getDeclaringClass(), absoluteChildDataPath,
-                            "Empty list provided for a non-container child");
+                final InstantiateEvent event = InstantiateEvent.start();
+
+                final Object element;
+                try {
+                    element = factoryConstructor.newInstance(args);
+                } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                    throw elementException(e, factoryConstructor.getDeclaringClass(), configPath,
+                            "Error instantiating element");
                 }
 
-                return child(parameter, dataPath, defaultingPath, defaultingData, context,
-                        absoluteChildDataPath.append("0"), dependencyProvider, false);
+                InstantiateEvent.end(event, factoryConstructor.getDeclaringClass(), configPath);
+                return element;
+            }
+
+            @Override
+            public void handleException(final @NotNull ElementException exception) {
+                exception.setElementClass(factoryConstructor.getDeclaringClass());
+                exception.setConfigPath(configPath);
             }
 
-            if (childData.isString()) {
-                final ConfigPath childRedirect = absoluteChildDataPath.resolveSibling(childData.asString());
-                if (!childRedirect.isAbsolute()) {
-                    throw elementException(factoryConstructor.getDeclaringClass(), absoluteChildDataPath,
-                            "Child redirect points outside of root");
+            @SuppressWarnings("unchecked")
+            private Object container(final ElementParameter parameter, final Object[] children, final int start,
+                    final int count) {
+                final Object container = containerCreator.createContainer(parameter.parameter.getType(), count);
+
+                if (container instanceof Object[] arrayOutput) {
+                    for (int i = 0; i < count; i++) {
+                        try {
+                            arrayOutput[i] = children[start + i];
+                        }
+                        catch (ArrayStoreException exception) {
+                            throw elementException(exception, factoryConstructor.getDeclaringClass(),
+                                    requests.get(start + i).path, "Child element is not assignable to the array type");
+                        }
+                    }
+
+                    return arrayOutput;
                 }
 
-                return child(parameter, dataPath, defaultingPath, defaultingData, context, childRedirect,
-                        dependencyProvider, isContainer);
-            }
+                if (container.getClass().isArray()) {
+                    //primitive arrays: rely on Array#set to perform unboxing
+                    for (int i = 0; i < count; i++) {
+                        try {
+                            Array.set(container, i, children[start + i]);
+                        }
+                        catch (IllegalArgumentException exception) {
+                            throw elementException(exception, factoryConstructor.getDeclaringClass(),
+                                    requests.get(start + i).path, "Child element is not assignable to the array type");
+                        }
+                    }
+
+                    return container;
+                }
 
-            throw elementException(factoryConstructor.getDeclaringClass(), absoluteChildDataPath,
-                    "Unexpected element in child hierarchy " + childData);
+                final Collection<Object> listOutput = (Collection<Object>) container;
+                for (int i = 0; i < count; i++) {
+                    listOutput.add(children[start + i]);
+                }
+
+                return listOutput;
+            }
         }
     }
 
@@ -210,12 +456,36 @@ public class BasicFactoryResolver implements FactoryResolver {
      *                          implementations on-demand for data classes.
      *                          {@link MappingProcessorSource.Builder#ignoringLengths()} should be used to avoid issues
      *                          when deserializing composite elements
+     * @param redirectLimit     the maximum number of string redirects that will be followed when resolving a single
+     *                          child element; must be non-negative
      */
     public BasicFactoryResolver(final @NotNull KeyParser keyParser,
-            final @NotNull ContainerCreator collectionCreator, final @NotNull MappingProcessorSource processorSource) {
+            final @NotNull ContainerCreator collectionCreator, final @NotNull MappingProcessorSource processorSource,
+            final int redirectLimit) {
+        if (redirectLimit < 0) {
+            throw new IllegalArgumentException("redirectLimit must be non-negative");
+        }
+
         this.keyParser = Objects.requireNonNull(keyParser);
         this.containerCreator = Objects.requireNonNull(collectionCreator);
         this.processorSource = Objects.requireNonNull(processorSource);
+        this.redirectLimit = redirectLimit;
+    }
+
+    /**
+     * Creates a new instance of this class, using {@link BasicFactoryResolver#DEFAULT_REDIRECT_LIMIT} as the redirect
+     * limit.
+     *
+     * @param keyParser         the {@link KeyParser} implementation used to interpret strings as keys
+     * @param collectionCreator the {@link ContainerCreator} used to reflectively create collection instances when
+     *                          necessary, when requiring multiple element dependencies
+     * @param processorSource   the {@link MappingProcessorSource} used to create {@link ConfigProcessor}
+     *                          implementations on-demand for data classes
+     * @see BasicFactoryResolver#BasicFactoryResolver(KeyParser, ContainerCreator, MappingProcessorSource, int)
+     */
+    public BasicFactoryResolver(final @NotNull KeyParser keyParser,
+            final @NotNull ContainerCreator collectionCreator, final @NotNull MappingProcessorSource processorSource) {
+        this(keyParser, collectionCreator, processorSource, DEFAULT_REDIRECT_LIMIT);
     }
 
     @Override
@@ -264,22 +534,69 @@ public class BasicFactoryResolver implements FactoryResolver {
             return factory;
         }
 
-        final ElementParameter[] parameters = extractParameters(factoryConstructor.first);
+        final List<ParameterClassifier.Classified> classified = ParameterClassifier.classify(factoryConstructor.first,
+                keyParser);
+        final ElementParameter[] parameters = new ElementParameter[classified.size()];
+        for (int i = 0; i < parameters.length; i++) {
+            final ParameterClassifier.Classified parameter = classified.get(i);
+            final boolean isContainer = parameter.kind() == ElementBinding.Kind.CHILD &&
+                    containerCreator.isContainerType(Token.ofType(parameter.parameter().getParameterizedType()));
+            parameters[i] = elementParameter(elementClass, parameter.parameter(), parameter.kind(), parameter.value(),
+                    isContainer);
+        }
 
-        final ElementParameter dataParameter = extractDataParameter(parameters, elementClass);
+        final Class<?> dataClass = ParameterClassifier.dataClass(elementClass, classified);
+        return makeFactory(factoryConstructor.first, parameters, dataClass, extractDefaults(elementClass),
+                dataClass != null ? extractDefaults(dataClass) : ConfigNode.EMPTY, processor);
+    }
 
-        final Class<?> dataClass = identifyDataClass(elementClass, dataParameter);
+    @Override
+    public @NotNull ElementFactory<?, ?> resolveFactory(final @NotNull Class<?> elementClass,
+            final @NotNull ElementBinding binding, final @NotNull Mutable<ConfigProcessor<?>> processor) {
+        if (!binding.constructor()) {
+            return resolveFactory(elementClass, processor);
+        }
+
+        //the binding was validated when it was generated, and already records everything that would otherwise be found
+        //reflectively; the constructor itself is still needed to construct the element
+        final List<ElementBinding.Parameter> boundParameters = binding.parameters();
+        final ClassLoader classLoader = elementClass.getClassLoader();
+        final Class<?>[] parameterTypes = new Class<?>[boundParameters.size()];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            parameterTypes[i] = ElementBinding.loadClass(boundParameters.get(i).typeName(), classLoader);
+        }
+
+        final Constructor<?> constructor;
+        try {
+            constructor = elementClass.getConstructor(parameterTypes);
+        }
+        catch (NoSuchMethodException e) {
+            throw elementException(e, elementClass, "Binding does not match any public constructor");
+        }
 
+        final Parameter[] constructorParameters = constructor.getParameters();
+        final ElementParameter[] parameters = new ElementParameter[constructorParameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            final ElementBinding.Parameter boundParameter = boundParameters.get(i);
+            parameters[i] = elementParameter(elementClass, constructorParameters[i], boundParameter.kind(),
+                    boundParameter.value(), boundParameter.container());
+        }
+
+        final String dataClassName = binding.dataClass();
+        final Class<?> dataClass = dataClassName == null ? null : ElementBinding.loadClass(dataClassName, classLoader);
+        return makeFactory(constructor, parameters, dataClass, parseDefaults(elementClass, binding.defaults()),
+                dataClass != null ? parseDefaults(dataClass, binding.dataDefaults()) : ConfigNode.EMPTY, processor);
+    }
+
+    private ElementFactory<?, ?> makeFactory(final Constructor<?> constructor, final ElementParameter[] parameters,
+            final Class<?> dataClass, final ConfigNode elementClassDefaults, final ConfigNode dataClassDefaults,
+            final Mutable<ConfigProcessor<?>> processor) {
         if (dataClass != null && processor.getValue() == null) {
             processor.setValue(processorSource.processorFor(dataClass));
         }
 
-        final ConfigNode elementClassDefaults = extractDefaults(elementClass);
-        final ConfigNode dataClassDefaults = dataClass != null ? extractDefaults(dataClass) : ConfigNode.EMPTY;
-
         final ConfigNode combinedDefaults = mergeDefaults(elementClassDefaults, dataClassDefaults);
-
-        return new GenericFactory(factoryConstructor.first, parameters, dataClass != null, combinedDefaults);
+        return new GenericFactory(constructor, parameters, dataClass != null, combinedDefaults);
     }
 
     private static ConfigNode mergeDefaults(ConfigNode highPriority, ConfigNode lowPriority) {
@@ -297,13 +614,17 @@ public class BasicFactoryResolver implements FactoryResolver {
         return finalNode.immutableCopy();
     }
 
-    private static ConfigNode extractDefaults(Class<?> cls) {
+    private static ConfigNode extractDefaults(final Class<?> cls) {
         final Default classDefaultAnnotation = cls.getAnnotation(Default.class);
-        if (classDefaultAnnotation == null) {
+        return classDefaultAnnotation == null ? ConfigNode.EMPTY : parseDefaults(cls, classDefaultAnnotation.value());
+    }
+
+    private static ConfigNode parseDefaults(final Class<?> cls, final String defaults) {
+        if (defaults == null) {
             return ConfigNode.EMPTY;
         }
 
-        final ConfigElement element = ConfigElement.of(classDefaultAnnotation.value());
+        final ConfigElement element = ConfigElement.of(defaults);
         if (!element.isNode()) {
             throw elementException(cls, "Default annotation must be a node");
         }
@@ -312,127 +633,48 @@ public class BasicFactoryResolver implements FactoryResolver {
         return node.isEmpty() ? ConfigNode.EMPTY : node;
     }
 
-    private static ElementParameter extractDataParameter(ElementParameter[] parameters, Class<?> cls) {
-        ElementParameter dataParameter = null;
-        Map<String, ElementParameter> childMap = null;
-        for (ElementParameter parameter : parameters) {
-            if (parameter.type == ParameterType.DATA) {
-                if (dataParameter != null) {
-                    throw elementException(cls, "Multiple data parameters");
-                }
-
-                dataParameter = parameter;
-            }
-            else if (parameter.type == ParameterType.CHILD) {
-                Child child = parameter.parameter.getAnnotation(Child.class);
-
-                String childKeyString = child.value();
-                if (childMap == null) {
-                    childMap = new HashMap<>(parameters.length);
-                }
-
-                if (childMap.putIfAbsent(childKeyString, parameter) != null) {
-                    throw elementException(cls, "Duplicate @Child key " + childKeyString);
-                }
-            }
-        }
-
-        return dataParameter;
-    }
-
-    private static Class<?> identifyDataClass(final Class<?> elementClass, final ElementParameter dataParameter) {
-        if (dataParameter != null) {
-            return dataParameter.parameter.getType();
-        }
-
-        Class<?> dataClass = null;
-        for (Class<?> declaredClass : elementClass.getDeclaredClasses()) {
-            if (declaredClass.isAnnotationPresent(DataObject.class)) {
-                if (dataClass != null) {
-                    throw elementException(elementClass, "Multiple @DataObject member classes");
-                }
-
-                dataClass = declaredClass;
-            }
-        }
-
-        return dataClass;
-    }
-
     private enum ParameterType {
         DATA,
         DEPENDENCY,
+        PROVIDER,
         CHILD
     }
 
     private record ElementParameter(Parameter parameter, ParameterType type, DependencyProvider.TypeKey<?> typeKey,
-            ConfigPath childPath) {}
-
-    private record SearchResult<T, V>(T first, V second) {}
-
-    private ElementParameter[] extractParameters(final Executable executable) {
-        final Parameter[] parameters = executable.getParameters();
-        final ElementParameter[] elementParameters = new ElementParameter[parameters.length];
-        for (int i = 0; i < parameters.length; i++) {
-            final Parameter parameter = parameters[i];
+            DependencyProvider.TypeKey<?> wrapperKey, ConfigPath childPath, boolean isContainer) {}
 
-            final boolean isData = isData(parameter);
-            final Child childAnnotation = parameter.getDeclaredAnnotation(Child.class);
+    private record ChildRequest(ConfigPath path, ConfigNode data) {}
 
-            final Depend classDepend = parameter.getType().getDeclaredAnnotation(Depend.class);
-            final Depend parameterDepend = parameter.getDeclaredAnnotation(Depend.class);
-
-            if (isData && childAnnotation != null) {
-                throw elementException(executable.getDeclaringClass(), "Parameter " + parameter +
-                        " is both element data and a composite element");
-            }
-
-            final ParameterType type;
-            final DependencyProvider.TypeKey<?> typeKey;
-            final ConfigPath childPath;
-            if ((!isData && childAnnotation == null) || classDepend != null || parameterDepend != null) {
-                type = ParameterType.DEPENDENCY;
-                typeKey = DependencyProvider.key(Token.ofType(parameter.getParameterizedType()),
-                        (classDepend == null && parameterDepend == null) ? null :
-                                determineKey(Objects.requireNonNullElse(parameterDepend, classDepend),
-                                        executable.getDeclaringClass()));
-                childPath = null;
-            }
-            else if (isData) {
-                type = ParameterType.DATA;
-                typeKey = null;
-                childPath = null;
-            }
-            else {
-                type = ParameterType.CHILD;
-                typeKey = null;
-                childPath = ConfigPath.of(childAnnotation.value());
-            }
-
-            elementParameters[i] = new ElementParameter(parameter, type, typeKey, childPath == null ? null :
-                    (childPath.isAbsolute() ? ConfigPath.EMPTY.relativize(childPath) : childPath));
-        }
+    private record SearchResult<T, V>(T first, V second) {}
 
-        return elementParameters;
+    private static ElementParameter elementParameter(final Class<?> elementClass, final Parameter parameter,
+            final ElementBinding.Kind kind, final String value, final boolean isContainer) {
+        return switch (kind) {
+            case DATA -> new ElementParameter(parameter, ParameterType.DATA, null, null, null, false);
+            case DEPENDENCY -> dependencyParameter(parameter, ParameterClassifier.dependencyKey(elementClass, value));
+            case CHILD -> childParameter(parameter, value, isContainer);
+        };
     }
 
-    private Key determineKey(Depend depend, Class<?> cls) {
-        @Subst(Constants.NAMESPACE_OR_KEY)
-        final String value = depend.value();
+    private static ElementParameter dependencyParameter(final Parameter parameter, final Key name) {
+        final Token<?> parameterType = Token.ofType(parameter.getParameterizedType());
+        final boolean lazy = ParameterClassifier.isLazy(parameterType);
+        final Token<?> dependencyType = lazy ? parameterType.actualTypeParameters()[0] : parameterType;
 
-        if (value.equals(Constants.DEFAULT)) {
-            return null;
-        }
-        else if (!keyParser.isValidKey(value)) {
-            throw elementException(cls, "Invalid parameter key " + value);
-        }
+        //Supplier parameters may also be satisfied directly by a supplier dependency, for compatibility
+        final DependencyProvider.TypeKey<?> wrapperKey = lazy && parameterType.rawType().equals(Supplier.class) ?
+                DependencyProvider.key(parameterType, name) : null;
 
-        return Key.key(value);
+        return new ElementParameter(parameter, lazy ? ParameterType.PROVIDER : ParameterType.DEPENDENCY,
+                DependencyProvider.key(dependencyType, name), wrapperKey, null, false);
     }
 
-    private static boolean isData(final Parameter parameter) {
-        return parameter.getType().isAnnotationPresent(DataObject.class) ||
-                parameter.isAnnotationPresent(DataObject.class);
+    //container-ness only depends on the parameter type, so it is determined once rather than on every construction
+    private static ElementParameter childParameter(final Parameter parameter, final String path,
+            final boolean isContainer) {
+        final ConfigPath childPath = ConfigPath.of(path);
+        return new ElementParameter(parameter, ParameterType.CHILD, null, null,
+                childPath.isAbsolute() ? ConfigPath.EMPTY.relativize(childPath) : childPath, isContainer);
     }
 
     private static ElementException duplicateAnnotation(final Class<?> duplicateAnnotation,
@@ -1,5 +1,6 @@
 package com.github.steanky.element.core.factory;
 
+import com.github.steanky.element.core.ElementBinding;
 import com.github.steanky.element.core.ElementFactory;
 import com.github.steanky.element.core.annotation.FactoryMethod;
 import com.github.steanky.ethylene.core.processor.ConfigProcessor;
@@ -23,4 +24,20 @@ public interface FactoryResolver {
      */
     @NotNull ElementFactory<?, ?> resolveFactory(final @NotNull Class<?> elementClass,
             final @NotNull Mutable<ConfigProcessor<?>> processor);
+
+    /**
+     * Resolves a factory from the given class, using a precomputed {@link ElementBinding}. Implementations may use the
+     * binding to avoid searching the class for annotations. The default implementation ignores the binding and calls
+     * {@link FactoryResolver#resolveFactory(Class, Mutable)}.
+     *
+     * @param elementClass the class object from which to extract an {@link ElementFactory} from
+     * @param binding      the binding of the element class
+     * @param processor    a Mutable containing a {@link ConfigProcessor} provided by the given element class; value may
+     *                     be null if no explicit processor is provided
+     * @return the factory
+     */
+    default @NotNull ElementFactory<?, ?> resolveFactory(final @NotNull Class<?> elementClass,
+            final @NotNull ElementBinding binding, final @NotNull Mutable<ConfigProcessor<?>> processor) {
+        return resolveFactory(elementClass, processor);
+    }
 }
@@ -0,0 +1,77 @@
+package com.github.steanky.element.core.jfr;
+
+import com.github.steanky.element.core.dependency.DependencyProvider;
+import jdk.jfr.*;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Flight Recorder event emitted when a generic element factory resolves a dependency needed to construct an element.
+ * <p>
+ * This class is public for cross-package access within Element, but is not part of the public API.
+ */
+@Name(DependencyEvent.NAME)
+@Label("Element Dependency")
+@Category({"Element"})
+@Description("A dependency was resolved for an element")
+@Enabled(false)
+@StackTrace(false)
+@ApiStatus.Internal
+public final class DependencyEvent extends Event {
+    /**
+     * The name of this event type.
+     */
+    public static final String NAME = "com.github.steanky.element.Dependency";
+
+    @Label("Element Class")
+    @Description("The element class requiring the dependency")
+    private Class<?> elementClass;
+
+    @Label("Dependency")
+    @Description("The dependency key, as given by its string representation")
+    private String dependency;
+
+    /**
+     * Begins timing a new event, if this event type is enabled in any running recording. Otherwise, nothing is
+     * allocated, and null is returned.
+     *
+     * @return the new event, or null if it is not enabled
+     */
+    public static @Nullable DependencyEvent start() {
+        if (!Type.INSTANCE.isEnabled()) {
+            return null;
+        }
+
+        final DependencyEvent event = new DependencyEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends timing the given event, and commits it if it meets the recording's threshold.
+     *
+     * @param event        the event previously returned by {@link DependencyEvent#start()}; if null, this method does
+     *                     nothing
+     * @param elementClass the element class requiring the dependency
+     * @param key          the dependency key
+     */
+    public static void end(final @Nullable DependencyEvent event, final @NotNull Class<?> elementClass,
+            final @NotNull DependencyProvider.TypeKey<?> key) {
+        if (event == null) {
+            return;
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.elementClass = elementClass;
+            event.dependency = key.toString();
+            event.commit();
+        }
+    }
+
+    //registered lazily, so that merely loading DependencyEvent does not initialize Flight Recorder
+    private static final class Type {
+        private static final EventType INSTANCE = EventType.getEventType(DependencyEvent.class);
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.steanky.element.core.jfr;
+
+import com.github.steanky.ethylene.core.path.ConfigPath;
+import jdk.jfr.*;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Flight Recorder event emitted when a generic element factory invokes an element's factory constructor. This covers
+ * only the constructor invocation itself, not the construction of child elements or the resolution of dependencies.
+ * <p>
+ * This class is public for cross-package access within Element, but is not part of the public API.
+ */
+@Name(InstantiateEvent.NAME)
+@Label("Element Instantiate")
+@Category({"Element"})
+@Description("An element's factory constructor was invoked")
+@Enabled(false)
+@StackTrace(false)
+@ApiStatus.Internal
+public final class InstantiateEvent extends Event {
+    /**
+     * The name of this event type.
+     */
+    public static final String NAME = "com.github.steanky.element.Instantiate";
+
+    @Label("Element Class")
+    @Description("The element class")
+    private Class<?> elementClass;
+
+    @Label("Path")
+    @Description("The absolute path of the element's configuration")
+    private String path;
+
+    /**
+     * Begins timing a new event, if this event type is enabled in any running recording. Otherwise, nothing is
+     * allocated, and null is returned.
+     *
+     * @return the new event, or null if it is not enabled
+     */
+    public static @Nullable InstantiateEvent start() {
+        if (!Type.INSTANCE.isEnabled()) {
+            return null;
+        }
+
+        final InstantiateEvent event = new InstantiateEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends timing the given event, and commits it if it meets the recording's threshold.
+     *
+     * @param event        the event previously returned by {@link InstantiateEvent#start()}; if null, this method
+     *                     does nothing
+     * @param elementClass the element class
+     * @param path         the absolute path of the element's configuration
+     */
+    public static void end(final @Nullable InstantiateEvent event, final @NotNull Class<?> elementClass,
+            final @NotNull ConfigPath path) {
+        if (event == null) {
+            return;
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.elementClass = elementClass;
+            event.path = path.toString();
+            event.commit();
+        }
+    }
+
+    //registered lazily, so that merely loading InstantiateEvent does not initialize Flight Recorder
+    private static final class Type {
+        private static final EventType INSTANCE = EventType.getEventType(InstantiateEvent.class);
+    }
+}
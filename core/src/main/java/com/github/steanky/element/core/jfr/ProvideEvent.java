@@ -0,0 +1,93 @@
+package com.github.steanky.element.core.jfr;
+
+import com.github.steanky.element.core.context.ElementContext;
+import com.github.steanky.element.core.dependency.DependencyProvider;
+import com.github.steanky.ethylene.core.collection.ConfigNode;
+import com.github.steanky.ethylene.core.path.ConfigPath;
+import jdk.jfr.*;
+import net.kyori.adventure.key.Key;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Flight Recorder event emitted when an {@link ElementContext} provides a single element, whether it was constructed or
+ * taken from the cache. Elements constructed as children of another element produce their own events, whose durations
+ * are included in the duration of their parent's event.
+ * <p>
+ * When an element is constructed incrementally, using {@link ElementContext#beginProvide(ConfigPath, ConfigNode,
+ * DependencyProvider, boolean)}, its event begins when the element is first prepared and ends when it is built. The
+ * duration therefore includes any time between steps. Construction times reported to metrics exclude this time, but an
+ * event's duration cannot be adjusted after it has begun.
+ * <p>
+ * This class is public for cross-package access within Element, but is not part of the public API.
+ */
+@Name(ProvideEvent.NAME)
+@Label("Element Provide")
+@Category({"Element"})
+@Description("An element was provided by an element context")
+@Enabled(false)
+@StackTrace(false)
+@ApiStatus.Internal
+public final class ProvideEvent extends Event {
+    /**
+     * The name of this event type.
+     */
+    public static final String NAME = "com.github.steanky.element.Provide";
+
+    @Label("Path")
+    @Description("The absolute path of the element's configuration")
+    private String path;
+
+    @Label("Type")
+    @Description("The element's type key")
+    private String type;
+
+    @Label("Cached")
+    @Description("Whether the element was taken from the cache")
+    private boolean cached;
+
+    /**
+     * Begins timing a new event, if this event type is enabled in any running recording. Otherwise, nothing is
+     * allocated, and null is returned.
+     *
+     * @return the new event, or null if it is not enabled
+     */
+    public static @Nullable ProvideEvent start() {
+        if (!Type.INSTANCE.isEnabled()) {
+            return null;
+        }
+
+        final ProvideEvent event = new ProvideEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends timing the given event, and commits it if it meets the recording's threshold.
+     *
+     * @param event  the event previously returned by {@link ProvideEvent#start()}; if null, this method does nothing
+     * @param path   the absolute path of the element's configuration
+     * @param type   the element's type key
+     * @param cached whether the element was taken from the cache
+     */
+    public static void end(final @Nullable ProvideEvent event, final @NotNull ConfigPath path, final @NotNull Key type,
+            final boolean cached) {
+        if (event == null) {
+            return;
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = path.toString();
+            event.type = type.asString();
+            event.cached = cached;
+            event.commit();
+        }
+    }
+
+    //registered lazily, so that merely loading ProvideEvent does not initialize Flight Recorder
+    private static final class Type {
+        private static final EventType INSTANCE = EventType.getEventType(ProvideEvent.class);
+    }
+}
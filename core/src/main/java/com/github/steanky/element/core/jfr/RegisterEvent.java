@@ -0,0 +1,42 @@
+package com.github.steanky.element.core.jfr;
+
+import jdk.jfr.*;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Flight Recorder event emitted when an element class is registered with a context manager. The duration of the event
+ * is the time taken to inspect the class and register its factory, processor, and type.
+ * <p>
+ * This class is public for cross-package access within Element, but is not part of the public API.
+ */
+@Name(RegisterEvent.NAME)
+@Label("Element Register")
+@Category({"Element"})
+@Description("An element class was registered")
+@Enabled(false)
+@StackTrace(false)
+@ApiStatus.Internal
+public final class RegisterEvent extends Event {
+    /**
+     * The name of this event type.
+     */
+    public static final String NAME = "com.github.steanky.element.Register";
+
+    /**
+     * The element class.
+     */
+    @Label("Element Class")
+    public Class<?> elementClass;
+
+    /**
+     * The element's type key.
+     */
+    @Label("Type")
+    public String type;
+
+    /**
+     * Whether the class was registered using a precomputed binding.
+     */
+    @Label("From Binding")
+    public boolean fromBinding;
+}
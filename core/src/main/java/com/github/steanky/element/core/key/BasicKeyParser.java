@@ -4,6 +4,9 @@ import net.kyori.adventure.key.Key;
 import org.intellij.lang.annotations.Subst;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import static com.github.steanky.element.core.util.Validate.elementException;
 
 /**
@@ -15,6 +18,10 @@ import static com.github.steanky.element.core.util.Validate.elementException;
  * namespace which is an empty string, with the value {@code test}. Key will use the default namespace,
  * {@link Key#MINECRAFT_NAMESPACE}, in this case. BasicKeyParser will only use its default namespace <i>if there is no
  * separator character present</i>.
+ * <p>
+ * Parsed keys are cached, so repeatedly parsing the same string returns the same {@link Key} instance without
+ * re-validating or allocating. The cache is bounded: once it is full, caching a new key evicts one that has not been
+ * used recently, using the CLOCK approximation of least-recently-used eviction.
  */
 public class BasicKeyParser implements KeyParser {
     /**
@@ -22,21 +29,44 @@ public class BasicKeyParser implements KeyParser {
      */
     public static final String DEFAULT_DEFAULT_NAMESPACE = "default";
 
+    /**
+     * The default maximum number of parsed keys that will be cached.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
     private final String defaultNamespace;
+    private final KeyCache keyCache;
 
     /**
      * Creates a new instance of this class.
      *
      * @param defaultNamespace the default namespace, which cannot be null or nonconforming to its pattern
+     * @param cacheSize        the maximum number of parsed keys to cache; if 0, no caching will be performed
      * @throws IllegalArgumentException if defaultNamespace is null, empty, or otherwise does not conform to its
-     *                                  pattern
+     *                                  pattern, or if cacheSize is negative
      */
-    public BasicKeyParser(final @NotNull @NamespaceString String defaultNamespace) {
+    public BasicKeyParser(final @NotNull @NamespaceString String defaultNamespace, final int cacheSize) {
         if (!namespaceValid(defaultNamespace)) {
             throw new IllegalArgumentException("invalid default namespace '" + defaultNamespace + "'");
         }
 
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("negative cache size " + cacheSize);
+        }
+
         this.defaultNamespace = defaultNamespace;
+        this.keyCache = cacheSize == 0 ? null : new KeyCache(cacheSize);
+    }
+
+    /**
+     * Creates a new instance of this class which caches up to {@link BasicKeyParser#DEFAULT_CACHE_SIZE} keys.
+     *
+     * @param defaultNamespace the default namespace, which cannot be null or nonconforming to its pattern
+     * @throws IllegalArgumentException if defaultNamespace is null, empty, or otherwise does not conform to its
+     *                                  pattern
+     */
+    public BasicKeyParser(final @NotNull @NamespaceString String defaultNamespace) {
+        this(defaultNamespace, DEFAULT_CACHE_SIZE);
     }
 
     /**
@@ -58,13 +88,22 @@ public class BasicKeyParser implements KeyParser {
         return true;
     }
 
-    private static boolean valueValid(final String value) {
-        for (int i = 0, length = value.length(); i < length; i++) {
-            if (!validValueChar(value.charAt(i))) {
-                return false;
+    //validates the namespace and value in place, without allocating substrings; returns the index of the first invalid
+    //character, or -1 if there is none
+    private static int firstInvalid(final String keyString, final int separatorIndex) {
+        for (int i = 0; i < separatorIndex; i++) {
+            if (!validNamespaceChar(keyString.charAt(i))) {
+                return i;
             }
         }
-        return true;
+
+        for (int i = separatorIndex + 1, length = keyString.length(); i < length; i++) {
+            if (!validValueChar(keyString.charAt(i))) {
+                return i;
+            }
+        }
+
+        return -1;
     }
 
     private static boolean validNamespaceChar(final int value) {
@@ -86,31 +125,117 @@ public class BasicKeyParser implements KeyParser {
 
     @Override
     public @NotNull Key parseKey(final @NotNull @KeyString String keyString) {
+        if (keyCache == null) {
+            return parseUncached(keyString);
+        }
+
+        //cached keys have already been validated
+        final Key cached = keyCache.get(keyString);
+        if (cached != null) {
+            return cached;
+        }
+
+        return keyCache.put(keyString, parseUncached(keyString));
+    }
+
+    private Key parseUncached(final @KeyString String keyString) {
         final int separatorIndex = keyString.indexOf(Constants.NAMESPACE_SEPARATOR);
 
         //resolve default namespaces differently than in adventure: leading : means empty namespace, no : means default
-        @Subst(Constants.NAMESPACE_OR_KEY) final String namespace = extractNamespace(keyString, separatorIndex);
-        if (!namespaceValid(namespace)) {
-            throw elementException("Invalid namespace " + namespace + " from key " + keyString);
+        final int invalidIndex = firstInvalid(keyString, separatorIndex);
+        if (invalidIndex >= 0) {
+            throw invalidIndex < separatorIndex ? elementException("Invalid namespace " +
+                    extractNamespace(keyString, separatorIndex) + " from key " + keyString) :
+                    elementException("Invalid value " + extractValue(keyString, separatorIndex) + " from key " +
+                            keyString);
         }
 
+        @Subst(Constants.NAMESPACE_OR_KEY) final String namespace = extractNamespace(keyString, separatorIndex);
         @Subst(Constants.NAMESPACE_OR_KEY) final String value = extractValue(keyString, separatorIndex);
-        if (!valueValid(value)) {
-            throw elementException("Invalid value " + value + " from key " + keyString);
-        }
-
         return Key.key(namespace, value);
     }
 
     @Override
     public boolean isValidKey(@NotNull String keyString) {
-        final int separatorIndex = keyString.indexOf(Constants.NAMESPACE_SEPARATOR);
-        return namespaceValid(extractNamespace(keyString, separatorIndex)) &&
-                valueValid(extractValue(keyString, separatorIndex));
+        if (keyCache != null && keyCache.get(keyString) != null) {
+            return true;
+        }
+
+        return firstInvalid(keyString, keyString.indexOf(Constants.NAMESPACE_SEPARATOR)) < 0;
     }
 
     @Override
     public @NotNull String defaultNamespace() {
         return defaultNamespace;
     }
-}
\ No newline at end of file
+
+    /*
+    Bounded cache using the CLOCK approximation of LRU eviction. Hits only set a flag on the entry, so concurrent lookups
+    never contend with each other. Insertions, which only happen after a miss, are serialized; once the cache is full,
+    each one evicts the first entry the clock hand reaches that was not used since the hand last passed it.
+     */
+    private static final class KeyCache {
+        private final Map<String, Entry> entries;
+        private final Entry[] clock;
+
+        private int size;
+        private int hand;
+
+        private KeyCache(final int capacity) {
+            this.entries = new ConcurrentHashMap<>(Math.min(capacity, 16));
+            this.clock = new Entry[capacity];
+        }
+
+        private Key get(final String keyString) {
+            final Entry entry = entries.get(keyString);
+            if (entry == null) {
+                return null;
+            }
+
+            //a racy write is fine, it only affects which entry gets evicted
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+
+            return entry.key;
+        }
+
+        private synchronized Key put(final String keyString, final Key key) {
+            final Entry existing = entries.get(keyString);
+            if (existing != null) {
+                return existing.key;
+            }
+
+            final Entry entry = new Entry(keyString, key);
+            if (size < clock.length) {
+                clock[size++] = entry;
+            }
+            else {
+                //terminates within two sweeps, since every entry passed over loses its reference flag
+                Entry candidate;
+                while ((candidate = clock[hand]).referenced) {
+                    candidate.referenced = false;
+                    hand = (hand + 1) % clock.length;
+                }
+
+                entries.remove(candidate.keyString);
+                clock[hand] = entry;
+                hand = (hand + 1) % clock.length;
+            }
+
+            entries.put(keyString, entry);
+            return key;
+        }
+    }
+
+    private static final class Entry {
+        private final String keyString;
+        private final Key key;
+        private boolean referenced;
+
+        private Entry(final String keyString, final Key key) {
+            this.keyString = keyString;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.steanky.element.core.metrics;
+
+import com.github.steanky.element.core.dependency.DependencyProvider;
+import com.github.steanky.ethylene.core.path.ConfigPath;
+import net.kyori.adventure.key.Key;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Basic implementation of {@link ElementMetrics}. Counts are kept using {@link LongAdder}s, and durations are recorded
+ * in {@link LatencyHistogram}s, so events can be recorded concurrently from many threads with little contention.
+ * Statistics are kept separately for each element type, and for each dependency key.
+ */
+public class BasicElementMetrics implements ElementMetrics {
+    private final Map<Key, TypeMetrics> typeMetrics;
+    private final Map<DependencyProvider.TypeKey<?>, LatencyHistogram> dependencyMetrics;
+
+    /**
+     * Creates a new instance of this class.
+     */
+    public BasicElementMetrics() {
+        this.typeMetrics = new ConcurrentHashMap<>();
+        this.dependencyMetrics = new ConcurrentHashMap<>();
+    }
+
+    private TypeMetrics typeMetrics(final Key type) {
+        final TypeMetrics metrics = typeMetrics.get(type);
+        if (metrics != null) {
+            return metrics;
+        }
+
+        return typeMetrics.computeIfAbsent(type, ignored -> new TypeMetrics());
+    }
+
+    @Override
+    public void constructionFinished(final @NotNull Key type, final @NotNull ConfigPath path, final long nanos) {
+        typeMetrics(type).constructionTime.record(nanos);
+    }
+
+    @Override
+    public void constructionFailed(final @NotNull Key type, final @NotNull ConfigPath path, final long nanos) {
+        typeMetrics(type).failures.increment();
+    }
+
+    @Override
+    public void cacheHit(final @NotNull Key type, final @NotNull ConfigPath path) {
+        typeMetrics(type).cacheHits.increment();
+    }
+
+    @Override
+    public void cacheMiss(final @NotNull Key type, final @NotNull ConfigPath path) {
+        typeMetrics(type).cacheMisses.increment();
+    }
+
+    @Override
+    public void dataProcessed(final @NotNull Key type, final @NotNull ConfigPath path, final long nanos) {
+        typeMetrics(type).dataTime.record(nanos);
+    }
+
+    @Override
+    public void dependencyResolved(final @NotNull DependencyProvider.TypeKey<?> key, final long nanos) {
+        LatencyHistogram histogram = dependencyMetrics.get(key);
+        if (histogram == null) {
+            histogram = dependencyMetrics.computeIfAbsent(key, ignored -> new LatencyHistogram());
+        }
+
+        histogram.record(nanos);
+    }
+
+    /**
+     * Takes a snapshot of the statistics recorded for each element type.
+     *
+     * @return an unmodifiable map of element type keys to statistics
+     */
+    public @NotNull @Unmodifiable Map<Key, TypeStatistics> typeStatistics() {
+        final Map<Key, TypeStatistics> statistics = new HashMap<>(typeMetrics.size());
+        for (Map.Entry<Key, TypeMetrics> entry : typeMetrics.entrySet()) {
+            statistics.put(entry.getKey(), entry.getValue().snapshot());
+        }
+
+        return Map.copyOf(statistics);
+    }
+
+    /**
+     * Takes a snapshot of the statistics recorded for a single element type.
+     *
+     * @param type the element type
+     * @return the statistics for the type, which are all zero if no events were recorded for it
+     */
+    public @NotNull TypeStatistics typeStatistics(final @NotNull Key type) {
+        final TypeMetrics metrics = typeMetrics.get(Objects.requireNonNull(type));
+        return metrics == null ? new TypeMetrics().snapshot() : metrics.snapshot();
+    }
+
+    /**
+     * Takes a snapshot of the time taken to resolve each dependency.
+     *
+     * @return an unmodifiable map of dependency keys to resolution time statistics
+     */
+    public @NotNull @Unmodifiable Map<DependencyProvider.TypeKey<?>, LatencyHistogram.Snapshot> dependencyStatistics() {
+        final Map<DependencyProvider.TypeKey<?>, LatencyHistogram.Snapshot> statistics =
+                new HashMap<>(dependencyMetrics.size());
+        for (Map.Entry<DependencyProvider.TypeKey<?>, LatencyHistogram> entry : dependencyMetrics.entrySet()) {
+            statistics.put(entry.getKey(), entry.getValue().snapshot());
+        }
+
+        return Map.copyOf(statistics);
+    }
+
+    /**
+     * Statistics recorded for a single element type.
+     *
+     * @param constructionTime statistics on the time taken to construct elements of this type; the count is the
+     *                         number of elements constructed
+     * @param failures         the number of times construction failed
+     * @param cacheHits        the number of times a cached element was found
+     * @param cacheMisses      the number of times a cached element was requested but not found
+     * @param dataTime         statistics on the time taken to process element data
+     */
+    public record TypeStatistics(@NotNull LatencyHistogram.Snapshot constructionTime, long failures, long cacheHits,
+            long cacheMisses, @NotNull LatencyHistogram.Snapshot dataTime) {
+        /**
+         * Computes the ratio of cache hits to cache lookups.
+         *
+         * @return the cache hit ratio, or 0 if there were no cache lookups
+         */
+        public double cacheHitRatio() {
+            final long lookups = cacheHits + cacheMisses;
+            return lookups == 0 ? 0 : (double) cacheHits / lookups;
+        }
+    }
+
+    private static final class TypeMetrics {
+        private final LatencyHistogram constructionTime = new LatencyHistogram();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder cacheMisses = new LongAdder();
+        private final LatencyHistogram dataTime = new LatencyHistogram();
+
+        private TypeStatistics snapshot() {
+            return new TypeStatistics(constructionTime.snapshot(), failures.sum(), cacheHits.sum(), cacheMisses.sum(),
+                    dataTime.snapshot());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.github.steanky.element.core.metrics;
+
+import com.github.steanky.element.core.context.ContextManager;
+import com.github.steanky.element.core.context.ElementContext;
+import com.github.steanky.element.core.dependency.DependencyProvider;
+import com.github.steanky.ethylene.core.path.ConfigPath;
+import net.kyori.adventure.key.Key;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Listener notified of events that occur while {@link ElementContext} instances construct elements. Implementations can
+ * be supplied using {@link ContextManager.Builder#withElementMetrics(ElementMetrics)}.
+ * <p>
+ * Methods are called synchronously by the thread performing the work being measured, which may be any thread when
+ * elements are provided concurrently or asynchronously. Implementations must therefore be thread-safe, and should
+ * return quickly. All methods have empty default implementations, so only events of interest need to be overridden.
+ * <p>
+ * Durations are given in nanoseconds, as measured by {@link System#nanoTime()}. Construction durations include the time
+ * needed to construct any child elements.
+ */
+public interface ElementMetrics {
+    /**
+     * Metrics implementation which ignores all events. Element contexts using this instance do not measure anything, so
+     * it has no overhead.
+     */
+    ElementMetrics NONE = new ElementMetrics() {};
+
+    /**
+     * Combines two metrics implementations, producing one which notifies both of every event, first then second. If
+     * either is {@link ElementMetrics#NONE}, the other is returned.
+     *
+     * @param first  the first metrics implementation
+     * @param second the second metrics implementation
+     * @return the combined metrics implementation
+     */
+    static @NotNull ElementMetrics compose(final @NotNull ElementMetrics first, final @NotNull ElementMetrics second) {
+        Objects.requireNonNull(first);
+        Objects.requireNonNull(second);
+        if (first == NONE) {
+            return second;
+        }
+
+        if (second == NONE) {
+            return first;
+        }
+
+        return new ElementMetrics() {
+            @Override
+            public void constructionStarted(final @NotNull Key type, final @NotNull ConfigPath path) {
+                first.constructionStarted(type, path);
+                second.constructionStarted(type, path);
+            }
+
+            @Override
+            public void constructionFinished(final @NotNull Key type, final @NotNull ConfigPath path,
+                    final long nanos) {
+                first.constructionFinished(type, path, nanos);
+                second.constructionFinished(type, path, nanos);
+            }
+
+            @Override
+            public void constructionFailed(final @NotNull Key type, final @NotNull ConfigPath path, final long nanos) {
+                first.constructionFailed(type, path, nanos);
+                second.constructionFailed(type, path, nanos);
+            }
+
+            @Override
+            public void cacheHit(final @NotNull Key type, final @NotNull ConfigPath path) {
+                first.cacheHit(type, path);
+                second.cacheHit(type, path);
+            }
+
+            @Override
+            public void cacheMiss(final @NotNull Key type, final @NotNull ConfigPath path) {
+                first.cacheMiss(type, path);
+                second.cacheMiss(type, path);
+            }
+
+            @Override
+            public void dataProcessed(final @NotNull Key type, final @NotNull ConfigPath path, final long nanos) {
+                first.dataProcessed(type, path, nanos);
+                second.dataProcessed(type, path, nanos);
+            }
+
+            @Override
+            public void dependencyResolved(final @NotNull DependencyProvider.TypeKey<?> key, final long nanos) {
+                first.dependencyResolved(key, nanos);
+                second.dependencyResolved(key, nanos);
+            }
+        };
+    }
+
+    /**
+     * Called when an element is about to be constructed.
+     *
+     * @param type the type of element
+     * @param path the absolute path of the element's configuration
+     */
+    default void constructionStarted(final @NotNull Key type, final @NotNull ConfigPath path) {}
+
+    /**
+     * Called when an element has been successfully constructed.
+     *
+     * @param type  the type of element
+     * @param path  the absolute path of the element's configuration
+     * @param nanos the time taken to construct the element
+     */
+    default void constructionFinished(final @NotNull Key type, final @NotNull ConfigPath path, final long nanos) {}
+
+    /**
+     * Called when an element could not be constructed, either because it or one of its children failed.
+     *
+     * @param type  the type of element
+     * @param path  the absolute path of the element's configuration
+     * @param nanos the time spent before construction failed
+     */
+    default void constructionFailed(final @NotNull Key type, final @NotNull ConfigPath path, final long nanos) {}
+
+    /**
+     * Called when an element of a cached type was requested, and a cached instance was found.
+     *
+     * @param type the type of element
+     * @param path the absolute path of the element's configuration
+     */
+    default void cacheHit(final @NotNull Key type, final @NotNull ConfigPath path) {}
+
+    /**
+     * Called when an element of a cached type was requested, but no cached instance was found.
+     *
+     * @param type the type of element
+     * @param path the absolute path of the element's configuration
+     */
+    default void cacheMiss(final @NotNull Key type, final @NotNull ConfigPath path) {}
+
+    /**
+     * Called when an element's configuration has been processed into its data object.
+     *
+     * @param type  the type of element
+     * @param path  the absolute path of the element's configuration
+     * @param nanos the time taken to process the data
+     */
+    default void dataProcessed(final @NotNull Key type, final @NotNull ConfigPath path, final long nanos) {}
+
+    /**
+     * Called when a dependency has been resolved on behalf of an element.
+     *
+     * @param key   the key of the dependency
+     * @param nanos the time taken to resolve the dependency
+     */
+    default void dependencyResolved(final @NotNull DependencyProvider.TypeKey<?> key, final long nanos) {}
+}
@@ -0,0 +1,162 @@
+package com.github.steanky.element.core.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of non-negative values, such as durations in nanoseconds. Values are counted in log-linear
+ * buckets: each power of two is divided into 16 linear sub-buckets, so recorded values are approximated with a
+ * relative error of at most 1/16, using a fixed amount of memory regardless of their range. Values less than 16 are
+ * counted exactly.
+ * <p>
+ * Recording a value does not allocate or lock. This class is thread-safe; however, reading from an instance while
+ * values are being recorded may produce results that do not correspond to any single point in time.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets;
+    private final LongAdder count;
+    private final LongAdder total;
+    private final LongAccumulator max;
+
+    /**
+     * Creates a new, empty histogram.
+     */
+    public LatencyHistogram() {
+        this.buckets = new AtomicLongArray(BUCKETS);
+        this.count = new LongAdder();
+        this.total = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+
+    private static int bucketIndex(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        final int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    private static long bucketLowerBound(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        final int shift = index / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+    }
+
+    /**
+     * Records a single value. Negative values are treated as 0.
+     *
+     * @param value the value to record
+     */
+    public void record(final long value) {
+        final long clamped = Math.max(value, 0);
+        buckets.incrementAndGet(bucketIndex(clamped));
+        count.increment();
+        total.add(clamped);
+        max.accumulate(clamped);
+    }
+
+    /**
+     * Returns the number of values recorded by this histogram.
+     *
+     * @return the number of values recorded
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of every value recorded by this histogram.
+     *
+     * @return the sum of all values
+     */
+    public long total() {
+        return total.sum();
+    }
+
+    /**
+     * Returns the largest value recorded by this histogram, or 0 if it is empty.
+     *
+     * @return the largest value
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Estimates the value at the given percentile. The returned value is the upper bound of the bucket containing the
+     * percentile, but never more than {@link LatencyHistogram#max()}.
+     *
+     * @param percentile the percentile, between 0 and 100 (inclusive)
+     * @return the estimated value, or 0 if this histogram is empty
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    public long percentile(final double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Percentile out of range: " + percentile);
+        }
+
+        final long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+
+        if (count == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        final long max = this.max.get();
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i + 1 < BUCKETS ? Math.min(bucketLowerBound(i + 1) - 1, max) : max;
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * Takes a snapshot of commonly used statistics.
+     *
+     * @return a new snapshot
+     */
+    public @NotNull Snapshot snapshot() {
+        return new Snapshot(count(), total(), max(), percentile(50), percentile(90), percentile(99));
+    }
+
+    /**
+     * Summary statistics of a {@link LatencyHistogram}.
+     *
+     * @param count the number of values recorded
+     * @param total the sum of all values recorded
+     * @param max   the largest value recorded
+     * @param p50   the estimated median
+     * @param p90   the estimated 90th percentile
+     * @param p99   the estimated 99th percentile
+     */
+    public record Snapshot(long count, long total, long max, long p50, long p90, long p99) {
+        /**
+         * Computes the mean of the recorded values.
+         *
+         * @return the mean, or 0 if no values were recorded
+         */
+        public double mean() {
+            return count == 0 ? 0 : (double) total / count;
+        }
+    }
+}
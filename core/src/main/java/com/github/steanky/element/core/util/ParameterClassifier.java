@@ -0,0 +1,205 @@
+package com.github.steanky.element.core.util;
+
+import com.github.steanky.element.core.ElementBinding;
+import com.github.steanky.element.core.ElementException;
+import com.github.steanky.element.core.annotation.Child;
+import com.github.steanky.element.core.annotation.DataObject;
+import com.github.steanky.element.core.annotation.Depend;
+import com.github.steanky.element.core.dependency.Provider;
+import com.github.steanky.element.core.factory.ContainerCreator;
+import com.github.steanky.element.core.key.Constants;
+import com.github.steanky.element.core.key.KeyParser;
+import com.github.steanky.ethylene.mapper.type.Token;
+import net.kyori.adventure.key.InvalidKeyException;
+import net.kyori.adventure.key.Key;
+import org.intellij.lang.annotations.Subst;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Executable;
+import java.lang.reflect.Parameter;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static com.github.steanky.element.core.util.Validate.elementException;
+
+/**
+ * Determines what each parameter of an element's factory constructor binds to. This is shared by runtime factory
+ * resolution and by {@link ElementBinding#of(Class, KeyParser, ContainerCreator)}, so that build-time binding indices
+ * always agree with the factories that would be resolved from the same class at runtime.
+ * <p>
+ * This class is public for cross-package access within Element, but is not part of the public API and may be changed
+ * or removed at any time.
+ */
+@ApiStatus.Internal
+public final class ParameterClassifier {
+    private ParameterClassifier() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * A single classified parameter.
+     *
+     * @param parameter the parameter
+     * @param kind      what the parameter binds to
+     * @param value     the dependency name (empty for unnamed dependencies), or the child path; empty for data
+     *                  parameters
+     */
+    public record Classified(@NotNull Parameter parameter, @NotNull ElementBinding.Kind kind, @NotNull String value) {}
+
+    /**
+     * Classifies every parameter of the given factory constructor, validating them as a whole: at most one parameter
+     * may be data, no parameter may be both data and a child, {@link Child} paths must be unique, and {@link Depend}
+     * names must be valid keys.
+     *
+     * @param executable the factory constructor
+     * @param keyParser  the {@link KeyParser} used to check that dependency names are valid keys
+     * @return the classified parameters, in declaration order
+     * @throws ElementException if the parameters are not valid
+     */
+    public static @NotNull List<Classified> classify(final @NotNull Executable executable,
+            final @NotNull KeyParser keyParser) {
+        final Class<?> elementClass = executable.getDeclaringClass();
+        final Parameter[] parameters = executable.getParameters();
+        final List<Classified> classified = new ArrayList<>(parameters.length);
+        for (Parameter parameter : parameters) {
+            final boolean isData = parameter.getType().isAnnotationPresent(DataObject.class) ||
+                    parameter.isAnnotationPresent(DataObject.class);
+            final Child child = parameter.getDeclaredAnnotation(Child.class);
+
+            final Depend classDepend = parameter.getType().getDeclaredAnnotation(Depend.class);
+            final Depend parameterDepend = parameter.getDeclaredAnnotation(Depend.class);
+
+            if (isData && child != null) {
+                throw elementException(elementClass, "Parameter " + parameter +
+                        " is both element data and a composite element");
+            }
+
+            if ((!isData && child == null) || classDepend != null || parameterDepend != null) {
+                final Token<?> parameterType = Token.ofType(parameter.getParameterizedType());
+
+                //for lazy dependencies, a @Depend annotation on the class of the provided type also counts
+                final Depend dependencyClassDepend = isLazy(parameterType) ? parameterType.actualTypeParameters()[0]
+                        .rawType().getDeclaredAnnotation(Depend.class) : classDepend;
+                final Depend depend = Objects.requireNonNullElse(parameterDepend, dependencyClassDepend);
+                final String name = depend == null || depend.value().equals(Constants.DEFAULT) ? "" : depend.value();
+
+                classified.add(new Classified(parameter, ElementBinding.Kind.DEPENDENCY, name));
+            }
+            else if (isData) {
+                classified.add(new Classified(parameter, ElementBinding.Kind.DATA, ""));
+            }
+            else {
+                classified.add(new Classified(parameter, ElementBinding.Kind.CHILD, child.value()));
+            }
+        }
+
+        final List<ElementBinding.Kind> kinds = new ArrayList<>(classified.size());
+        final List<String> values = new ArrayList<>(classified.size());
+        for (Classified parameter : classified) {
+            kinds.add(parameter.kind);
+            values.add(parameter.value);
+        }
+
+        validate(elementClass, kinds, values, keyParser);
+        return classified;
+    }
+
+    private static void validate(final Class<?> elementClass, final List<ElementBinding.Kind> kinds,
+            final List<String> values, final KeyParser keyParser) {
+        boolean hasData = false;
+        Set<String> childPaths = null;
+        for (int i = 0; i < kinds.size(); i++) {
+            final String value = values.get(i);
+            switch (kinds.get(i)) {
+                case DATA -> {
+                    if (hasData) {
+                        throw elementException(elementClass, "Multiple data parameters");
+                    }
+
+                    hasData = true;
+                }
+                case DEPENDENCY -> {
+                    if (!value.isEmpty() && !keyParser.isValidKey(value)) {
+                        throw elementException(elementClass, "Invalid parameter key " + value);
+                    }
+                }
+                case CHILD -> {
+                    if (childPaths == null) {
+                        childPaths = new HashSet<>(kinds.size());
+                    }
+
+                    if (!childPaths.add(value)) {
+                        throw elementException(elementClass, "Duplicate @Child key " + value);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts the name of a classified dependency parameter to a {@link Key}.
+     *
+     * @param elementClass the element class, used for error reporting
+     * @param value        the dependency name, which should already have been validated
+     * @return the key, or null if the dependency is unnamed
+     * @throws ElementException if the name is not a valid key
+     */
+    public static @Nullable Key dependencyKey(final @NotNull Class<?> elementClass, final @NotNull String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+
+        @Subst(Constants.NAMESPACE_OR_KEY) final String key = value;
+        try {
+            return Key.key(key);
+        }
+        catch (InvalidKeyException e) {
+            throw elementException(e, elementClass, "Invalid parameter key " + value);
+        }
+    }
+
+    /**
+     * Identifies the data class of an element: the type of its data parameter if there is one, otherwise its single
+     * member class annotated with {@link DataObject}, if any.
+     *
+     * @param elementClass the element class
+     * @param parameters   the classified parameters of its factory constructor
+     * @return the data class, or null if the element has no data
+     * @throws ElementException if there is no data parameter, and more than one member class is a data object
+     */
+    public static @Nullable Class<?> dataClass(final @NotNull Class<?> elementClass,
+            final @NotNull List<Classified> parameters) {
+        for (Classified parameter : parameters) {
+            if (parameter.kind == ElementBinding.Kind.DATA) {
+                return parameter.parameter.getType();
+            }
+        }
+
+        Class<?> dataClass = null;
+        for (Class<?> declaredClass : elementClass.getDeclaredClasses()) {
+            if (declaredClass.isAnnotationPresent(DataObject.class)) {
+                if (dataClass != null) {
+                    throw elementException(elementClass, "Multiple @DataObject member classes");
+                }
+
+                dataClass = declaredClass;
+            }
+        }
+
+        return dataClass;
+    }
+
+    /**
+     * Determines if a parameter of the given type is a lazily-provided dependency: a parameterized {@link Provider}
+     * or {@link Supplier}.
+     *
+     * @param parameterType the parameter type
+     * @return true if the parameter is lazy, false otherwise
+     */
+    public static boolean isLazy(final @NotNull Token<?> parameterType) {
+        final Class<?> rawType = parameterType.rawType();
+        return (rawType.equals(Provider.class) || rawType.equals(Supplier.class)) && parameterType.isParameterized();
+    }
+}
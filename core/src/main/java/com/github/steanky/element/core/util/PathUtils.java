@@ -0,0 +1,55 @@
+package com.github.steanky.element.core.util;
+
+import com.github.steanky.ethylene.core.path.ConfigPath;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Contains utility methods for working with {@link ConfigPath}s. These methods are public for cross-package access
+ * within Element, but are not part of the public API and may be changed or removed at any time.
+ */
+@ApiStatus.Internal
+public final class PathUtils {
+    private static final int CACHED_INDICES = 1024;
+    private static final String[] INDEX_STRINGS = new String[CACHED_INDICES];
+
+    private PathUtils() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the string representation of a list index, suitable for use as a path segment. Strings for small indices
+     * are cached, so repeatedly iterating the same lists does not allocate.
+     *
+     * @param index the list index, which must be non-negative
+     * @return the string representation of the index
+     */
+    public static @NotNull String indexString(final int index) {
+        Objects.checkIndex(index, Integer.MAX_VALUE);
+        if (index >= CACHED_INDICES) {
+            return Integer.toString(index);
+        }
+
+        //racy initialization is benign, strings are immutable and safely published
+        String string = INDEX_STRINGS[index];
+        if (string == null) {
+            string = Integer.toString(index);
+            INDEX_STRINGS[index] = string;
+        }
+
+        return string;
+    }
+
+    /**
+     * Appends a list index to the given path.
+     *
+     * @param path  the path to append to
+     * @param index the list index, which must be non-negative
+     * @return a new path with the index segment appended
+     */
+    public static @NotNull ConfigPath appendIndex(final @NotNull ConfigPath path, final int index) {
+        return path.append(indexString(index));
+    }
+}
@@ -4,9 +4,12 @@ import com.github.steanky.element.core.ElementException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.*;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 import static com.github.steanky.element.core.util.Validate.elementException;
 
@@ -39,4 +42,88 @@ public final class ReflectionUtils {
             throw elementException(e, method.getDeclaringClass(), "Error calling method");
         }
     }
+
+    /**
+     * Creates a {@link Supplier} which invokes the given parameterless {@link Method}. Where possible, the supplier is
+     * generated using {@link LambdaMetafactory} and calls the method directly, so it may be inlined by the JIT; if this
+     * is not possible (for example, because the method's declaring class is in a named module which is not open to
+     * Element), a {@link MethodHandle}-based supplier is used instead. In either case, no reflective
+     * {@link Method#invoke(Object, Object...)} calls are made when the supplier is called.
+     * <p>
+     * {@link ElementException}s and {@link Error}s thrown by the method are rethrown as-is. Any other exceptions are
+     * wrapped in an {@link ElementException} whose cause is the exception thrown by the method itself (unlike
+     * {@link ReflectionUtils#invokeMethod(Method, Object, Object...)}, there is no intervening
+     * {@link InvocationTargetException}).
+     *
+     * @param method    the method to invoke, which must be accessible, and take no parameters
+     * @param owner     the object which owns the method (ignored if the method is static)
+     * @param <TReturn> the type of object to cast the return value to
+     * @return a supplier which invokes the method
+     */
+    @SuppressWarnings("unchecked")
+    public static <TReturn> @NotNull Supplier<TReturn> methodSupplier(final @NotNull Method method,
+            final @Nullable Object owner) {
+        Objects.requireNonNull(method);
+
+        final boolean isStatic = Modifier.isStatic(method.getModifiers());
+        if (!isStatic) {
+            Objects.requireNonNull(owner);
+        }
+
+        final Class<?> declaringClass = method.getDeclaringClass();
+        Supplier<?> supplier;
+        try {
+            //define the lambda class alongside the declaring class, so it can always see the types it refers to
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            final MethodHandle target = lookup.unreflect(method);
+            final Class<?> returnType = method.getReturnType();
+            final MethodType instantiatedType = MethodType.methodType(returnType.isPrimitive() ?
+                    MethodType.methodType(returnType).wrap().returnType() : returnType);
+
+            final CallSite callSite = LambdaMetafactory.metafactory(lookup, "get", isStatic ?
+                            MethodType.methodType(Supplier.class) : MethodType.methodType(Supplier.class, declaringClass),
+                    MethodType.methodType(Object.class), target, instantiatedType);
+
+            supplier = isStatic ? (Supplier<?>) callSite.getTarget().invoke() :
+                    (Supplier<?>) callSite.getTarget().invoke(owner);
+        } catch (LambdaConversionException | IllegalAccessException e) {
+            supplier = handleSupplier(method, owner, isStatic);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw elementException(e, declaringClass, "Failed to create supplier");
+        }
+
+        final Supplier<?> directSupplier = supplier;
+        return () -> {
+            try {
+                return (TReturn) directSupplier.get();
+            } catch (ElementException e) {
+                throw e;
+            } catch (Exception e) {
+                throw elementException(e, declaringClass, "Error calling method");
+            }
+        };
+    }
+
+    private static Supplier<?> handleSupplier(final Method method, final Object owner, final boolean isStatic) {
+        final MethodHandle handle;
+        try {
+            final MethodHandle unreflected = MethodHandles.publicLookup().unreflect(method);
+            handle = (isStatic ? unreflected : unreflected.bindTo(owner)).asType(MethodType.methodType(Object.class));
+        } catch (IllegalAccessException e) {
+            throw elementException(e, method.getDeclaringClass(), "Method is not accessible");
+        }
+
+        return () -> {
+            try {
+                return (Object) handle.invokeExact();
+            } catch (RuntimeException | Error e) {
+                //unchecked exceptions are wrapped by methodSupplier, the same as for directly-called suppliers
+                throw e;
+            } catch (Throwable e) {
+                throw elementException(e, method.getDeclaringClass(), "Error calling method");
+            }
+        };
+    }
 }
@@ -0,0 +1,240 @@
+package com.github.steanky.element.core.util;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Estimates the memory used by objects, assuming a 64-bit JVM with compressed object pointers and 8-byte alignment.
+ * Estimates are intended for diagnostics, and may be inaccurate: in particular, fields of JDK classes generally cannot
+ * be read, so only the shallow size of such objects is counted, except for strings, arrays, and JDK {@link Map}s and
+ * {@link Collection}s, whose contents are reached through their public API. At most {@code size()} entries are visited
+ * in each, and iteration stops early if it fails. Maps and collections implemented outside the JDK are walked through
+ * their fields like any other object, so that estimating their size never runs their code.
+ * <p>
+ * Each instance remembers which objects it has already counted, so that objects reachable from several roots are only
+ * counted once. Instances are not thread-safe. This class is public for cross-package access within Element, but is
+ * not part of the public API and may be changed or removed at any time.
+ */
+@ApiStatus.Internal
+public final class SizeEstimator {
+    private static final int HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int ALIGNMENT = 8;
+
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected Layout computeValue(final @NotNull Class<?> type) {
+            return layout(type);
+        }
+    };
+
+    private final Set<Object> visited;
+
+    /**
+     * Creates a new instance of this class.
+     */
+    public SizeEstimator() {
+        this.visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private record Layout(long shallowSize, Field[] references) {}
+
+    private static long align(final long size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    private static int primitiveSize(final Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+
+        return 1;
+    }
+
+    private static Layout layout(final Class<?> type) {
+        long size = HEADER;
+        final List<Field> references = new ArrayList<>();
+        final boolean readable = !isJdk(type);
+
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+
+                final Class<?> fieldType = field.getType();
+                if (fieldType.isPrimitive()) {
+                    size += primitiveSize(fieldType);
+                    continue;
+                }
+
+                size += REFERENCE;
+                if (readable && field.trySetAccessible()) {
+                    references.add(field);
+                }
+            }
+        }
+
+        return new Layout(align(size), references.toArray(Field[]::new));
+    }
+
+    private static boolean isJdk(final Class<?> type) {
+        final String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("jdk.") || name.startsWith("sun.");
+    }
+
+    /**
+     * Estimates the size of the given object, including every object reachable from it that this estimator has not
+     * already counted.
+     *
+     * @param root the object whose size to estimate
+     * @return the estimated size in bytes, or 0 if the object is null or was already counted
+     */
+    public long deepSize(final @Nullable Object root) {
+        final Deque<Object> pending = new ArrayDeque<>();
+        long size = 0;
+
+        push(pending, root);
+        while (!pending.isEmpty()) {
+            final Object object = pending.pop();
+            final Class<?> type = object.getClass();
+
+            if (type.isArray()) {
+                final int length = Array.getLength(object);
+                final Class<?> componentType = type.componentType();
+                if (componentType.isPrimitive()) {
+                    size += align(ARRAY_HEADER + (long) length * primitiveSize(componentType));
+                    continue;
+                }
+
+                size += align(ARRAY_HEADER + (long) length * REFERENCE);
+                for (Object element : (Object[]) object) {
+                    push(pending, element);
+                }
+
+                continue;
+            }
+
+            if (object instanceof String string) {
+                //assumes compact strings, with mostly Latin-1 contents
+                size += LAYOUTS.get(type).shallowSize + align(ARRAY_HEADER + string.length());
+                continue;
+            }
+
+            if (object instanceof Map<?, ?> map && isJdk(type)) {
+                //approximates the size of a hash map node, and its slot in the table
+                final int entries = pushContents(pending, map);
+                size += LAYOUTS.get(type).shallowSize + align(ARRAY_HEADER + (long) entries * REFERENCE * 2) +
+                        (long) entries * 32;
+                continue;
+            }
+
+            if (object instanceof Collection<?> collection && isJdk(type)) {
+                final int elements = pushContents(pending, collection);
+                size += LAYOUTS.get(type).shallowSize + align(ARRAY_HEADER + (long) elements * REFERENCE);
+                continue;
+            }
+
+            final Layout layout = LAYOUTS.get(type);
+            size += layout.shallowSize;
+            for (Field field : layout.references) {
+                try {
+                    push(pending, field.get(object));
+                }
+                catch (IllegalAccessException ignored) {
+                    //only the reference itself is counted
+                }
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Marks the given object, and every object reachable from it, as already counted, without counting them. This is
+     * used to leave out objects which are shared with something other than the objects being measured.
+     *
+     * @param root the object to exclude
+     */
+    public void exclude(final @Nullable Object root) {
+        deepSize(root);
+    }
+
+    /**
+     * Estimates the shallow size of the given object, not including any objects it references. The object is
+     * remembered as counted.
+     *
+     * @param object the object whose size to estimate
+     * @return the estimated size in bytes, or 0 if the object is null or was already counted
+     */
+    public long shallowSize(final @Nullable Object object) {
+        if (object == null || !visited.add(object)) {
+            return 0;
+        }
+
+        final Class<?> type = object.getClass();
+        if (type.isArray()) {
+            final Class<?> componentType = type.componentType();
+            return align(ARRAY_HEADER + (long) Array.getLength(object) *
+                    (componentType.isPrimitive() ? primitiveSize(componentType) : REFERENCE));
+        }
+
+        return LAYOUTS.get(type).shallowSize;
+    }
+
+    /*
+    Pushes the contents of a JDK map or collection, returning the number of entries visited. JDK wrappers may delegate
+    to user collections, so their iterators aren't trusted to terminate, or to succeed.
+     */
+    private int pushContents(final Deque<Object> pending, final Object container) {
+        int count = 0;
+        try {
+            final Map<?, ?> map = container instanceof Map<?, ?> asMap ? asMap : null;
+            final Collection<?> collection = map == null ? (Collection<?>) container : map.entrySet();
+
+            final int limit = collection.size();
+            final Iterator<?> iterator = collection.iterator();
+            while (count < limit && iterator.hasNext()) {
+                final Object next = iterator.next();
+                if (map != null && next instanceof Map.Entry<?, ?> entry) {
+                    push(pending, entry.getKey());
+                    push(pending, entry.getValue());
+                }
+                else {
+                    push(pending, next);
+                }
+
+                count++;
+            }
+        }
+        catch (RuntimeException ignored) {
+            //only the entries visited so far are counted
+        }
+
+        return count;
+    }
+
+    private void push(final Deque<Object> pending, final Object object) {
+        //enums and classes are shared constants, and never count towards an object's size
+        if (object == null || object instanceof Enum<?> || object instanceof Class<?> || !visited.add(object)) {
+            return;
+        }
+
+        pending.push(object);
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.steanky.element.core;
+
+import com.github.steanky.element.core.annotation.*;
+import com.github.steanky.element.core.context.ContextManager;
+import com.github.steanky.ethylene.mapper.annotation.Default;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ElementBindingTest {
+    @Model("binding_test.simple")
+    public static class Simple {
+        @FactoryMethod
+        public Simple() {}
+    }
+
+    @Model("binding_test.dependent")
+    public static class Dependent {
+        @FactoryMethod
+        public Dependent(@Depend("test:name") String name, @Child("child") Simple child, int unnamed) {}
+    }
+
+    @Model("binding_test.duplicate_child")
+    public static class DuplicateChild {
+        @FactoryMethod
+        public DuplicateChild(@Child("child") Simple first, @Child("child") Simple second) {}
+    }
+
+    @Model("binding_test.container")
+    @Default("{value=1}")
+    public static class Container {
+        @FactoryMethod
+        public Container(@Child("children") List<Simple> children, @Child("child") Simple child, Data data) {}
+
+        @DataObject
+        @Default("{other=2}")
+        public record Data(int value, int other) {}
+    }
+
+    @Model("binding_test.invalid_key")
+    public static class InvalidKey {
+        @FactoryMethod
+        public InvalidKey(@Depend("Not A Key") String name) {}
+    }
+
+    @Test
+    void loadIndexRoundTrip(@TempDir Path directory) throws IOException {
+        List<ElementBinding> bindings = List.of(ElementBinding.of(Simple.class), ElementBinding.of(Dependent.class));
+
+        Path index = directory.resolve(ElementBinding.INDEX_LOCATION);
+        Files.createDirectories(index.getParent());
+        Files.writeString(index, "# generated\n\n" + bindings.get(0).format() + "\n" + bindings.get(1).format() +
+                "\n", StandardCharsets.UTF_8);
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {directory.toUri().toURL()}, null)) {
+            assertEquals(bindings, ElementBinding.loadIndex(classLoader));
+        }
+    }
+
+    @Test
+    void dependencyParameters() {
+        ElementBinding binding = ElementBinding.of(Dependent.class);
+        assertEquals(List.of(new ElementBinding.Parameter(ElementBinding.Kind.DEPENDENCY, "java.lang.String",
+                        "test:name"), new ElementBinding.Parameter(ElementBinding.Kind.CHILD, Simple.class.getName(),
+                        "child"), new ElementBinding.Parameter(ElementBinding.Kind.DEPENDENCY, "int", "")),
+                binding.parameters());
+    }
+
+    @Test
+    void duplicateChildKeys() {
+        assertThrows(ElementException.class, () -> ElementBinding.of(DuplicateChild.class));
+    }
+
+    @Test
+    void invalidDependencyKey() {
+        assertThrows(ElementException.class, () -> ElementBinding.of(InvalidKey.class));
+    }
+
+    @Test
+    void recordsDefaultsAndContainers() {
+        ElementBinding binding = ElementBinding.of(Container.class);
+
+        assertEquals("{value=1}", binding.defaults());
+        assertEquals("{other=2}", binding.dataDefaults());
+        assertEquals(List.of(new ElementBinding.Parameter(ElementBinding.Kind.CHILD, List.class.getName(), "children",
+                true), new ElementBinding.Parameter(ElementBinding.Kind.CHILD, Simple.class.getName(), "child", false),
+                new ElementBinding.Parameter(ElementBinding.Kind.DATA, Container.Data.class.getName(), "")),
+                binding.parameters());
+        assertEquals(binding, ElementBinding.parse(binding.format()));
+    }
+
+    @Test
+    void escapedDefaults() {
+        ElementBinding binding = new ElementBinding("binding_test.simple", Simple.class.getName(), true, null,
+                "{a='\t\\t'}", "{b='\r\n\\'}", List.of());
+
+        String line = binding.format();
+        assertEquals(1, line.lines().count());
+        assertEquals(6, line.split("\t", -1).length);
+        assertEquals(binding, ElementBinding.parse(line));
+    }
+
+    @Test
+    void invalidContainerParameter() {
+        assertThrows(ElementException.class, () -> ElementBinding.parse("binding_test.simple\t" +
+                Simple.class.getName() + "\tconstructor\t\t\t\tDEPENDENCY*:java.lang.String:"));
+        assertThrows(ElementException.class, () -> ElementBinding.parse("binding_test.simple\t" +
+                Simple.class.getName() + "\tconstructor\t\t\\x\t"));
+    }
+
+    @Test
+    void indexedBindingsAreTrusted() {
+        String simple = Simple.class.getName();
+        ElementBinding duplicateChild = new ElementBinding("binding_test.duplicate_child",
+                DuplicateChild.class.getName(), true, null, List.of(new ElementBinding.Parameter(
+                        ElementBinding.Kind.CHILD, simple, "child"), new ElementBinding.Parameter(
+                        ElementBinding.Kind.CHILD, simple, "child")));
+        ElementBinding invalidKey = new ElementBinding("binding_test.invalid_key", InvalidKey.class.getName(), true,
+                null, List.of(new ElementBinding.Parameter(ElementBinding.Kind.DEPENDENCY, "java.lang.String",
+                "Not A Key")));
+
+        //the index is not validated again, but a key that cannot be constructed at all still fails
+        ClassLoader classLoader = ElementBindingTest.class.getClassLoader();
+        assertDoesNotThrow(() -> ContextManager.builder("test").build()
+                .registerBindings(List.of(duplicateChild), classLoader));
+        assertThrows(ElementException.class, () -> ContextManager.builder("test").build()
+                .registerBindings(List.of(invalidKey), classLoader));
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.steanky.element.core.dependency;
+
+import com.github.steanky.element.core.ElementException;
+import com.github.steanky.ethylene.mapper.type.Token;
+import net.kyori.adventure.key.Key;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingCompositeDependencyProviderTest {
+    private static final DependencyProvider.TypeKey<String> STRING = DependencyProvider.key(Token.STRING);
+
+    @Test
+    void firstProviderWins() {
+        DependencyProvider provider = DependencyProvider.cachingComposite(new MapProvider(Map.of(STRING, "first")),
+                new MapProvider(Map.of(STRING, "second")));
+
+        assertEquals("first", provider.provide(STRING));
+        assertEquals("first", provider.provide(STRING));
+    }
+
+    @Test
+    void missingThrows() {
+        DependencyProvider provider = DependencyProvider.cachingComposite(new MapProvider(Map.of()));
+
+        assertFalse(provider.hasDependency(STRING));
+        assertThrows(ElementException.class, () -> provider.provide(STRING));
+    }
+
+    @Test
+    void invalidationPicksUpChanges() {
+        MapProvider mutable = new MapProvider(new HashMap<>());
+        CachingCompositeDependencyProvider provider = DependencyProvider.cachingComposite(mutable,
+                new MapProvider(Map.of(STRING, "fallback")));
+
+        assertEquals("fallback", provider.provide(STRING));
+
+        mutable.map.put(STRING, "override");
+        assertEquals("fallback", provider.provide(STRING));
+
+        provider.invalidate(STRING);
+        assertEquals("override", provider.provide(STRING));
+    }
+
+    @SuppressWarnings("PatternValidation")
+    @Test
+    void missingKeysAreBounded() {
+        MapProvider mutable = new MapProvider(new HashMap<>());
+        CachingCompositeDependencyProvider provider = DependencyProvider.cachingComposite(mutable);
+
+        List<DependencyProvider.TypeKey<String>> keys = new ArrayList<>();
+        for (int i = 0; i < 2048; i++) {
+            DependencyProvider.TypeKey<String> key = DependencyProvider.key(Token.STRING, Key.key("test:key_" + i));
+            keys.add(key);
+            assertFalse(provider.hasDependency(key));
+        }
+
+        mutable.map.put(keys.get(0), "first");
+        mutable.map.put(keys.get(2047), "last");
+
+        //early misses are remembered, but once the limit is reached misses are no longer cached
+        assertFalse(provider.hasDependency(keys.get(0)));
+        assertTrue(provider.hasDependency(keys.get(2047)));
+    }
+
+    private record MapProvider(Map<DependencyProvider.TypeKey<?>, Object> map) implements DependencyProvider {
+        @SuppressWarnings("unchecked")
+        @Override
+        public <TDependency> TDependency provide(@NotNull TypeKey<TDependency> key) {
+            return (TDependency) map.get(key);
+        }
+
+        @Override
+        public boolean hasDependency(@NotNull TypeKey<?> key) {
+            return map.containsKey(key);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.steanky.element.core.dependency;
+
+import com.github.steanky.element.core.annotation.Memoize;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentMemoizingSupplierTest {
+    @Test
+    void calledOnceUnderContention() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        ConcurrentMemoizingSupplier<Object> supplier = new ConcurrentMemoizingSupplier<>(() -> {
+            calls.incrementAndGet();
+            return new Object();
+        });
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<Object> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+
+                Object result = supplier.get();
+                synchronized (results) {
+                    results.add(result);
+                }
+            });
+
+            threads.add(thread);
+            thread.start();
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(8, results.size());
+        for (Object result : results) {
+            assertSame(results.get(0), result);
+        }
+
+        assertEquals(new ConcurrentMemoizingSupplier.Stats(7, 1), supplier.stats());
+    }
+
+    @Test
+    void weakRetention() {
+        ConcurrentMemoizingSupplier<Object> supplier = new ConcurrentMemoizingSupplier<>(Object::new,
+                Memoize.Reference.WEAK);
+
+        Object first = supplier.get();
+        assertSame(first, supplier.get());
+        assertEquals(1, supplier.stats().invocations());
+    }
+}
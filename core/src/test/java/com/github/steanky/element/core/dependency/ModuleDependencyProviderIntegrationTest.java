@@ -3,6 +3,7 @@ package com.github.steanky.element.core.dependency;
 import com.github.steanky.element.core.ElementException;
 import com.github.steanky.element.core.annotation.Depend;
 import com.github.steanky.element.core.annotation.Memoize;
+import com.github.steanky.element.core.annotation.Scope;
 import com.github.steanky.element.core.key.BasicKeyParser;
 import com.github.steanky.ethylene.mapper.type.Token;
 import net.kyori.adventure.key.Key;
@@ -10,6 +11,9 @@ import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -164,6 +168,191 @@ class ModuleDependencyProviderIntegrationTest {
         assertEquals(WrapperBoxing.primitive(), value2);
     }
 
+    @Test
+    void keysAreInterned() {
+        DependencyProvider.TypeKey<List<String>> first = DependencyProvider.key(new Token<>() {}, Key.key("test:a"));
+        DependencyProvider.TypeKey<List<String>> second = DependencyProvider.key(new Token<>() {}, Key.key("test:a"));
+
+        assertSame(first, second);
+        assertEquals(new DependencyProvider.TypeKey<>(Token.INTEGER, null), DependencyProvider.key(Token.INTEGER));
+
+        assertSame(DependencyProvider.key(Token.STRING), DependencyProvider.key(Token.ofClass(String.class)));
+        assertSame(DependencyProvider.key(Token.STRING, Key.key("test:a")),
+                DependencyProvider.key(Token.ofClass(String.class), Key.key("test:a")));
+        assertSame(DependencyProvider.key(Token.INTEGER), DependencyProvider.key(Token.ofClass(int.class)));
+        assertNotSame(DependencyProvider.key(Token.STRING), DependencyProvider.key(Token.STRING, Key.key("test:a")));
+    }
+
+    @Test
+    void multipleModules() {
+        DependencyProvider provider = new ModuleDependencyProvider(new BasicKeyParser(), new SimpleModule(),
+                new NotAmbiguous());
+
+        int first = provider.provide(DependencyProvider.key(Token.INTEGER, Key.key("test:non_static_method")));
+        String second = provider.provide(DependencyProvider.key(Token.STRING));
+
+        assertEquals(69, first);
+        assertEquals("value", second);
+    }
+
+    @Test
+    void ambiguityAcrossModulesThrows() {
+        assertThrows(ElementException.class, () -> new ModuleDependencyProvider(new BasicKeyParser(),
+                new NotAmbiguous(), new NotAmbiguous()));
+    }
+
+    @Test
+    void contextScope() {
+        DependencyProvider provider = new ModuleDependencyProvider(new BasicKeyParser(), new ScopedModule());
+        DependencyProvider.TypeKey<Object> key = DependencyProvider.key(Token.OBJECT, Key.key("test:context"));
+
+        //outside of any scope, scoped suppliers are called every time
+        assertNotSame(provider.provide(key), provider.provide(key));
+
+        ScopeStorage storage = new ScopeStorage();
+        Object first;
+        try (DependencyScope ignored = DependencyScope.enter(storage)) {
+            first = provider.provide(key);
+            assertSame(first, provider.provide(key));
+        }
+
+        try (DependencyScope ignored = DependencyScope.enter(storage)) {
+            assertSame(first, provider.provide(key));
+        }
+
+        try (DependencyScope ignored = DependencyScope.enter(new ScopeStorage())) {
+            assertNotSame(first, provider.provide(key));
+        }
+    }
+
+    @Test
+    void provideScope() {
+        DependencyProvider provider = new ModuleDependencyProvider(new BasicKeyParser(), new ScopedModule());
+        DependencyProvider.TypeKey<Object> key = DependencyProvider.key(Token.OBJECT, Key.key("test:provide"));
+
+        ScopeStorage storage = new ScopeStorage();
+        Object first;
+        try (DependencyScope ignored = DependencyScope.enter(storage)) {
+            first = provider.provide(key);
+            assertSame(first, provider.provide(key));
+        }
+
+        try (DependencyScope ignored = DependencyScope.enter(storage)) {
+            assertNotSame(first, provider.provide(key));
+        }
+    }
+
+    @Test
+    void scopeWithoutStorage() {
+        assertThrows(ElementException.class, () -> DependencyScope.enter(null));
+    }
+
+    @Test
+    void lazyContextScope() {
+        CountingModule module = new CountingModule();
+        DependencyProvider provider = new ModuleDependencyProvider(new BasicKeyParser(), module);
+        DependencyProvider.TypeKey<String> key = DependencyProvider.key(Token.STRING);
+
+        ScopeStorage storage = new ScopeStorage();
+        Provider<String> unresolved;
+        Provider<String> resolved;
+        try (DependencyScope ignored = DependencyScope.enter(storage)) {
+            unresolved = provider.provider(key);
+            provider.provide(key);
+            resolved = provider.provider(key);
+        }
+
+        //the handles are invoked after the scope has been closed, but still use its storage
+        String first = resolved.get();
+        assertSame(first, resolved.get());
+        assertSame(first, unresolved.get());
+        assertEquals(1, module.calls.get());
+    }
+
+    public static class CountingModule implements DependencyModule {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Depend
+        @Scope(Scope.Kind.CONTEXT)
+        public @NotNull String string() {
+            return "dependency" + calls.incrementAndGet();
+        }
+    }
+
+    @Test
+    void scopeAndMemoizeThrows() {
+        assertThrows(ElementException.class,
+                () -> new ModuleDependencyProvider(new BasicKeyParser(), new ScopeAndMemoize()));
+    }
+
+    public static class ScopedModule implements DependencyModule {
+        @Depend("test:context")
+        @Scope(Scope.Kind.CONTEXT)
+        public @NotNull Object context() {
+            return new Object();
+        }
+
+        @Depend("test:provide")
+        @Scope(Scope.Kind.PROVIDE)
+        public @NotNull Object provide() {
+            return new Object();
+        }
+    }
+
+    public static class ScopeAndMemoize implements DependencyModule {
+        @Depend
+        @Memoize
+        @Scope(Scope.Kind.THREAD)
+        public @NotNull Object object() {
+            return new Object();
+        }
+    }
+
+    @Test
+    void asyncDependency() {
+        DependencyProvider provider = new ModuleDependencyProvider(new BasicKeyParser(), new AsyncModule());
+        DependencyProvider.TypeKey<String> key = DependencyProvider.key(Token.STRING);
+
+        assertTrue(provider.hasDependency(key));
+        assertEquals("async", provider.provideAsync(key).join());
+        assertEquals("async", provider.asyncSupplier(key).get().join());
+        assertThrows(ElementException.class, () -> provider.provide(key));
+    }
+
+    @Test
+    void verifiedAsyncDependencyUsesResolvedSupplier() {
+        DependencyProvider provider = new ModuleDependencyProvider(new BasicKeyParser(), new AsyncModule());
+        DependencyProvider.TypeKey<String> key = DependencyProvider.key(Token.STRING);
+
+        DependencyProvider verified = new VerifiedDependencyProvider(DependencyProvider.EMPTY,
+                Map.of(key, provider.supplier(key)), Map.of(key, provider.asyncSupplier(key)));
+        assertEquals("async", verified.provideAsync(key).join());
+        assertThrows(ElementException.class, () -> verified.provide(key));
+    }
+
+    public static class AsyncModule implements DependencyModule {
+        @Depend
+        public @NotNull CompletableFuture<String> string() {
+            return CompletableFuture.completedFuture("async");
+        }
+    }
+
+    @Test
+    void throwingSupplierWrapsException() {
+        DependencyProvider provider = new ModuleDependencyProvider(new BasicKeyParser(), new ThrowingModule());
+
+        ElementException exception = assertThrows(ElementException.class,
+                () -> provider.provide(DependencyProvider.key(Token.STRING)));
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    public static class ThrowingModule implements DependencyModule {
+        @Depend
+        public @NotNull String string() {
+            throw new IllegalStateException();
+        }
+    }
+
     public static class WrapperBoxing implements DependencyModule {
         @Depend("test:wrapper")
         public static @NotNull Integer wrapper() {
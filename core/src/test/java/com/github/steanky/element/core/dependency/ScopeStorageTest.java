@@ -0,0 +1,88 @@
+package com.github.steanky.element.core.dependency;
+
+import com.github.steanky.element.core.ElementException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScopeStorageTest {
+    @Test
+    void slowValueDoesNotBlockOthers() throws InterruptedException {
+        ScopeStorage storage = new ScopeStorage();
+        Object slowOwner = new Object();
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread slow = new Thread(() -> storage.get(slowOwner, () -> {
+            creating.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+
+            return "slow";
+        }));
+        slow.start();
+
+        assertTrue(creating.await(10, TimeUnit.SECONDS));
+        assertEquals("fast", storage.get(new Object(), () -> "fast"));
+
+        AtomicReference<Object> waited = new AtomicReference<>();
+        Thread waiter = new Thread(() -> waited.set(storage.get(slowOwner, () -> "other")));
+        waiter.start();
+
+        release.countDown();
+        slow.join();
+        waiter.join();
+
+        assertEquals("slow", waited.get());
+    }
+
+    @Test
+    void calledOnceUnderContention() throws InterruptedException {
+        ScopeStorage storage = new ScopeStorage();
+        Object owner = new Object();
+        AtomicInteger calls = new AtomicInteger();
+
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> storage.get(owner, () -> {
+                calls.incrementAndGet();
+                return new Object();
+            }));
+            threads[i].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void failedCreationIsRetried() {
+        ScopeStorage storage = new ScopeStorage();
+        Object owner = new Object();
+
+        assertThrows(IllegalStateException.class, () -> storage.get(owner, () -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals("value", storage.get(owner, () -> "value"));
+    }
+
+    @Test
+    void selfDependency() {
+        ScopeStorage storage = new ScopeStorage();
+        Object owner = new Object();
+
+        assertThrows(ElementException.class, () -> storage.get(owner, () -> storage.get(owner, Object::new)));
+        assertEquals("value", storage.get(owner, () -> "value"));
+    }
+}
@@ -1,22 +1,51 @@
 package com.github.steanky.element.core.element;
 
+import com.github.steanky.element.core.ElementBinding;
+import com.github.steanky.element.core.ElementException;
 import com.github.steanky.element.core.annotation.Child;
 import com.github.steanky.element.core.annotation.DataObject;
 import com.github.steanky.element.core.annotation.FactoryMethod;
 import com.github.steanky.element.core.annotation.Model;
+import com.github.steanky.element.core.context.ConstructionTrace;
 import com.github.steanky.element.core.context.ContextManager;
+import com.github.steanky.element.core.context.ContextStats;
 import com.github.steanky.element.core.context.ElementContext;
+import com.github.steanky.element.core.context.SlowConstructionWatchdog;
+import com.github.steanky.element.core.dependency.DependencyProvider;
+import com.github.steanky.element.core.dependency.Provider;
+import com.github.steanky.element.core.jfr.InstantiateEvent;
+import com.github.steanky.element.core.jfr.ProvideEvent;
+import com.github.steanky.element.core.jfr.RegisterEvent;
+import com.github.steanky.element.core.metrics.BasicElementMetrics;
 import com.github.steanky.ethylene.core.ConfigElement;
 import com.github.steanky.ethylene.core.collection.ConfigContainer;
+import com.github.steanky.ethylene.core.collection.ConfigNode;
+import com.github.steanky.ethylene.core.path.ConfigPath;
 import com.github.steanky.ethylene.mapper.annotation.Default;
+import com.github.steanky.ethylene.mapper.type.Token;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.kyori.adventure.key.Key;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class ContextManagerIntegrationTest {
     private static ContextManager manager() {
@@ -122,12 +151,597 @@ public class ContextManagerIntegrationTest {
         assertNotNull(child.simple.simple);
     }
 
+    @Test
+    void arrayChildren() {
+        ArrayChildren element = context("{type='array_children', children=[{type='simple'}, {type='simple'}]}").provide();
+        assertEquals(2, element.children.length);
+        assertNotNull(element.children[0]);
+        assertNotNull(element.children[1]);
+    }
+
+    @Test
+    void emptyArrayChildren() {
+        ArrayChildren element = context("{type='array_children', children=[]}").provide();
+        assertEquals(0, element.children.length);
+    }
+
+    @Test
+    void deeplyNestedChildren() {
+        ConfigNode node = ConfigNode.of("type", "simple");
+        for (int i = 0; i < 10_000; i++) {
+            node = ConfigNode.of("type", "nested", "next", node);
+        }
+
+        Nested element = context(node).provide();
+        int depth = 0;
+        Object current = element;
+        while (current instanceof Nested nested) {
+            current = nested.next;
+            depth++;
+        }
+
+        assertEquals(10_000, depth);
+        assertInstanceOf(Simple.class, current);
+    }
+
+    @Test
+    void cyclicRedirectThrows() {
+        ElementContext context = context("{type='simple_child', child='./a', a='./b', b='./a'}");
+        assertThrows(ElementException.class, context::provide);
+    }
+
+    @Test
+    void provideCollectionUsesSubstitute() {
+        ElementContext context = context("{list=[{type='simple_data', value=1}, {type='simple_data', value=2}], " +
+                "map={first={type='simple_data', value=3}, second={type='simple_data', value=4}}}");
+
+        List<SimpleData> list = context.provideCollection(ConfigPath.of("list"), true);
+        assertEquals(List.of(1, 2), list.stream().map(data -> data.data.value).toList());
+        for (int i = 0; i < list.size(); i++) {
+            //elements built from the substitute node are cached under the same path as a lookup from the root
+            assertSame(list.get(i), context.provide(ConfigPath.of("list/" + i), DependencyProvider.EMPTY, true));
+        }
+
+        Map<String, SimpleData> map = context.provideMap(ConfigPath.of("map"), true);
+        assertEquals(List.of("first", "second"), List.copyOf(map.keySet()));
+        assertEquals(3, map.get("first").data.value);
+        assertSame(map.get("second"), context.provide(ConfigPath.of("map/second"), DependencyProvider.EMPTY, true));
+    }
+
+    @Test
+    void lazyDependency() {
+        AtomicInteger calls = new AtomicInteger();
+        DependencyProvider dependencyProvider = new DependencyProvider() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public <TDependency> TDependency provide(@NotNull TypeKey<TDependency> key) {
+                calls.incrementAndGet();
+                return (TDependency) "dependency";
+            }
+
+            @Override
+            public boolean hasDependency(@NotNull TypeKey<?> key) {
+                return key.type().rawType().equals(String.class);
+            }
+        };
+
+        LazyDependency element = context("{type='lazy_dependency'}").provide(dependencyProvider);
+        assertEquals(0, calls.get());
+
+        assertEquals("dependency", element.provider.get());
+        assertEquals("dependency", element.supplier.get());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void verifyDependencies() {
+        ContextManager manager = manager();
+        assertThrows(ElementException.class, () -> manager.verifyDependencies(DependencyProvider.EMPTY));
+
+        DependencyProvider dependencyProvider = new DependencyProvider() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public <TDependency> TDependency provide(@NotNull TypeKey<TDependency> key) {
+                return (TDependency) "dependency";
+            }
+
+            @Override
+            public boolean hasDependency(@NotNull TypeKey<?> key) {
+                return key.type().rawType().equals(String.class);
+            }
+        };
+
+        DependencyProvider verified = manager.verifyDependencies(dependencyProvider);
+        LazyDependency element = manager.makeContext(ConfigElement.of("{type='lazy_dependency'}").asContainer())
+                .provide(verified);
+        assertEquals("dependency", element.provider.get());
+    }
+
+    @Test
+    void provideAsync() {
+        CompletableFuture<String> dependency = new CompletableFuture<>();
+        DependencyProvider dependencyProvider = new DependencyProvider() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public <TDependency> TDependency provide(@NotNull TypeKey<TDependency> key) {
+                return (TDependency) dependency.join();
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public <TDependency> @NotNull CompletableFuture<TDependency> provideAsync(
+                    @NotNull TypeKey<TDependency> key) {
+                return (CompletableFuture<TDependency>) dependency;
+            }
+
+            @Override
+            public boolean hasDependency(@NotNull TypeKey<?> key) {
+                return key.type().rawType().equals(String.class);
+            }
+        };
+
+        CompletableFuture<SimpleChild> future = context("{type='simple_child', child={type='async_dependency'}}")
+                .provideAsync(dependencyProvider);
+        assertFalse(future.isDone());
+
+        dependency.complete("dependency");
+        SimpleChild element = future.join();
+        assertNotNull(element.simple);
+    }
+
+    @Test
+    void provideAsyncFailure() {
+        CompletableFuture<Object> future = context("{type='simple_child', child={type='unknown'}}")
+                .provideAsync(DependencyProvider.EMPTY);
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(ElementException.class, exception.getCause());
+    }
+
+    @Test
+    void bindings() {
+        List<ElementBinding> bindings = new ArrayList<>();
+        for (Class<?> cls : ContextManagerIntegrationTest.class.getDeclaredClasses()) {
+            ElementBinding binding = ElementBinding.of(cls);
+            assertEquals(binding, ElementBinding.parse(binding.format()));
+            bindings.add(binding);
+        }
+
+        ContextManager manager = ContextManager.builder("test").build();
+        manager.registerBindings(bindings, ContextManagerIntegrationTest.class.getClassLoader());
+
+        ElementContext context = manager.makeContext(ConfigElement.of("{type='simple_child', child={type='simple'}}")
+                .asContainer());
+        assertNotNull(((SimpleChild) context.provide()).simple);
+
+        SimpleData data = manager.makeContext(ConfigElement.of("{type='simple_data', value=10}").asContainer())
+                .provide();
+        assertEquals(10, data.data.value);
+    }
+
+    @Test
+    void metrics() {
+        BasicElementMetrics metrics = new BasicElementMetrics();
+        ContextManager manager = ContextManager.builder("test").withElementMetrics(metrics).build();
+        for (Class<?> cls : ContextManagerIntegrationTest.class.getDeclaredClasses()) {
+            manager.registerElementClass(cls);
+        }
+
+        ElementContext context = manager.makeContext(ConfigElement.of("{type='simple_child', child={type='simple'}, " +
+                "data={type='simple_data', value=10}, lazy={type='lazy_dependency'}}").asContainer());
+        context.provide();
+        context.provide(ConfigPath.of("data"), DependencyProvider.EMPTY, true);
+        context.provide(ConfigPath.of("data"), DependencyProvider.EMPTY, true);
+
+        LazyDependency lazy = context.provide(ConfigPath.of("lazy"), new DependencyProvider() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public <TDependency> TDependency provide(@NotNull TypeKey<TDependency> key) {
+                return (TDependency) "dependency";
+            }
+
+            @Override
+            public boolean hasDependency(@NotNull TypeKey<?> key) {
+                return key.type().rawType().equals(String.class);
+            }
+        }, false);
+        lazy.provider.get();
+
+        assertEquals(1, metrics.typeStatistics(Key.key("test:simple_child")).constructionTime().count());
+        assertEquals(1, metrics.typeStatistics(Key.key("test:simple")).constructionTime().count());
+
+        BasicElementMetrics.TypeStatistics data = metrics.typeStatistics(Key.key("test:simple_data"));
+        assertEquals(1, data.constructionTime().count());
+        assertEquals(1, data.dataTime().count());
+        assertEquals(1, data.cacheHits());
+        assertEquals(1, data.cacheMisses());
+        assertEquals(0.5, data.cacheHitRatio());
+
+        assertEquals(1, metrics.dependencyStatistics().values().iterator().next().count());
+
+        assertThrows(ElementException.class, () -> manager.makeContext(ConfigElement.of("{type='simple_child', " +
+                "child={type='unknown'}}").asContainer()).provide());
+        assertEquals(1, metrics.typeStatistics(Key.key("test:simple_child")).failures());
+    }
+
+    @Test
+    void metricsKeepLazyHandle() {
+        BasicElementMetrics metrics = new BasicElementMetrics();
+        ContextManager manager = ContextManager.builder("test").withElementMetrics(metrics).build();
+        manager.registerElementClass(LazyDependency.class);
+
+        AtomicInteger handleCalls = new AtomicInteger();
+        DependencyProvider dependencyProvider = new DependencyProvider() {
+            @Override
+            public <TDependency> TDependency provide(@NotNull TypeKey<TDependency> key) {
+                return fail("Lazy dependencies should use the handle returned by provider");
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public <TDependency> @NotNull Provider<TDependency> provider(@NotNull TypeKey<TDependency> key) {
+                return () -> {
+                    handleCalls.incrementAndGet();
+                    return (TDependency) "dependency";
+                };
+            }
+
+            @Override
+            public boolean hasDependency(@NotNull TypeKey<?> key) {
+                return key.type().rawType().equals(String.class);
+            }
+        };
+
+        LazyDependency element = manager.makeContext(ConfigElement.of("{type='lazy_dependency'}").asContainer())
+                .provide(dependencyProvider);
+        assertEquals("dependency", element.provider.get());
+        assertEquals("dependency", element.supplier.get());
+
+        assertEquals(2, handleCalls.get());
+        assertEquals(2, metrics.dependencyStatistics().values().iterator().next().count());
+    }
+
+    @Test
+    void flightRecorderEvents() throws IOException {
+        Path file = Files.createTempFile("events", ".jfr");
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(ProvideEvent.NAME).withThreshold(Duration.ZERO);
+            recording.enable(RegisterEvent.NAME).withThreshold(Duration.ZERO);
+            recording.enable(InstantiateEvent.NAME).withThreshold(Duration.ZERO);
+            recording.start();
+
+            context("{type='simple_child', child={type='simple'}}").provide();
+
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+
+        List<String> provided = events.stream().filter(event -> event.getEventType().getName()
+                .equals(ProvideEvent.NAME)).map(event -> event.getString("type")).toList();
+        assertEquals(List.of("test:simple", "test:simple_child"), provided);
+
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals(RegisterEvent.NAME)));
+
+        List<String> instantiated = events.stream().filter(event -> event.getEventType().getName()
+                .equals(InstantiateEvent.NAME)).map(event -> event.getClass("elementClass").getName()).toList();
+        assertEquals(List.of(Simple.class.getName(), SimpleChild.class.getName()), instantiated);
+    }
+
+    @Test
+    void provideTraced() {
+        ElementContext context = context("{type='simple_child', child={type='simple'}}");
+        ElementContext.Traced<SimpleChild> traced = context.provideTraced(DependencyProvider.EMPTY);
+        assertNotNull(traced.element().simple);
+
+        ConstructionTrace.Node root = traced.trace().root();
+        assertEquals(Key.key("test:simple_child"), root.type());
+        assertEquals(ConstructionTrace.CacheStatus.UNCACHED, root.cache());
+        assertEquals(1, root.children().size());
+
+        ConstructionTrace.Node child = root.children().get(0);
+        assertEquals(Key.key("test:simple"), child.type());
+        assertTrue(child.path().toString().contains("child"), child.path().toString());
+        assertTrue(child.nanos() <= root.nanos());
+
+        String json = traced.trace().toJson();
+        assertTrue(json.startsWith("{\"path\":"));
+        assertTrue(json.contains("\"type\":\"test:simple\""));
+
+        for (String line : traced.trace().toCollapsedStacks().split("\n")) {
+            if (!line.isEmpty()) {
+                assertTrue(line.startsWith("test:simple_child "), line);
+            }
+        }
+    }
+
+    @Test
+    void provideTracedCacheHit() {
+        ElementContext context = context("{type='simple'}");
+        Object element = context.provide(ConfigPath.EMPTY, DependencyProvider.EMPTY, true);
+
+        ElementContext.Traced<Object> traced = context.provideTraced(ConfigPath.EMPTY, DependencyProvider.EMPTY, true);
+        assertSame(element, traced.element());
+        assertEquals(ConstructionTrace.CacheStatus.HIT, traced.trace().root().cache());
+    }
+
+    /*
+    Delegates the abstract methods of ElementContext to another context, so that the default methods can be tested.
+     */
+    private static ElementContext delegating(ElementContext delegate) {
+        return new ElementContext() {
+            @Override
+            public <TElement> @NotNull TElement provide(@NotNull ConfigPath path, ConfigNode substitute,
+                    @NotNull DependencyProvider dependencyProvider, boolean cache) {
+                return delegate.provide(path, substitute, dependencyProvider, cache);
+            }
+
+            @Override
+            public @NotNull ConfigContainer root() {
+                return delegate.root();
+            }
+
+            @Override
+            public void registerDefaults(@NotNull ConfigPath path, @NotNull ConfigNode values) {
+                delegate.registerDefaults(path, values);
+            }
+
+            @Override
+            public ConfigNode follow(@NotNull ConfigPath path) {
+                return delegate.follow(path);
+            }
+        };
+    }
+
+    @Test
+    void defaultProvideTraced() {
+        ElementContext context = delegating(context("{type='simple_child', child={type='simple'}}"));
+        ElementContext.Traced<Object> traced = context.provideTraced(ConfigPath.of("child"),
+                DependencyProvider.EMPTY, false);
+        assertInstanceOf(Simple.class, traced.element());
+
+        ConstructionTrace.Node root = traced.trace().root();
+        assertEquals(ConstructionTrace.UNKNOWN_TYPE, root.type());
+        assertEquals(ConfigPath.of("child").toAbsolute(), root.path());
+        assertTrue(root.children().isEmpty());
+        assertFalse(root.failed());
+    }
+
+    @Test
+    void deepTraceExport() {
+        ConfigNode node = ConfigNode.of("type", "simple");
+        for (int i = 0; i < 10_000; i++) {
+            node = ConfigNode.of("type", "nested", "next", node);
+        }
+
+        ElementContext.Traced<Nested> traced = context(node).provideTraced(DependencyProvider.EMPTY);
+        String json = traced.trace().toJson();
+        assertTrue(json.endsWith("]}".repeat(10_001)));
+    }
+
+    @Test
+    void stats() {
+        ElementContext context = context("{type='simple_child', child={type='simple'}, " +
+                "data={type='simple_data', value=10}}");
+        context.provide(ConfigPath.EMPTY, DependencyProvider.EMPTY, true);
+        context.provide(ConfigPath.of("data"), DependencyProvider.EMPTY, true);
+
+        ContextStats stats = context.stats();
+        assertEquals(3, stats.types().entries());
+        assertEquals(3, stats.data().entries());
+        assertEquals(2, stats.elements().entries());
+        assertTrue(stats.totalBytes() > 0);
+
+        ContextStats.TypeUsage data = stats.byType().get(Key.key("test:simple_data"));
+        assertEquals(1, data.data().entries());
+        assertEquals(1, data.elements().entries());
+        assertTrue(data.data().bytes() > 0);
+
+        ContextStats.TypeUsage simple = stats.byType().get(Key.key("test:simple"));
+        assertEquals(0, simple.elements().entries());
+    }
+
+    @Test
+    void statsExcludeDependencies() {
+        DependencyProvider dependencyProvider = new DependencyProvider() {
+            private final long[] payload = new long[10_000];
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public <TDependency> TDependency provide(@NotNull TypeKey<TDependency> key) {
+                return (TDependency) String.valueOf(payload.length);
+            }
+
+            @Override
+            public boolean hasDependency(@NotNull TypeKey<?> key) {
+                return key.type().rawType().equals(String.class);
+            }
+        };
+
+        ElementContext context = context("{type='lazy_dependency'}");
+        context.provide(ConfigPath.EMPTY, dependencyProvider, true);
+
+        //the element's lazy dependencies reference the provider, and are counted deeply unless it is excluded
+        assertTrue(context.stats().elements().bytes() > 80_000);
+        assertTrue(context.stats(dependencyProvider).elements().bytes() < 10_000);
+    }
+
+    @Test
+    void defaultStats() {
+        ElementContext context = delegating(context("{type='simple_data', value=10}"));
+        context.provide(ConfigPath.EMPTY, DependencyProvider.EMPTY, true);
+
+        ContextStats stats = context.stats();
+        assertEquals(1, stats.data().entries());
+        assertEquals(stats.data().bytes(), stats.totalBytes());
+        assertTrue(stats.totalBytes() > 0);
+        assertTrue(stats.byType().isEmpty());
+    }
+
+    @Test
+    void slowConstructionWatchdog() {
+        List<SlowConstructionWatchdog.SlowConstruction> reports = new ArrayList<>();
+        ContextManager manager = ContextManager.builder("test").withSlowConstructionWatchdog(
+                new SlowConstructionWatchdog(Duration.ofMillis(20), reports::add)).build();
+        for (Class<?> cls : ContextManagerIntegrationTest.class.getDeclaredClasses()) {
+            manager.registerElementClass(cls);
+        }
+
+        ElementContext context = manager.makeContext(ConfigElement.of("{type='simple_child', child={type='slow'}}")
+                .asContainer());
+        context.provide();
+
+        //the parent is only slow because of its child, so it is not reported
+        assertEquals(1, reports.size());
+
+        SlowConstructionWatchdog.SlowConstruction report = reports.get(0);
+        assertEquals(Key.key("test:slow"), report.type());
+        assertEquals(ConfigPath.of("child"), report.path());
+        assertTrue(report.nanos() >= Duration.ofMillis(50).toNanos());
+        assertEquals(List.of(new SlowConstructionWatchdog.StackEntry(Key.key("test:simple_child"), ConfigPath.EMPTY),
+                new SlowConstructionWatchdog.StackEntry(Key.key("test:slow"), ConfigPath.of("child"))),
+                report.stack());
+    }
+
+    @Test
+    void failingWatchdogCallback() {
+        ContextManager manager = ContextManager.builder("test").withSlowConstructionWatchdog(
+                new SlowConstructionWatchdog(Duration.ofMillis(20), construction -> {
+                    throw new IllegalStateException();
+                })).build();
+        for (Class<?> cls : ContextManagerIntegrationTest.class.getDeclaredClasses()) {
+            manager.registerElementClass(cls);
+        }
+
+        ElementContext context = manager.makeContext(ConfigElement.of("{type='slow'}").asContainer());
+        Object element = context.provide(ConfigPath.EMPTY, DependencyProvider.EMPTY, true);
+        assertInstanceOf(Slow.class, element);
+        assertSame(element, context.provide(ConfigPath.EMPTY, DependencyProvider.EMPTY, true));
+    }
+
+    @Test
+    void beginProvide() {
+        ElementContext context = context("{type='simple_child', child={type='simple'}}");
+        ElementContext.IncrementalConstruction<SimpleChild> construction =
+                context.beginProvide(DependencyProvider.EMPTY);
+        assertFalse(construction.isDone());
+        assertThrows(IllegalStateException.class, construction::element);
+
+        int steps = 1;
+        while (!construction.step(0)) {
+            steps++;
+        }
+
+        assertTrue(steps > 1);
+        assertTrue(construction.isDone());
+        assertTrue(construction.step(0));
+
+        SimpleChild element = construction.element();
+        assertNotNull(element.simple);
+    }
+
+    @Test
+    void beginProvideExcludesTimeBetweenSteps() throws InterruptedException {
+        //the pause between steps is long, so that the assertions only fail if it is included
+        Duration pause = Duration.ofMillis(200);
+        List<SlowConstructionWatchdog.SlowConstruction> reports = new ArrayList<>();
+        BasicElementMetrics metrics = new BasicElementMetrics();
+        ContextManager manager = ContextManager.builder("test").withElementMetrics(metrics)
+                .withSlowConstructionWatchdog(new SlowConstructionWatchdog(pause, reports::add))
+                .build();
+        for (Class<?> cls : ContextManagerIntegrationTest.class.getDeclaredClasses()) {
+            manager.registerElementClass(cls);
+        }
+
+        ElementContext context = manager.makeContext(ConfigElement.of("{type='simple_child', child={type='simple'}}")
+                .asContainer());
+        ElementContext.IncrementalConstruction<SimpleChild> construction =
+                context.beginProvide(DependencyProvider.EMPTY);
+
+        int pauses = 0;
+        while (!construction.step(0)) {
+            pauses++;
+            Thread.sleep(pause.toMillis());
+        }
+
+        //the root element was under construction during every pause
+        assertTrue(pauses > 1);
+        assertNotNull(construction.element().simple);
+        assertEquals(List.of(), reports);
+        assertTrue(metrics.typeStatistics(Key.key("test:simple_child")).constructionTime().max() <
+                pause.toNanos() * pauses);
+    }
+
+    @Test
+    void beginProvideUnexpectedException() {
+        IllegalStateException failure = new IllegalStateException();
+        DependencyProvider dependencyProvider = new DependencyProvider() {
+            @Override
+            public <TDependency> TDependency provide(@NotNull TypeKey<TDependency> key) {
+                throw failure;
+            }
+
+            @Override
+            public boolean hasDependency(@NotNull TypeKey<?> key) {
+                return key.type().rawType().equals(String.class);
+            }
+        };
+
+        ElementContext context = context("{type='simple_child', child={type='async_dependency'}}");
+        ElementContext.IncrementalConstruction<SimpleChild> construction = context.beginProvide(ConfigPath.EMPTY,
+                null, dependencyProvider, false);
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> {
+            while (!construction.step(0)) {
+                assertFalse(construction.isDone());
+            }
+        }));
+
+        //construction has ended, and the parent is never built without its child
+        assertTrue(construction.isDone());
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> construction.step(0)));
+        assertSame(failure, assertThrows(IllegalStateException.class, construction::element));
+    }
+
+    @Test
+    void beginProvideUnlimitedBudget() {
+        ElementContext context = context("{type='simple_child', child={type='simple'}}");
+        ElementContext.IncrementalConstruction<SimpleChild> construction =
+                context.beginProvide(DependencyProvider.EMPTY);
+        assertTrue(construction.step(Long.MAX_VALUE));
+        assertNotNull(construction.element().simple);
+    }
+
+    @Model("async_dependency")
+    public static class AsyncDependency extends Simple {
+        @FactoryMethod
+        public AsyncDependency(String dependency) {
+            assertEquals("dependency", dependency);
+        }
+    }
+
     @Model("simple")
     public static class Simple {
         @FactoryMethod
         public Simple() {}
     }
 
+    @Model("slow")
+    public static class Slow extends Simple {
+        @FactoryMethod
+        public Slow() {
+            try {
+                Thread.sleep(50);
+            }
+            catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
     @Model("simple_data")
     public static class SimpleData {
         private final Data data;
@@ -206,4 +820,36 @@ public class ContextManagerIntegrationTest {
             this.children = new HashSet<>(children);
         }
     }
+
+    @Model("nested")
+    public static class Nested {
+        private final Object next;
+
+        @FactoryMethod
+        public Nested(@Child("next") Object next) {
+            this.next = next;
+        }
+    }
+
+    @Model("lazy_dependency")
+    public static class LazyDependency {
+        private final Provider<String> provider;
+        private final Supplier<String> supplier;
+
+        @FactoryMethod
+        public LazyDependency(Provider<String> provider, Supplier<String> supplier) {
+            this.provider = provider;
+            this.supplier = supplier;
+        }
+    }
+
+    @Model("array_children")
+    public static class ArrayChildren {
+        private final Simple[] children;
+
+        @FactoryMethod
+        public ArrayChildren(@Child("children") Simple[] children) {
+            this.children = children;
+        }
+    }
 }
@@ -1,11 +1,12 @@
 package com.github.steanky.element.core.factory;
 
+import com.github.steanky.element.core.ElementException;
 import com.github.steanky.ethylene.mapper.type.Token;
 import org.junit.jupiter.api.Test;
 
-import java.util.ArrayList;
+import java.util.*;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class BasicContainerCreatorTest {
     @Test
@@ -27,4 +28,74 @@ class BasicContainerCreatorTest {
 
         assertEquals(int.class, extracted.rawType());
     }
-}
\ No newline at end of file
+
+    @Test
+    void resolvesInterfaceTypes() {
+        ContainerCreator containerCreator = new BasicContainerCreator();
+
+        assertInstanceOf(ArrayList.class, containerCreator.createContainer(List.class, 10));
+        assertInstanceOf(HashSet.class, containerCreator.createContainer(Set.class, 10));
+        assertInstanceOf(ArrayList.class, containerCreator.createContainer(ArrayList.class, 0));
+    }
+
+    @Test
+    void createsArrays() {
+        ContainerCreator containerCreator = new BasicContainerCreator();
+
+        Object array = containerCreator.createContainer(String[].class, 5);
+        assertInstanceOf(String[].class, array);
+        assertEquals(5, ((String[]) array).length);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void compactListBecomesUnmodifiableWhenFull() {
+        ContainerCreator containerCreator = new BasicContainerCreator(true);
+
+        List<Object> list = (List<Object>) containerCreator.createContainer(List.class, 2);
+        list.add("first");
+        list.add("second");
+
+        assertEquals(List.of("first", "second"), list);
+        assertThrows(UnsupportedOperationException.class, () -> list.add("third"));
+        assertThrows(UnsupportedOperationException.class, () -> list.set(0, "third"));
+        assertThrows(UnsupportedOperationException.class, () -> list.remove(0));
+    }
+
+    @Test
+    void emptyCompactListIsUnmodifiable() {
+        ContainerCreator containerCreator = new BasicContainerCreator(true);
+
+        @SuppressWarnings("unchecked")
+        List<Object> list = (List<Object>) containerCreator.createContainer(List.class, 0);
+        assertTrue(list.isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> list.add("first"));
+    }
+
+    public static class FailingList extends ArrayList<Object> {
+        public FailingList(int size) {
+            throw new StackOverflowError();
+        }
+    }
+
+    public static class ThrowingList extends ArrayList<Object> {
+        public ThrowingList(int size) {
+            throw new IllegalStateException();
+        }
+    }
+
+    @Test
+    void errorsAreNotWrapped() {
+        ContainerCreator containerCreator = new BasicContainerCreator();
+
+        assertThrows(StackOverflowError.class, () -> containerCreator.createContainer(FailingList.class, 0));
+        assertThrows(ElementException.class, () -> containerCreator.createContainer(ThrowingList.class, 0));
+    }
+
+    @Test
+    void unresolvableTypeThrows() {
+        ContainerCreator containerCreator = new BasicContainerCreator();
+
+        assertThrows(ElementException.class, () -> containerCreator.createContainer(Map.class, 0));
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.steanky.element.core.key;
 
+import com.github.steanky.element.core.ElementException;
 import net.kyori.adventure.key.Key;
 import org.junit.jupiter.api.Test;
 
@@ -75,4 +76,50 @@ class BasicKeyParserTest {
         assertEquals("default", key.namespace());
         assertEquals("", key.value());
     }
-}
\ No newline at end of file
+
+    @Test
+    void cachedKeysAreShared() {
+        final KeyParser parser = new BasicKeyParser("default");
+        final Key first = parser.parseKey("mob/zombie");
+
+        assertSame(first, parser.parseKey("mob/zombie"));
+        assertEquals(Key.key("default", "mob/zombie"), first);
+    }
+
+    @Test
+    void fullCacheStillParses() {
+        final KeyParser parser = new BasicKeyParser("default", 1);
+        final Key first = parser.parseKey("first");
+        final Key second = parser.parseKey("second");
+
+        assertEquals(first, parser.parseKey("first"));
+        assertEquals(second, parser.parseKey("second"));
+        assertThrows(ElementException.class, () -> parser.parseKey("Invalid"));
+    }
+
+    @Test
+    void fullCacheEvictsUnusedKeys() {
+        final KeyParser parser = new BasicKeyParser("default", 2);
+        final Key used = parser.parseKey("used");
+        final Key unused = parser.parseKey("unused");
+
+        assertSame(used, parser.parseKey("used"));
+        parser.parseKey("new");
+
+        assertSame(used, parser.parseKey("used"));
+        final Key reparsed = parser.parseKey("unused");
+        assertNotSame(unused, reparsed);
+        assertEquals(unused, reparsed);
+    }
+
+    @Test
+    void uncachedParserValidates() {
+        final KeyParser parser = new BasicKeyParser("default", 0);
+
+        assertEquals(Key.key("test", "value"), parser.parseKey("test:value"));
+        assertTrue(parser.isValidKey("test:value"));
+        assertFalse(parser.isValidKey("Test:value"));
+        assertFalse(parser.isValidKey("test:value:extra"));
+        assertThrows(ElementException.class, () -> parser.parseKey("test:Value"));
+    }
+}
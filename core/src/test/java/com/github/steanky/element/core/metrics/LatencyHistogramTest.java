@@ -0,0 +1,62 @@
+package com.github.steanky.element.core.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    @Test
+    void empty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(50));
+        assertEquals(0, histogram.snapshot().mean());
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 10; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(10, histogram.count());
+        assertEquals(45, histogram.total());
+        assertEquals(9, histogram.max());
+        assertEquals(4, histogram.percentile(50));
+        assertEquals(9, histogram.percentile(100));
+    }
+
+    @Test
+    void largeValuesAreApproximate() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        long median = histogram.percentile(50);
+        assertTrue(median >= 50_000_000L && median <= 50_000_000L * 17 / 16, Long.toString(median));
+
+        long p99 = histogram.percentile(99);
+        assertTrue(p99 >= 99_000_000L && p99 <= 99_000_000L * 17 / 16, Long.toString(p99));
+        assertEquals(100_000_000L, histogram.percentile(100));
+    }
+
+    @Test
+    void extremeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-1);
+
+        assertEquals(Long.MAX_VALUE, histogram.max());
+        assertEquals(0, histogram.percentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.percentile(100));
+    }
+
+    @Test
+    void invalidPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(101));
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(Double.NaN));
+    }
+}
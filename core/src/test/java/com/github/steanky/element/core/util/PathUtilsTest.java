@@ -0,0 +1,31 @@
+package com.github.steanky.element.core.util;
+
+import com.github.steanky.ethylene.core.path.ConfigPath;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathUtilsTest {
+    @Test
+    void cachedIndexStrings() {
+        for (int index : new int[] {0, 1, 1022, 1023, 1024, 1025, Integer.MAX_VALUE - 1}) {
+            assertEquals(Integer.toString(index), PathUtils.indexString(index));
+        }
+
+        assertSame(PathUtils.indexString(1023), PathUtils.indexString(1023));
+    }
+
+    @Test
+    void appendedIndexMatchesFreshPath() {
+        ConfigPath base = ConfigPath.of("list");
+        for (int index : new int[] {0, 1023, 1024}) {
+            assertEquals(base.append(Integer.toString(index)), PathUtils.appendIndex(base, index));
+            assertEquals(ConfigPath.of("list/" + index), PathUtils.appendIndex(base, index));
+        }
+    }
+
+    @Test
+    void negativeIndexThrows() {
+        assertThrows(IndexOutOfBoundsException.class, () -> PathUtils.indexString(-1));
+    }
+}
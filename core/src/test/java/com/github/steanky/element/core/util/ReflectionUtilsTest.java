@@ -0,0 +1,62 @@
+package com.github.steanky.element.core.util;
+
+import com.github.steanky.element.core.ElementException;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReflectionUtilsTest {
+    public static class Methods {
+        public String caller() {
+            //the frame calling this method, including hidden frames such as lambda classes and method handle forms
+            return StackWalker.getInstance(StackWalker.Option.SHOW_HIDDEN_FRAMES).walk(frames -> frames.skip(1)
+                    .findFirst().orElseThrow().getClassName());
+        }
+
+        public static int primitive() {
+            return 10;
+        }
+
+        public String elementException() {
+            throw new ElementException("thrown by method");
+        }
+
+        public String runtimeException() {
+            throw new IllegalStateException();
+        }
+    }
+
+    @Test
+    void usesGeneratedLambda() throws NoSuchMethodException {
+        Supplier<String> supplier = ReflectionUtils.methodSupplier(Methods.class.getMethod("caller"), new Methods());
+
+        //a LambdaMetafactory-generated class calls the method directly, rather than a method handle
+        assertTrue(supplier.get().startsWith(Methods.class.getName() + "$$Lambda"), supplier.get());
+    }
+
+    @Test
+    void staticPrimitiveMethod() throws NoSuchMethodException {
+        Supplier<Integer> supplier = ReflectionUtils.methodSupplier(Methods.class.getMethod("primitive"), null);
+        assertEquals(10, supplier.get());
+    }
+
+    @Test
+    void elementExceptionNotWrapped() throws NoSuchMethodException {
+        Supplier<String> supplier = ReflectionUtils.methodSupplier(Methods.class.getMethod("elementException"),
+                new Methods());
+
+        ElementException exception = assertThrows(ElementException.class, supplier::get);
+        assertNull(exception.getCause());
+    }
+
+    @Test
+    void runtimeExceptionWrapped() throws NoSuchMethodException {
+        Supplier<String> supplier = ReflectionUtils.methodSupplier(Methods.class.getMethod("runtimeException"),
+                new Methods());
+
+        ElementException exception = assertThrows(ElementException.class, supplier::get);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+}
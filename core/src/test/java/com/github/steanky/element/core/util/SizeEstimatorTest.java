@@ -0,0 +1,94 @@
+package com.github.steanky.element.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SizeEstimatorTest {
+    private record Node(int value, Object next) {}
+
+    @Test
+    void sharedObjectsCountedOnce() {
+        SizeEstimator estimator = new SizeEstimator();
+        String shared = "shared string";
+
+        long first = estimator.deepSize(new Node(0, shared));
+        long second = estimator.deepSize(new Node(1, shared));
+        assertTrue(first > second);
+        assertEquals(0, estimator.deepSize(shared));
+    }
+
+    @Test
+    void collectionsIncludeElements() {
+        List<Object> small = new ArrayList<>(List.of("a"));
+        List<Object> large = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            large.add("element " + i);
+        }
+
+        assertTrue(new SizeEstimator().deepSize(large) > new SizeEstimator().deepSize(small));
+    }
+
+    @Test
+    void deepGraph() {
+        Object node = null;
+        for (int i = 0; i < 100_000; i++) {
+            node = new Node(i, node);
+        }
+
+        assertTrue(new SizeEstimator().deepSize(node) >= 100_000L * 16);
+    }
+
+    @Test
+    void shallowSize() {
+        SizeEstimator estimator = new SizeEstimator();
+        Node node = new Node(0, new long[1000]);
+        assertTrue(estimator.shallowSize(node) < 64);
+        assertEquals(0, estimator.shallowSize(node));
+        assertEquals(0, estimator.shallowSize(null));
+    }
+
+    private static class UserList extends AbstractList<Object> {
+        private final Object[] elements = new Object[] {"first", "second"};
+
+        @Override
+        public Object get(int index) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public int size() {
+            throw new IllegalStateException();
+        }
+    }
+
+    @Test
+    void userCollectionsAreWalkedByField() {
+        UserList list = new UserList();
+        SizeEstimator estimator = new SizeEstimator();
+
+        assertTrue(estimator.deepSize(list) > estimator.shallowSize(new UserList()));
+        assertEquals(0, estimator.deepSize(list.elements[0]));
+    }
+
+    @Test
+    void failingIterationIsIgnored() {
+        List<Object> list = new ArrayList<>(List.of("a"));
+        assertDoesNotThrow(() -> new SizeEstimator().deepSize(List.of(List.copyOf(list),
+                Collections.unmodifiableList(new UserList()))));
+    }
+
+    @Test
+    void excludedObjectsAreNotCounted() {
+        SizeEstimator estimator = new SizeEstimator();
+        String shared = "shared string";
+
+        estimator.exclude(new Node(0, shared));
+        assertEquals(estimator.deepSize(new Node(1, null)), estimator.deepSize(new Node(2, shared)));
+    }
+}